@@ -0,0 +1,95 @@
+#!/usr/bin/env bash
+#
+# Startup benchmark: time from "java" to the first successful request, default jar vs production build
+#   baseline   : mvn package, java -jar (eager beans, no AOT, no CDS)
+#   production : mvn package -P production, java with the AOT code, the CDS archive and the prod profile
+#
+# Needs the database of application.properties (or SPRING_DATASOURCE_* variables), like the application itself.
+#
+#   scripts/startup-benchmark.sh [runs]          default 5 runs per variant
+#   SKIP_BUILD=1 scripts/startup-benchmark.sh    reuse the jars of the last run
+#   PROBE_PATH=/api/tasks SERVER_PORT=8081 ...   request used as "first successful request"
+#
+set -euo pipefail
+
+RUNS="${1:-5}"
+PORT="${SERVER_PORT:-8080}"
+PROBE_PATH="${PROBE_PATH:-/api/projects}"
+TIMEOUT_SECONDS="${TIMEOUT_SECONDS:-120}"
+
+ROOT="$(cd "$(dirname "$0")/.." && pwd)"
+WORK="$ROOT/target/startup-benchmark"
+JAR="mytaskmanager-0.0.1-SNAPSHOT.jar"
+JAVA="${JAVA_HOME:+$JAVA_HOME/bin/}java"
+
+build() {
+    echo "Building baseline jar..."
+    (cd "$ROOT" && sh mvnw -q -B clean package -DskipTests)
+    mkdir -p "$WORK"
+    cp "$ROOT/target/$JAR" "$WORK/baseline.jar"
+
+    echo "Building production jar (AOT + CDS training run into target/app)..."
+    (cd "$ROOT" && sh mvnw -q -B package -P production -DskipTests)
+}
+
+# Starts the application with the given arguments, prints the milliseconds until PROBE_PATH answered 200
+time_to_first_request() {
+    local dir="$1"; shift
+    local start end status pid
+    start=$(date +%s%N)
+    (cd "$dir" && exec "$JAVA" "$@" --server.port="$PORT" > "$WORK/last-run.log" 2>&1) &
+    pid=$!
+
+    status=000
+    while [ "$status" != "200" ]; do
+        if ! kill -0 "$pid" 2> /dev/null; then
+            echo "application exited, see $WORK/last-run.log" >&2
+            return 1
+        fi
+        if [ $(( ($(date +%s%N) - start) / 1000000000 )) -ge "$TIMEOUT_SECONDS" ]; then
+            kill "$pid"; wait "$pid" 2> /dev/null || true
+            echo "no successful request after ${TIMEOUT_SECONDS} s, see $WORK/last-run.log" >&2
+            return 1
+        fi
+        status=$(curl -s -o /dev/null -w '%{http_code}' "http://localhost:$PORT$PROBE_PATH" || true)
+        [ "$status" = "200" ] || sleep 0.02
+    done
+    end=$(date +%s%N)
+
+    kill "$pid"; wait "$pid" 2> /dev/null || true
+    echo $(( (end - start) / 1000000 ))
+}
+
+# label, working directory, java arguments...
+measure() {
+    local label="$1" dir="$2"; shift 2
+    local times=() ms
+    for i in $(seq 1 "$RUNS"); do
+        ms=$(time_to_first_request "$dir" "$@")
+        echo "  $label run $i: $ms ms" >&2
+        times+=("$ms")
+    done
+    printf '%s\n' "${times[@]}" | sort -n | awk -v label="$label" '
+        { t[NR] = $1 }
+        END { printf "%-11s min %6d ms   median %6d ms   max %6d ms\n", label, t[1], t[int((NR + 1) / 2)], t[NR] }'
+}
+
+if [ -z "${SKIP_BUILD:-}" ]; then
+    build
+fi
+
+if [ ! -f "$ROOT/target/app/application.jsa" ]; then
+    echo "target/app/application.jsa missing, run without SKIP_BUILD" >&2
+    exit 1
+fi
+
+echo "Time to first successful GET $PROBE_PATH, $RUNS runs each"
+baseline=$(measure baseline "$WORK" -jar baseline.jar)
+production=$(measure production "$ROOT/target/app" \
+    -XX:SharedArchiveFile=application.jsa -Xlog:cds=error \
+    -Dspring.aot.enabled=true -Dspring.profiles.active=prod \
+    -jar "$JAR")
+
+echo
+echo "$baseline"
+echo "$production"
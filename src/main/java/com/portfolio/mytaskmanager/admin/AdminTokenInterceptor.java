@@ -0,0 +1,37 @@
+package com.portfolio.mytaskmanager.admin;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/*  Guards /api/admin/** with a shared secret in the X-Admin-Token header
+    without admin.token configured the admin API is switched off
+*/
+@Component
+public class AdminTokenInterceptor implements HandlerInterceptor {
+
+    public static final String HEADER = "X-Admin-Token";
+
+    @Value("${admin.token:}")
+    private String token;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (token == null || token.isBlank()) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Admin API is disabled");
+        }
+        String given = request.getHeader(HEADER);
+        // constant time compare, the answer time says nothing about how much of the token was right
+        if (given == null || !MessageDigest.isEqual(given.getBytes(StandardCharsets.UTF_8), token.getBytes(StandardCharsets.UTF_8))) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Missing or wrong " + HEADER);
+        }
+        return true;
+    }
+}
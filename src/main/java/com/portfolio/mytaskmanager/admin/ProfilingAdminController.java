@@ -0,0 +1,35 @@
+package com.portfolio.mytaskmanager.admin;
+
+import com.portfolio.mytaskmanager.profiling.ProfilingService;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+@RestController
+@RequestMapping("/api/admin/profiling")
+public class ProfilingAdminController {
+
+    private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    @Autowired
+    private ProfilingService profilingService;
+
+    // POST /api/admin/profiling/recording?duration=PT30S - records for the duration, then returns the .jfr file
+    @PostMapping("/recording")
+    public void record(@RequestParam(defaultValue = "PT30S") Duration duration, HttpServletResponse response) throws IOException {
+        String name = "mytaskmanager-" + LocalDateTime.now().format(FILE_TIME) + ".jfr";
+        profilingService.record(duration, () -> {
+            response.setContentType(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(name).build().toString());
+            return response.getOutputStream();
+        });
+    }
+}
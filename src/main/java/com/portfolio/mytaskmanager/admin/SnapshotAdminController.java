@@ -0,0 +1,41 @@
+package com.portfolio.mytaskmanager.admin;
+
+import com.portfolio.mytaskmanager.dto.SnapshotResultDTO;
+import com.portfolio.mytaskmanager.snapshot.TaskSnapshotService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+@RestController
+@RequestMapping("/api/admin/snapshot")
+public class SnapshotAdminController {
+
+    private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    @Autowired
+    private TaskSnapshotService snapshotService;
+
+    // GET /api/admin/snapshot - all projects and tasks as one compressed file, streamed while it is read
+    @GetMapping
+    public void download(HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename("tasks-" + LocalDateTime.now().format(FILE_TIME) + ".tmsnap")
+                .build().toString());
+        snapshotService.write(response.getOutputStream());
+    }
+
+    // POST /api/admin/snapshot with the file as body (application/octet-stream) - only into an empty database
+    @PostMapping(consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public SnapshotResultDTO restore(HttpServletRequest request) throws IOException {
+        return snapshotService.restore(request.getInputStream());
+    }
+}
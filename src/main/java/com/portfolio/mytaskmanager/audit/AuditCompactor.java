@@ -0,0 +1,87 @@
+package com.portfolio.mytaskmanager.audit;
+
+import com.portfolio.mytaskmanager.dto.AuditEventDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+/*  Moves closed audit segments into the audit_event table, one transaction per segment
+    the segment file is deleted only after the commit; when the process dies in between the segment is
+    copied again on the next run, the rows of its seqs are replaced so nothing is doubled
+    only rows of this instance are replaced, the seqs of other instances overlap with ours
+*/
+@Component
+public class AuditCompactor {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditCompactor.class);
+
+    @Autowired
+    private AuditLog auditLog;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${audit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${audit.compaction.batch-size:500}")
+    private int batchSize;
+
+
+    @Scheduled(initialDelayString = "${audit.compaction.initial-delay:PT1M}",
+               fixedDelayString = "${audit.compaction.interval:PT5M}")
+    public void scheduledRun() {
+        if (!enabled) {
+            return;
+        }
+        int moved = compact();
+        if (moved > 0) {
+            log.info("Moved {} audit events into the database", moved);
+        }
+    }
+
+    // Returns the number of events moved into the table
+    public int compact() {
+        auditLog.flush();
+        auditLog.rollIfNotEmpty();
+
+        int total = 0;
+        for (int number : auditLog.closedSegments()) {
+            List<AuditEventDTO> events = auditLog.readSegment(number);
+            transactionTemplate.executeWithoutResult(tx -> write(events));
+            auditLog.dropSegment(number);
+            total += events.size();
+        }
+        return total;
+    }
+
+    private void write(List<AuditEventDTO> events) {
+        String instanceId = auditLog.instanceId();
+        jdbcTemplate.batchUpdate("delete from audit_event where instance_id = ? and seq = ?", events, batchSize,
+                (ps, event) -> {
+                    ps.setString(1, instanceId);
+                    ps.setLong(2, event.getSeq());
+                });
+        jdbcTemplate.batchUpdate("insert into audit_event (instance_id, seq, entity_type, entity_id, occurred_at, payload) "
+                        + "values (?, ?, ?, ?, ?, ?)",
+                events, batchSize, (ps, event) -> {
+                    ps.setString(1, instanceId);
+                    ps.setLong(2, event.getSeq());
+                    ps.setString(3, event.getEntityType());
+                    ps.setLong(4, event.getEntityId());
+                    ps.setTimestamp(5, Timestamp.from(event.getOccurredAt()));
+                    ps.setString(6, auditLog.toJson(event));
+                });
+    }
+}
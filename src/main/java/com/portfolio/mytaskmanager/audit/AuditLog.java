@@ -0,0 +1,496 @@
+package com.portfolio.mytaskmanager.audit;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.portfolio.mytaskmanager.dto.AuditChangeDTO;
+import com.portfolio.mytaskmanager.dto.AuditEventDTO;
+import com.portfolio.mytaskmanager.profiling.QueueEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+
+/*  Append-only history of task and project changes (who, when, old and new values)
+    the services hand the before/after state to record() once their transaction committed, that only puts it
+    into a bounded lock-free buffer; the writer thread turns it into a JSON record and appends it to the current
+    memory-mapped segment file (audit.directory), a full segment is closed and the next one started
+    AuditCompactor moves closed segments into the audit_event table and deletes their files
+
+    an in-memory index (entity -> segment and offset of its records) lets history() read only the records of
+    one entity from the segments, older ones come from the table
+
+    seq numbers the records of this log only, every instance counts on its own: in the table a record is
+    identified by (instance_id, seq), the instance ID is created once per audit directory (file instance-id)
+    changes still in the buffer when the process dies are lost, appended ones survive a process crash
+    (and an OS crash once forced, every audit.flush-interval)
+*/
+@Component
+public class AuditLog {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditLog.class);
+
+    private static final String SYSTEM_ACTOR = "system";
+    private static final String INSTANCE_ID_FILE = "instance-id";
+
+    private final ObjectMapper objectMapper;
+    private final JdbcTemplate jdbcTemplate;
+
+    private final boolean enabled;
+    private final Path directory;
+    private final int segmentSize;
+    private final int bufferCapacity;
+    private final Duration flushInterval;
+
+    private final ConcurrentLinkedQueue<Pending> buffer = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger buffered = new AtomicInteger();
+    private final AtomicLong seq = new AtomicLong();
+    private String instanceId;
+
+    private final Map<Integer, AuditSegment> segments = new ConcurrentHashMap<>();
+    // "Task:12" -> positions (segment number << 32 | offset) of its records, each list guarded by itself
+    private final Map<String, List<Long>> index = new ConcurrentHashMap<>();
+
+    // Appends, rolls and drops of segments, held by the writer thread or a caller of flush()
+    private final Object writeLock = new Object();
+    private AuditSegment current;
+    private long lastForce;
+
+    // Held while the log is open, a second instance on the same directory would append to the same segment
+    private FileChannel lockChannel;
+
+    private volatile Thread writer;
+    private volatile boolean running;
+
+    @Autowired
+    public AuditLog(ObjectProvider<ObjectMapper> objectMapper, JdbcTemplate jdbcTemplate,
+                    @Value("${audit.enabled:true}") boolean enabled,
+                    @Value("${audit.directory:data/audit}") Path directory,
+                    @Value("${audit.segment-size:16MB}") DataSize segmentSize,
+                    @Value("${audit.buffer-capacity:65536}") int bufferCapacity,
+                    @Value("${audit.flush-interval:PT1S}") Duration flushInterval) {
+        // ISO dates in the records, the same as in the API responses
+        this(objectMapper.getIfAvailable(() -> Jackson2ObjectMapperBuilder.json()
+                        .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                        .build()),
+                jdbcTemplate, enabled, directory, segmentSize, bufferCapacity, flushInterval);
+    }
+
+    public AuditLog(ObjectMapper objectMapper, JdbcTemplate jdbcTemplate, boolean enabled, Path directory,
+                    DataSize segmentSize, int bufferCapacity, Duration flushInterval) {
+        this.objectMapper = objectMapper;
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.directory = directory;
+        this.segmentSize = (int) segmentSize.toBytes();
+        this.bufferCapacity = bufferCapacity;
+        this.flushInterval = flushInterval;
+    }
+
+    // Opens the segments left by the last run and rebuilds the index from them, then starts the writer
+    @PostConstruct
+    public void start() {
+        if (!enabled || writer != null) {
+            return;
+        }
+        try {
+            Files.createDirectories(directory);
+            lockChannel = FileChannel.open(directory.resolve("audit.lock"), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            FileLock lock;
+            try {
+                lock = lockChannel.tryLock();
+            } catch (OverlappingFileLockException e) {
+                lock = null;
+            }
+            if (lock == null) {
+                lockChannel.close();
+                throw new IllegalStateException("Audit directory " + directory.toAbsolutePath() + " is used by another instance");
+            }
+            instanceId = readOrCreateInstanceId();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        long maxSeq = 0;
+        for (int number : segmentNumbersOnDisk()) {
+            AuditSegment segment = AuditSegment.open(directory, number);
+            segments.put(number, segment);
+            for (Map.Entry<Integer, AuditEventDTO> record : readRecords(segment).entrySet()) {
+                addToIndex(record.getValue(), number, record.getKey());
+                maxSeq = Math.max(maxSeq, record.getValue().getSeq());
+            }
+            current = segment;
+        }
+        Long compactedMax = jdbcTemplate.queryForObject("select max(seq) from audit_event where instance_id = ?",
+                Long.class, instanceId);
+        seq.set(Math.max(maxSeq, compactedMax != null ? compactedMax : 0));
+        if (current == null) {
+            current = AuditSegment.create(directory, 1, segmentSize);
+            segments.put(1, current);
+        }
+        log.info("Audit log {} opened in {}: {} segments, last seq {}", instanceId, directory.toAbsolutePath(),
+                segments.size(), seq.get());
+
+        running = true;
+        writer = new Thread(this::writeLoop, "audit-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /*  Called after the change committed, with DTO snapshots of the entity (null before for CREATED,
+        null after for DELETED); only the changed fields are kept
+        returns at once unless the buffer is full, then the caller waits for the writer (nothing is dropped)
+    */
+    public void record(String entityType, Long entityId, AuditEventDTO.Action action, Object before, Object after) {
+        record(entityType, entityId, action, null, before, after);
+    }
+
+    // For a change made away from its HTTP request (queued work...): 'actor' as taken by currentActor() back then
+    public void record(String entityType, Long entityId, AuditEventDTO.Action action, String actor,
+                       Object before, Object after) {
+        if (!running) {
+            return;
+        }
+        Pending pending = new Pending(seq.incrementAndGet(), entityType, entityId, action,
+                actor != null ? actor : currentActor(), Instant.now(), before, after);
+        while (buffered.incrementAndGet() > bufferCapacity) {
+            buffered.decrementAndGet();
+            LockSupport.unpark(writer);
+            LockSupport.parkNanos(100_000);
+        }
+        buffer.offer(pending);
+        LockSupport.unpark(writer);
+    }
+
+    /*  Every change of the entity, oldest first (by time, then seq: the records may come from several instances)
+        read in the order buffer, segments, table: a record moves the other way (it is appended before it leaves
+        the buffer, and copied to the table before its segment is dropped), so it is always found at least once
+    */
+    public List<AuditEventDTO> history(String entityType, Long entityId) {
+        // "instance:seq" -> record
+        Map<String, AuditEventDTO> events = new LinkedHashMap<>();
+
+        for (Pending pending : buffer) {
+            if (pending.entityType().equals(entityType) && pending.entityId().equals(entityId)) {
+                events.put(instanceId + ":" + pending.seq(), toEvent(pending));
+            }
+        }
+
+        List<Long> positions = index.get(key(entityType, entityId));
+        if (positions != null) {
+            List<Long> copy;
+            synchronized (positions) {
+                copy = new ArrayList<>(positions);
+            }
+            for (long position : copy) {
+                AuditSegment segment = segments.get((int) (position >>> 32));
+                if (segment != null) {
+                    AuditEventDTO event = parse(segment.read((int) position));
+                    events.put(instanceId + ":" + event.getSeq(), event);
+                }
+            }
+        }
+
+        jdbcTemplate.query("select instance_id, payload from audit_event where entity_type = ? and entity_id = ?",
+                rs -> {
+                    AuditEventDTO event = parse(rs.getString(2).getBytes(StandardCharsets.UTF_8));
+                    events.putIfAbsent(rs.getString(1) + ":" + event.getSeq(), event);
+                }, entityType, entityId);
+
+        List<AuditEventDTO> history = new ArrayList<>(events.values());
+        history.sort(Comparator.comparing(AuditEventDTO::getOccurredAt).thenComparingLong(AuditEventDTO::getSeq));
+        return history;
+    }
+
+    // Appends everything buffered right now on the calling thread
+    public void flush() {
+        synchronized (writeLock) {
+            drainBuffer();
+            if (current != null) {
+                current.force();
+            }
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        Thread thread = writer;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            try {
+                thread.join(10_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        flush();
+        if (lockChannel != null) {
+            try {
+                lockChannel.close();
+            } catch (IOException e) {
+                log.warn("Could not release the audit directory lock: {}", e.toString());
+            }
+        }
+    }
+
+
+    // ====== compaction (AuditCompactor) ======
+
+    // Key of this log's records in the table next to their seq
+    String instanceId() {
+        return instanceId;
+    }
+
+    // Closes the current segment when it holds records, so the compaction also picks up a quiet period
+    void rollIfNotEmpty() {
+        synchronized (writeLock) {
+            if (current != null && !current.isEmpty()) {
+                roll();
+            }
+        }
+    }
+
+    // Segments no longer written to, oldest first
+    List<Integer> closedSegments() {
+        synchronized (writeLock) {
+            return segments.keySet().stream()
+                    .filter(number -> current == null || number != current.number())
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    List<AuditEventDTO> readSegment(int number) {
+        AuditSegment segment = segments.get(number);
+        return segment != null ? new ArrayList<>(readRecords(segment).values()) : List.of();
+    }
+
+    // After its records were committed to the table
+    void dropSegment(int number) {
+        AuditSegment segment;
+        synchronized (writeLock) {
+            segment = segments.remove(number);
+        }
+        if (segment == null) {
+            return;
+        }
+        index.values().forEach(positions -> {
+            synchronized (positions) {
+                positions.removeIf(position -> (int) (position >>> 32) == number);
+            }
+        });
+        index.values().removeIf(positions -> {
+            synchronized (positions) {
+                return positions.isEmpty();
+            }
+        });
+        segment.delete();
+    }
+
+
+    // The same JSON in the segments and in the payload column
+    String toJson(AuditEventDTO event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+
+    private void writeLoop() {
+        while (running || !buffer.isEmpty()) {
+            try {
+                synchronized (writeLock) {
+                    drainBuffer();
+                    if (System.nanoTime() - lastForce >= flushInterval.toNanos()) {
+                        current.force();
+                        lastForce = System.nanoTime();
+                    }
+                }
+            } catch (RuntimeException e) {
+                log.error("Audit writer failed, continuing", e);
+            }
+            if (running && buffer.isEmpty()) {
+                LockSupport.parkNanos(flushInterval.toNanos());
+            }
+        }
+    }
+
+    // Caller holds writeLock; a record leaves the buffer only after it was appended and indexed
+    private void drainBuffer() {
+        QueueEvent event = new QueueEvent();
+        event.begin();
+        int drained = 0;
+        Pending pending;
+        while ((pending = buffer.peek()) != null) {
+            append(toEvent(pending));
+            buffer.poll();
+            buffered.decrementAndGet();
+            drained++;
+        }
+        if (drained > 0) {
+            event.finish("audit-buffer", "batch", drained, buffered.get());
+        }
+    }
+
+    private void append(AuditEventDTO event) {
+        byte[] payload = toJson(event).getBytes(StandardCharsets.UTF_8);
+        int offset = current.append(payload);
+        if (offset < 0) {
+            roll();
+            offset = current.append(payload);
+        }
+        if (offset < 0) {
+            log.error("Audit record {} of {} bytes does not fit into a segment, dropped", event.getSeq(), payload.length);
+            return;
+        }
+        addToIndex(event, current.number(), offset);
+    }
+
+    private void roll() {
+        current.force();
+        AuditSegment next = AuditSegment.create(directory, current.number() + 1, segmentSize);
+        segments.put(next.number(), next);
+        current = next;
+    }
+
+    private void addToIndex(AuditEventDTO event, int segment, int offset) {
+        List<Long> positions = index.computeIfAbsent(key(event.getEntityType(), event.getEntityId()), k -> new ArrayList<>());
+        synchronized (positions) {
+            positions.add(((long) segment << 32) | offset);
+        }
+    }
+
+    // Offset -> record, in file order
+    private Map<Integer, AuditEventDTO> readRecords(AuditSegment segment) {
+        Map<Integer, AuditEventDTO> records = new LinkedHashMap<>();
+        segment.scan((offset, payload) -> records.put(offset, parse(payload)));
+        return records;
+    }
+
+    // Kept with the segments: records left in them by the last run still belong to this ID
+    private String readOrCreateInstanceId() throws IOException {
+        Path file = directory.resolve(INSTANCE_ID_FILE);
+        if (Files.exists(file)) {
+            String id = Files.readString(file).strip();
+            if (!id.isEmpty()) {
+                return id;
+            }
+        }
+        String id = UUID.randomUUID().toString();
+        Files.writeString(file, id);
+        return id;
+    }
+
+    private List<Integer> segmentNumbersOnDisk() {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> AuditSegment.parseNumber(file.getFileName().toString()))
+                    .filter(number -> number > 0)
+                    .sorted()
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private AuditEventDTO toEvent(Pending pending) {
+        Map<String, Object> before = toMap(pending.before());
+        Map<String, Object> after = toMap(pending.after());
+        Set<String> fields = new LinkedHashSet<>(before.keySet());
+        fields.addAll(after.keySet());
+        fields.remove("id");
+
+        Map<String, AuditChangeDTO> changes = new LinkedHashMap<>();
+        for (String field : fields) {
+            Object oldValue = before.get(field);
+            Object newValue = after.get(field);
+            if (!sameValue(oldValue, newValue)) {
+                changes.put(field, new AuditChangeDTO(oldValue, newValue));
+            }
+        }
+        return new AuditEventDTO(pending.seq(), pending.entityType(), pending.entityId(), pending.action(),
+                pending.actor(), pending.occurredAt(), changes);
+    }
+
+    // Tags come from a set, the same tags in another order are no change
+    private static boolean sameValue(Object oldValue, Object newValue) {
+        if (oldValue instanceof List<?> oldList && newValue instanceof List<?> newList) {
+            return oldList.size() == newList.size() && new HashSet<>(oldList).equals(new HashSet<>(newList));
+        }
+        return Objects.equals(oldValue, newValue);
+    }
+
+    private Map<String, Object> toMap(Object snapshot) {
+        return snapshot != null ? objectMapper.convertValue(snapshot, new TypeReference<Map<String, Object>>() {}) : Map.of();
+    }
+
+    private AuditEventDTO parse(byte[] payload) {
+        try {
+            return objectMapper.readValue(payload, AuditEventDTO.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String key(String entityType, Long entityId) {
+        return entityType + ":" + entityId;
+    }
+
+    // X-User header of the current request, or its remote address; "system" outside of a request
+    public static String currentActor() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes servletAttributes)) {
+            return SYSTEM_ACTOR;
+        }
+        HttpServletRequest request = servletAttributes.getRequest();
+        String user = request.getHeader("X-User");
+        String actor = user != null && !user.isBlank() ? user.trim() : request.getRemoteAddr();
+        return actor.length() > 100 ? actor.substring(0, 100) : actor;
+    }
+
+
+    private record Pending(long seq, String entityType, Long entityId, AuditEventDTO.Action action, String actor,
+                           Instant occurredAt, Object before, Object after) {
+    }
+}
@@ -0,0 +1,121 @@
+package com.portfolio.mytaskmanager.audit;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.BiConsumer;
+
+/*  One file of the audit log, memory mapped at its full size when created
+    records are [int length][payload] one after the other, a zero length marks the end of the written part
+    the payload is written first and the length last, a reader (or the scan after a crash) never sees
+    a length whose payload is not complete
+
+    one writer appends (AuditLog's writer thread), any thread reads at offsets it got from the writer
+*/
+class AuditSegment {
+
+    private final int number;
+    private final Path file;
+    private final MappedByteBuffer buffer;
+    private int writeOffset;
+
+    private AuditSegment(int number, Path file, MappedByteBuffer buffer, int writeOffset) {
+        this.number = number;
+        this.file = file;
+        this.buffer = buffer;
+        this.writeOffset = writeOffset;
+    }
+
+    static AuditSegment create(Path directory, int number, int size) {
+        return map(directory, number, size, true);
+    }
+
+    // An existing segment, positioned after its last complete record
+    static AuditSegment open(Path directory, int number) {
+        AuditSegment segment = map(directory, number, -1, false);
+        segment.scan((offset, payload) -> segment.writeOffset = offset + Integer.BYTES + payload.length);
+        return segment;
+    }
+
+    static String fileName(int number) {
+        return String.format("segment-%09d.log", number);
+    }
+
+    // Segment number from a file name, -1 for other files
+    static int parseNumber(String fileName) {
+        if (!fileName.matches("segment-\\d{9}\\.log")) {
+            return -1;
+        }
+        return Integer.parseInt(fileName.substring(8, 17));
+    }
+
+    int number() {
+        return number;
+    }
+
+    boolean isEmpty() {
+        return writeOffset == 0;
+    }
+
+    // Offset of the record, -1 when it does not fit into the rest of the segment
+    int append(byte[] payload) {
+        int offset = writeOffset;
+        if (offset + Integer.BYTES + payload.length + Integer.BYTES > buffer.capacity()) {
+            return -1;
+        }
+        buffer.put(offset + Integer.BYTES, payload);
+        buffer.putInt(offset, payload.length);
+        writeOffset = offset + Integer.BYTES + payload.length;
+        return offset;
+    }
+
+    byte[] read(int offset) {
+        int length = buffer.getInt(offset);
+        byte[] payload = new byte[length];
+        buffer.get(offset + Integer.BYTES, payload);
+        return payload;
+    }
+
+    // Every complete record in file order
+    void scan(BiConsumer<Integer, byte[]> consumer) {
+        int offset = 0;
+        while (offset + Integer.BYTES <= buffer.capacity()) {
+            int length = buffer.getInt(offset);
+            if (length <= 0 || offset + Integer.BYTES + length > buffer.capacity()) {
+                return;
+            }
+            consumer.accept(offset, read(offset));
+            offset += Integer.BYTES + length;
+        }
+    }
+
+    // Written pages to disk (msync) against an OS crash, a crash of the process alone loses nothing already appended
+    void force() {
+        buffer.force();
+    }
+
+    // The mapping stays valid for readers still holding the segment, the file is gone for everybody else
+    void delete() {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static AuditSegment map(Path directory, int number, int size, boolean create) {
+        Path file = directory.resolve(fileName(number));
+        try (FileChannel channel = create
+                ? FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.CREATE_NEW)
+                : FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long length = create ? size : channel.size();
+            return new AuditSegment(number, file, channel.map(FileChannel.MapMode.READ_WRITE, 0, length), 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.portfolio.mytaskmanager.cache;
+
+/*  Message telling the other app instances that an entity changed
+    origin - ID of the instance that made the change (it ignores its own messages)
+    entity - JPA entity name ("Project"), id - changed row or null for all rows of the entity
+*/
+public record CacheInvalidation(String origin, String entity, Long id) {
+
+    // Compact text form used on the wire: origin|entity|id
+    public String encode() {
+        return origin + "|" + entity + "|" + (id != null ? id : "*");
+    }
+
+    public static CacheInvalidation decode(String text) {
+        String[] parts = text.split("\\|", 3);
+        if (parts.length != 3) {
+            throw new IllegalArgumentException("Invalid cache invalidation message: " + text);
+        }
+        return new CacheInvalidation(parts[0], parts[1], "*".equals(parts[2]) ? null : Long.valueOf(parts[2]));
+    }
+}
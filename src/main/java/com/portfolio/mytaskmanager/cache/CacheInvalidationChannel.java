@@ -0,0 +1,14 @@
+package com.portfolio.mytaskmanager.cache;
+
+import java.util.function.Consumer;
+
+/*  Transport for cache invalidation messages between app instances
+    selected with cache.invalidation.channel, a real broker (Redis, JMS...) would be one more implementation
+*/
+public interface CacheInvalidationChannel {
+
+    void publish(CacheInvalidation invalidation);
+
+    // Called for every received message, own messages included
+    void subscribe(Consumer<CacheInvalidation> subscriber);
+}
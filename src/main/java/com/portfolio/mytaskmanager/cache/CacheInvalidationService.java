@@ -0,0 +1,90 @@
+package com.portfolio.mytaskmanager.cache;
+
+import com.portfolio.mytaskmanager.entity.Project;
+import com.portfolio.mytaskmanager.service.ProjectChangeListener;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.metamodel.EntityType;
+import org.hibernate.SessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.UUID;
+
+/*  Keeps the second-level cache of this instance consistent with writes made by other instances
+    the local cache already follows local writes (READ_WRITE strategy), here every project write is
+    announced on the channel and every message from another instance evicts the entity and the
+    cached query results, the next read goes to the database
+*/
+@Service
+public class CacheInvalidationService implements ProjectChangeListener {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheInvalidationService.class);
+
+    // Missing when cache.invalidation.channel=none, then nothing is sent or received
+    @Autowired(required = false)
+    private CacheInvalidationChannel channel;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final String origin = UUID.randomUUID().toString();
+
+    @PostConstruct
+    void subscribe() {
+        if (channel != null) {
+            channel.subscribe(this::onMessage);
+        }
+    }
+
+    @Override
+    public void onProjectSaved(Project project) {
+        publish(Project.class, project.getId());
+    }
+
+    @Override
+    public void onProjectDeleted(Long projectId) {
+        publish(Project.class, projectId);
+    }
+
+    public void publish(Class<?> entity, Long id) {
+        if (channel != null) {
+            channel.publish(new CacheInvalidation(origin, entityName(entity), id));
+        }
+    }
+
+    public String getOrigin() {
+        return origin;
+    }
+
+
+    void onMessage(CacheInvalidation invalidation) {
+        if (origin.equals(invalidation.origin())) {
+            return;
+        }
+        Class<?> entity = entityManagerFactory.getMetamodel().getEntities().stream()
+                .filter(e -> e.getName().equals(invalidation.entity()))
+                .map(EntityType::getJavaType)
+                .findFirst()
+                .orElse(null);
+        if (entity == null) {
+            log.warn("Cache invalidation for unknown entity {}", invalidation.entity());
+            return;
+        }
+
+        org.hibernate.Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        if (invalidation.id() != null) {
+            cache.evictEntityData(entity, invalidation.id());
+        } else {
+            cache.evictEntityData(entity);
+        }
+        // cached query results may contain the changed row, the other instance's write did not touch our timestamps
+        cache.evictQueryRegions();
+    }
+
+    private String entityName(Class<?> entity) {
+        return entityManagerFactory.getMetamodel().entity(entity).getName();
+    }
+}
@@ -0,0 +1,26 @@
+package com.portfolio.mytaskmanager.cache;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+// Delivers messages synchronously inside one JVM, used by tests to play several instances
+@Component
+@ConditionalOnProperty(name = "cache.invalidation.channel", havingValue = "in-memory")
+public class InMemoryInvalidationChannel implements CacheInvalidationChannel {
+
+    private final List<Consumer<CacheInvalidation>> subscribers = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(CacheInvalidation invalidation) {
+        subscribers.forEach(s -> s.accept(invalidation));
+    }
+
+    @Override
+    public void subscribe(Consumer<CacheInvalidation> subscriber) {
+        subscribers.add(subscriber);
+    }
+}
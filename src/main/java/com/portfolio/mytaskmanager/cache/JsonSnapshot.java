@@ -0,0 +1,68 @@
+package com.portfolio.mytaskmanager.cache;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+/*  Response body serialized once and kept as bytes, plain and gzip compressed
+    generation - version of the data it was built from, etag - hash of the JSON content
+    serving it is a copy of the byte array into the response, no DTOs or JSON generators involved
+*/
+public record JsonSnapshot(long generation, byte[] json, byte[] gzip, String etag) {
+
+    public ResponseEntity<byte[]> toResponse(String ifNoneMatch, String acceptEncoding) {
+        boolean compressed = acceptsGzip(acceptEncoding);
+        String tag = compressed ? gzipEtag() : etag;
+
+        if (matches(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(tag)
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(tag)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (compressed) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").contentLength(gzip.length).body(gzip);
+        }
+        return response.contentLength(json.length).body(json);
+    }
+
+    // Both representations have their own strong ETag, either one proves the client has the current content
+    private boolean matches(String ifNoneMatch) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag) || tag.equals(gzipEtag())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String gzipEtag() {
+        return etag.substring(0, etag.length() - 1) + "-gzip\"";
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length < 2 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+}
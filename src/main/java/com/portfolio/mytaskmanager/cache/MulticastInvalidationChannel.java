@@ -0,0 +1,85 @@
+package com.portfolio.mytaskmanager.cache;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.MulticastSocket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/*  Stand-in for a message broker when several instances run on one host
+    every instance joins the same UDP multicast group, TTL 0 keeps the packets on this host
+    delivery is best effort (UDP), the cache regions still expire on their own (caffeine-cache.conf)
+*/
+@Component
+@ConditionalOnProperty(name = "cache.invalidation.channel", havingValue = "multicast")
+public class MulticastInvalidationChannel implements CacheInvalidationChannel {
+
+    private static final Logger log = LoggerFactory.getLogger(MulticastInvalidationChannel.class);
+
+    private final InetSocketAddress group;
+    private final MulticastSocket socket;
+
+    private final List<Consumer<CacheInvalidation>> subscribers = new CopyOnWriteArrayList<>();
+
+    public MulticastInvalidationChannel(@Value("${cache.invalidation.multicast.group}") String group,
+                                        @Value("${cache.invalidation.multicast.port}") int port) throws IOException {
+        this.group = new InetSocketAddress(InetAddress.getByName(group), port);
+        this.socket = new MulticastSocket(port);
+        socket.setTimeToLive(0);
+        socket.joinGroup(this.group, null);
+
+        Thread receiver = new Thread(this::receive, "cache-invalidation-receiver");
+        receiver.setDaemon(true);
+        receiver.start();
+    }
+
+    @Override
+    public void publish(CacheInvalidation invalidation) {
+        byte[] data = invalidation.encode().getBytes(StandardCharsets.UTF_8);
+        try {
+            socket.send(new DatagramPacket(data, data.length, group));
+        } catch (IOException e) {
+            log.warn("Cache invalidation {} not sent: {}", invalidation, e.getMessage());
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<CacheInvalidation> subscriber) {
+        subscribers.add(subscriber);
+    }
+
+    @PreDestroy
+    public void close() {
+        socket.close();
+    }
+
+
+    private void receive() {
+        byte[] buffer = new byte[512];
+        while (!socket.isClosed()) {
+            DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
+            try {
+                socket.receive(packet);
+                CacheInvalidation invalidation = CacheInvalidation.decode(
+                        new String(packet.getData(), packet.getOffset(), packet.getLength(), StandardCharsets.UTF_8));
+                subscribers.forEach(s -> s.accept(invalidation));
+            } catch (SocketException e) {
+                // socket closed on shutdown
+            } catch (RuntimeException | IOException e) {
+                log.warn("Cache invalidation message dropped: {}", e.getMessage());
+            }
+        }
+    }
+}
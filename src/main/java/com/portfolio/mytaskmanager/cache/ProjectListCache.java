@@ -0,0 +1,118 @@
+package com.portfolio.mytaskmanager.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.portfolio.mytaskmanager.entity.Project;
+import com.portfolio.mytaskmanager.profiling.CacheEvent;
+import com.portfolio.mytaskmanager.service.ProjectChangeListener;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+/*  Serialized response of GET /api/projects, rebuilt only after a project write
+    every write (here or on another instance) moves the generation forward, a snapshot of an older
+    generation is never served again; the next read queries the table once and stores the new bytes
+
+    a read that started before a write may finish after it, its snapshot keeps the generation it
+    started with, so it is already outdated when stored and the following read builds a fresh one
+*/
+@Component
+public class ProjectListCache implements ProjectChangeListener {
+
+    private final ObjectMapper objectMapper;
+
+    private final AtomicLong generation = new AtomicLong();
+
+    private volatile JsonSnapshot snapshot;
+
+    public ProjectListCache(ObjectProvider<ObjectMapper> objectMapper, ObjectProvider<CacheInvalidationChannel> channel) {
+        // the MVC mapper when present so the bytes match what the JSON converter would write,
+        // otherwise one with the same Spring Boot defaults (ISO dates)
+        this.objectMapper = objectMapper.getIfAvailable(() -> Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build());
+        channel.ifAvailable(c -> c.subscribe(invalidation -> {
+            if ("Project".equals(invalidation.entity())) {
+                invalidate();
+            }
+        }));
+    }
+
+    // Read before loading the data, the value goes back into store()
+    public long generation() {
+        return generation.get();
+    }
+
+    // Snapshot of the current generation or null when the list has to be loaded
+    public JsonSnapshot current() {
+        JsonSnapshot current = snapshot;
+        boolean hit = current != null && current.generation() == generation.get();
+        CacheEvent.emit("project-list", hit ? "hit" : "miss");
+        return hit ? current : null;
+    }
+
+    // Serializes the loaded list, kept only while no write happened since 'loadedGeneration' was read
+    public JsonSnapshot store(long loadedGeneration, Object body) {
+        JsonSnapshot built = build(loadedGeneration, body);
+        if (loadedGeneration == generation.get()) {
+            snapshot = built;
+        }
+        return built;
+    }
+
+    public void invalidate() {
+        generation.incrementAndGet();
+        snapshot = null;
+        CacheEvent.emit("project-list", "invalidate");
+    }
+
+    @Override
+    public void onProjectSaved(Project project) {
+        invalidate();
+    }
+
+    @Override
+    public void onProjectDeleted(Long projectId) {
+        invalidate();
+    }
+
+
+    private JsonSnapshot build(long generation, Object body) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(body);
+            return new JsonSnapshot(generation, json, gzip(json), etag(json));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Project list could not be serialized", e);
+        }
+    }
+
+    private static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, data.length / 4));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    // Content hash, the same list gives the same ETag across restarts and instances
+    private static String etag(byte[] data) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(data);
+            return "\"" + HexFormat.of().formatHex(hash, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.portfolio.mytaskmanager.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/*  Request coalescing: concurrent calls for the same key share one execution of the loader
+    the first caller runs it, callers arriving while it is in flight wait for the same result
+    (or the same exception); once it finishes the key is free again, nothing is cached here
+
+    callers that joined a running load get the value that load read - a write committed
+    while it was in flight is seen by the next load, the same as without coalescing
+*/
+public class SingleFlight<K, V> implements MeterBinder {
+
+    private final String name;
+
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder executed = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    public SingleFlight(String name) {
+        this.name = name;
+    }
+
+    public V execute(K key, Supplier<V> loader) {
+        CompletableFuture<V> own = new CompletableFuture<>();
+        CompletableFuture<V> running = inFlight.putIfAbsent(key, own);
+        if (running != null) {
+            coalesced.increment();
+            return await(running);
+        }
+
+        executed.increment();
+        try {
+            V value = loader.get();
+            own.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            own.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, own);
+        }
+    }
+
+    // Loader runs that really happened
+    public long executedCount() {
+        return executed.sum();
+    }
+
+    // Calls answered by joining a load that was already running
+    public long coalescedCount() {
+        return coalesced.sum();
+    }
+
+    // singleflight.calls{name=..., result=executed|coalesced}
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("singleflight.calls", executed, LongAdder::doubleValue)
+                .tag("name", name).tag("result", "executed")
+                .description("Loads started by the first caller of a key")
+                .register(registry);
+        FunctionCounter.builder("singleflight.calls", coalesced, LongAdder::doubleValue)
+                .tag("name", name).tag("result", "coalesced")
+                .description("Calls that shared a load already in flight")
+                .register(registry);
+    }
+
+
+    private V await(CompletableFuture<V> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            // same exception as the caller that ran the load (e.g. 404 ResponseStatusException)
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
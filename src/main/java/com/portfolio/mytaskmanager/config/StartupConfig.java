@@ -0,0 +1,26 @@
+package com.portfolio.mytaskmanager.config;
+
+import com.portfolio.mytaskmanager.cache.CacheInvalidationService;
+import jakarta.persistence.EntityManagerFactory;
+import org.flywaydb.core.Flyway;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/*  Beans that stay eager when spring.main.lazy-initialization=true (prod profile)
+    - DataSource, Flyway and the EntityManagerFactory: migrations and the schema check run at boot, a bad schema
+      stops the instance before it takes traffic, and the first request does not pay for the Hibernate bootstrap
+    - CacheInvalidationService: subscribes to the invalidation channel when created, it must listen from the start
+    beans with @Scheduled methods are kept eager by Spring Boot itself
+*/
+@Configuration
+public class StartupConfig {
+
+    @Bean
+    public static LazyInitializationExcludeFilter eagerStartupBeans() {
+        return LazyInitializationExcludeFilter.forBeanTypes(DataSource.class, Flyway.class,
+                EntityManagerFactory.class, CacheInvalidationService.class);
+    }
+}
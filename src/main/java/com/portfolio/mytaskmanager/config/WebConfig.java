@@ -0,0 +1,26 @@
+package com.portfolio.mytaskmanager.config;
+
+import com.portfolio.mytaskmanager.admin.AdminTokenInterceptor;
+import com.portfolio.mytaskmanager.resilience.WriteGuardInterceptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    @Autowired
+    private AdminTokenInterceptor adminTokenInterceptor;
+
+    @Autowired
+    private WriteGuardInterceptor writeGuardInterceptor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(adminTokenInterceptor).addPathPatterns("/api/admin/**");
+        // profiling does not touch the database and is most needed while the database is slow
+        registry.addInterceptor(writeGuardInterceptor).addPathPatterns("/api/**")
+                .excludePathPatterns("/api/admin/profiling/**");
+    }
+}
@@ -0,0 +1,34 @@
+package com.portfolio.mytaskmanager.controller;
+
+import com.portfolio.mytaskmanager.dto.DashboardDTO;
+import com.portfolio.mytaskmanager.service.DashboardService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/dashboard")
+@CrossOrigin(origins = "*")
+public class DashboardController {
+
+    private static final int MAX_PROJECTS = 20;
+
+    @Autowired
+    private DashboardService service;
+
+
+    /*  GET /api/dashboard?projectIds=1,2 - every section fetched at the same time, always 200:
+        a section that failed or timed out is missing and named in "incomplete"
+        not passed through the degradation guard, the sections are already bounded by their own timeouts
+    */
+    @GetMapping
+    public DashboardDTO dashboard(@RequestParam(required = false) List<Long> projectIds){
+        if (projectIds != null && projectIds.size() > MAX_PROJECTS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "At most " + MAX_PROJECTS + " projects");
+        }
+        return service.dashboard(projectIds);
+    }
+}
@@ -1,13 +1,21 @@
 package com.portfolio.mytaskmanager.controller;
 
 
+import com.portfolio.mytaskmanager.cache.JsonSnapshot;
+import com.portfolio.mytaskmanager.cache.ProjectListCache;
+import com.portfolio.mytaskmanager.dto.AuditEventDTO;
+import com.portfolio.mytaskmanager.dto.CriticalPathDTO;
 import com.portfolio.mytaskmanager.dto.ProjectRequestDTO;
 import com.portfolio.mytaskmanager.dto.ProjectResponseDTO;
+import com.portfolio.mytaskmanager.dto.ProjectSuggestionDTO;
 import com.portfolio.mytaskmanager.entity.Project;
+import com.portfolio.mytaskmanager.resilience.DegradationGuard;
 import com.portfolio.mytaskmanager.service.ProjectService;
+import com.portfolio.mytaskmanager.service.TaskDependencyService;
 import jakarta.validation.Valid;
 import org.hibernate.dialect.unique.CreateTableUniqueDelegate;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -22,6 +30,15 @@ public class ProjectController {
     @Autowired
     private ProjectService service;
 
+    @Autowired
+    private TaskDependencyService dependencyService;
+
+    @Autowired
+    private DegradationGuard degradationGuard;
+
+    @Autowired
+    private ProjectListCache projectListCache;
+
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
@@ -30,15 +47,45 @@ public class ProjectController {
     }
 
 
-    // GET all projects from database
+    // GET all projects - served from the pre-serialized snapshot, 304 when the client's ETag is current
     @GetMapping
-    public List<ProjectResponseDTO> findAll() {
-        return service.findAll();
+    public ResponseEntity<?> findAll(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                     @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        JsonSnapshot snapshot = projectListCache.current();
+        if (snapshot == null) {
+            long generation = projectListCache.generation();
+            ResponseEntity<List<ProjectResponseDTO>> loaded = degradationGuard.serve(() -> service.findAll());
+            if (loaded.getHeaders().containsKey("Warning")) {
+                // stale answer of the degradation mode, passed on as it is and not stored
+                return loaded;
+            }
+            snapshot = projectListCache.store(generation, loaded.getBody());
+        }
+        return snapshot.toResponse(ifNoneMatch, acceptEncoding);
+    }
+
+    // GET /api/projects/suggest?prefix=web&limit=10 - names for the project picker, served from memory
+    @GetMapping("/suggest")
+    public List<ProjectSuggestionDTO> suggest(@RequestParam(defaultValue = "") String prefix,
+                                              @RequestParam(defaultValue = "10") int limit){
+        return service.suggest(prefix, limit);
     }
 
     @GetMapping("/{id}")
-    public ProjectResponseDTO findById(@PathVariable Long id){
-        return service.findById(id);
+    public ResponseEntity<ProjectResponseDTO> findById(@PathVariable Long id){
+        return degradationGuard.serve(() -> service.findById(id));
+    }
+
+    // Longest chain of blocked tasks and whether it fits before the project's end date
+    @GetMapping("/{id}/critical-path")
+    public ResponseEntity<CriticalPathDTO> criticalPath(@PathVariable Long id){
+        return degradationGuard.serve(() -> dependencyService.criticalPath(id));
+    }
+
+    // Who changed the project and when, from the audit log
+    @GetMapping("/{id}/history")
+    public ResponseEntity<List<AuditEventDTO>> history(@PathVariable Long id){
+        return degradationGuard.serve(() -> service.history(id));
     }
 
 
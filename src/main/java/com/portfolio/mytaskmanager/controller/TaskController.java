@@ -1,19 +1,38 @@
 package com.portfolio.mytaskmanager.controller;
 
 
+import com.portfolio.mytaskmanager.dto.AuditEventDTO;
+import com.portfolio.mytaskmanager.dto.CalendarDayDTO;
+import com.portfolio.mytaskmanager.dto.IngestionStatusDTO;
+import com.portfolio.mytaskmanager.dto.TagQueryResultDTO;
 import com.portfolio.mytaskmanager.dto.TaskRequestDTO;
 import com.portfolio.mytaskmanager.dto.TaskResponseDTO;
+import com.portfolio.mytaskmanager.dto.TaskRollupDTO;
+import com.portfolio.mytaskmanager.entity.Status;
 import com.portfolio.mytaskmanager.entity.Task;
 
+import com.portfolio.mytaskmanager.resilience.DegradationGuard;
 import com.portfolio.mytaskmanager.service.ProjectService;
+import com.portfolio.mytaskmanager.service.TaskDependencyService;
+import com.portfolio.mytaskmanager.service.TaskExportService;
+import com.portfolio.mytaskmanager.service.TaskIngestionService;
 import com.portfolio.mytaskmanager.service.TaskService;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.io.IOException;
+import java.net.URI;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/tasks")
@@ -23,20 +42,138 @@ public class TaskController {
     @Autowired
     private TaskService service;
 
+    @Autowired
+    private TaskDependencyService dependencyService;
+
+    @Autowired
+    private TaskExportService exportService;
+
+    @Autowired
+    private TaskIngestionService ingestionService;
+
+    // Database reads go through the guard, last known good answer when the database is slow or down
+    @Autowired
+    private DegradationGuard degradationGuard;
+
+    /*  Created synchronously (201), or with "Prefer: respond-async" and tasks.ingestion.enabled=true
+        queued and written later in a batch: 202 with the tracking ID, 429 while the queue is full
+    */
     @PostMapping
-    @ResponseStatus(HttpStatus.CREATED)
-    public TaskResponseDTO create(@Valid @RequestBody TaskRequestDTO request){
-        return service.create(request);
+    public ResponseEntity<?> create(@Valid @RequestBody TaskRequestDTO request,
+                                    @RequestHeader(value = "Prefer", required = false) String prefer){
+        if (prefer != null && prefer.contains("respond-async") && ingestionService.isEnabled()) {
+            IngestionStatusDTO status = ingestionService.submit(request);
+            if (status == null) {
+                return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                        .header(HttpHeaders.RETRY_AFTER, String.valueOf(ingestionService.retryAfterSeconds()))
+                        .build();
+            }
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/tasks/ingestion/" + status.getTrackingId()))
+                    .body(status);
+        }
+        return ResponseEntity.status(HttpStatus.CREATED).body(service.create(request));
     }
 
+    // Where a request accepted with 202 is: QUEUED, CREATED (with the task ID) or FAILED (with the reason)
+    @GetMapping("/ingestion/{trackingId}")
+    public IngestionStatusDTO ingestionStatus(@PathVariable String trackingId){
+        IngestionStatusDTO status = ingestionService.status(trackingId);
+        if (status == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Unknown or expired tracking ID");
+        }
+        return status;
+    }
+
+    // ?includeArchived=true also returns finished tasks already moved to the archive
     @GetMapping
-    public List<TaskResponseDTO> findAll(){
-        return service.findAll();
+    public ResponseEntity<List<TaskResponseDTO>> findAll(@RequestParam(defaultValue = "false") boolean includeArchived){
+        return degradationGuard.serve(() -> service.findAll(includeArchived));
+    }
+
+    // GET /api/tasks/export?projectId=1 - every task streamed from the database rows, for large lists and exports
+    @GetMapping("/export")
+    public void export(@RequestParam(required = false) Long projectId, HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        exportService.writeTasks(projectId, response.getOutputStream());
+    }
+
+    // GET /api/tasks/search?q=deploy api&status=TODO&projectId=1&limit=20
+    @GetMapping("/search")
+    public List<TaskResponseDTO> search(@RequestParam("q") String query,
+                                        @RequestParam(required = false) Status status,
+                                        @RequestParam(required = false) Long projectId,
+                                        @RequestParam(defaultValue = "20") int limit){
+        return service.search(query, status, projectId, limit);
+    }
+
+    // GET /api/tasks/tags?all=bug,q3&any=backend,frontend&none=customer-x&includeTasks=true
+    @GetMapping("/tags")
+    public TagQueryResultDTO findByTags(@RequestParam(required = false) Set<String> all,
+                                        @RequestParam(required = false) Set<String> any,
+                                        @RequestParam(required = false) Set<String> none,
+                                        @RequestParam(required = false) Status status,
+                                        @RequestParam(required = false) Long projectId,
+                                        @RequestParam(defaultValue = "false") boolean includeTasks,
+                                        @RequestParam(defaultValue = "100") int limit){
+        return service.findByTags(all, any, none, status, projectId, includeTasks, limit);
+    }
+
+    // GET /api/tasks/upcoming?limit=20&projectId=1 - open tasks ordered by due date
+    @GetMapping("/upcoming")
+    public ResponseEntity<List<TaskResponseDTO>> upcoming(@RequestParam(defaultValue = "20") int limit,
+                                          @RequestParam(required = false) Long projectId){
+        return degradationGuard.serve(() -> service.upcoming(limit, projectId));
+    }
+
+    // GET /api/tasks/calendar?from=2025-11-01&to=2025-11-30&includeTasks=true - tasks per due day
+    @GetMapping("/calendar")
+    public ResponseEntity<List<CalendarDayDTO>> calendar(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                         @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                         @RequestParam(defaultValue = "false") boolean includeTasks){
+        return degradationGuard.serve(() -> service.calendar(from, to, includeTasks));
     }
 
     @GetMapping("/{id}")
-    public TaskResponseDTO findById(@PathVariable Long id){
-        return service.findById(id);
+    public ResponseEntity<TaskResponseDTO> findById(@PathVariable Long id,
+                                    @RequestParam(defaultValue = "false") boolean includeArchived){
+        return degradationGuard.serve(() -> service.findById(id, includeArchived));
+    }
+
+    // Who changed what and when, from the audit log (X-User header of the writing request, else its address)
+    @GetMapping("/{id}/history")
+    public ResponseEntity<List<AuditEventDTO>> history(@PathVariable Long id){
+        return degradationGuard.serve(() -> service.history(id));
+    }
+
+    // All subtasks below the task at any depth, direct children first
+    @GetMapping("/{id}/subtasks")
+    public ResponseEntity<List<TaskResponseDTO>> findSubtasks(@PathVariable Long id){
+        return degradationGuard.serve(() -> service.findSubtasks(id));
+    }
+
+    // Status counts of the task and its whole subtree
+    @GetMapping("/{id}/rollup")
+    public ResponseEntity<TaskRollupDTO> rollup(@PathVariable Long id){
+        return degradationGuard.serve(() -> service.rollup(id));
+    }
+
+    // Tasks that have to be finished before this one can start
+    @GetMapping("/{id}/blockers")
+    public ResponseEntity<List<TaskResponseDTO>> findBlockers(@PathVariable Long id){
+        return degradationGuard.serve(() -> dependencyService.findBlockers(id));
+    }
+
+    @PostMapping("/{id}/blockers/{blockerId}")
+    public ResponseEntity<Void> addBlocker(@PathVariable Long id, @PathVariable Long blockerId){
+        dependencyService.addBlocker(id, blockerId);
+        return ResponseEntity.noContent().build();
+    }
+
+    @DeleteMapping("/{id}/blockers/{blockerId}")
+    public ResponseEntity<Void> removeBlocker(@PathVariable Long id, @PathVariable Long blockerId){
+        dependencyService.removeBlocker(id, blockerId);
+        return ResponseEntity.noContent().build();
     }
 
     @PutMapping("/{id}")
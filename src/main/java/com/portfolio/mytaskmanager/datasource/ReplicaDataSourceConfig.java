@@ -0,0 +1,107 @@
+package com.portfolio.mytaskmanager.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.JpaProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.orm.jpa.JpaVendorAdapter;
+import org.springframework.orm.jpa.vendor.HibernateJpaDialect;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/*  Read/write split, active when datasource.replicas.urls is set
+    the application DataSource is a LazyConnectionDataSourceProxy: the physical connection is taken only at
+    the first statement, after the transaction marked it read-only or not, read-only transactions
+    (@Transactional(readOnly = true)) get it from the replicas, everything else from the primary
+
+    both pools use the spring.datasource.hikari settings, the replicas the replica URLs and credentials
+    read-only transactions do not fill the Hibernate caches (ReplicaReadJpaDialect)
+*/
+@Configuration
+@ConditionalOnProperty(name = "datasource.replicas.urls")
+public class ReplicaDataSourceConfig {
+
+    // Not injected by type (defaultCandidate = false), JPA and JdbcTemplate only see the routing proxy
+    @Bean(defaultCandidate = false)
+    public HikariDataSource primaryPool(DataSourceProperties properties, Environment environment) {
+        HikariDataSource pool = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        bindHikari(pool, environment);
+        pool.setPoolName("primary");
+        return pool;
+    }
+
+    @Bean(defaultCandidate = false)
+    public ReplicaRoutingDataSource replicaDataSource(@Qualifier("primaryPool") HikariDataSource primaryPool,
+                                                      DataSourceProperties properties, Environment environment,
+                                                      @Value("${datasource.replicas.urls}") List<String> urls,
+                                                      @Value("${datasource.replicas.username:${spring.datasource.username:}}") String username,
+                                                      @Value("${datasource.replicas.password:${spring.datasource.password:}}") String password,
+                                                      @Value("${datasource.replicas.max-lag:PT5S}") Duration maxLag,
+                                                      @Value("${datasource.replicas.lag-query:}") String lagQuery,
+                                                      @Value("${datasource.replicas.check-interval:PT5S}") Duration checkInterval) {
+        List<DataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < urls.size(); i++) {
+            HikariDataSource replica = new HikariDataSource();
+            bindHikari(replica, environment);
+            replica.setPoolName("replica-" + i);
+            replica.setJdbcUrl(urls.get(i).trim());
+            replica.setUsername(username);
+            replica.setPassword(password);
+            if (properties.getDriverClassName() != null) {
+                replica.setDriverClassName(properties.getDriverClassName());
+            }
+            replica.setReadOnly(true);
+            replicas.add(replica);
+        }
+        return new ReplicaRoutingDataSource(primaryPool, replicas, maxLag, lagQuery, checkInterval);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryPool") HikariDataSource primaryPool,
+                                 @Qualifier("replicaDataSource") ReplicaRoutingDataSource replicaDataSource) {
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(primaryPool);
+        proxy.setReadOnlyDataSource(replicaDataSource);
+        return proxy;
+    }
+
+
+    // Boot's adapter with the same spring.jpa settings, only the dialect differs
+    @Bean
+    public JpaVendorAdapter jpaVendorAdapter(JpaProperties properties) {
+        ReplicaReadJpaDialect dialect = new ReplicaReadJpaDialect();
+        HibernateJpaVendorAdapter adapter = new HibernateJpaVendorAdapter() {
+            @Override
+            public HibernateJpaDialect getJpaDialect() {
+                return dialect;
+            }
+        };
+        adapter.setShowSql(properties.isShowSql());
+        if (properties.getDatabase() != null) {
+            adapter.setDatabase(properties.getDatabase());
+        }
+        if (properties.getDatabasePlatform() != null) {
+            adapter.setDatabasePlatform(properties.getDatabasePlatform());
+        }
+        adapter.setGenerateDdl(properties.isGenerateDdl());
+        return adapter;
+    }
+
+
+    private static void bindHikari(HikariDataSource pool, Environment environment) {
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+    }
+}
@@ -0,0 +1,25 @@
+package com.portfolio.mytaskmanager.datasource;
+
+import jakarta.persistence.CacheStoreMode;
+import jakarta.persistence.EntityManager;
+import org.springframework.orm.jpa.vendor.HibernateJpaDialect;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.sql.SQLException;
+
+/*  Read-only transactions may be answered by a replica that lags behind the primary, what they load must not
+    end up in the second-level and query caches shared by every later read (until the next write, or for good
+    when the write was already seen): they read from the caches but do not put into them (store mode BYPASS)
+    set as the session property, find() reads the mode from there and not from the session's CacheMode;
+    set on every begin, the session of an open-in-view request serves read-only and read-write transactions in turn
+*/
+public class ReplicaReadJpaDialect extends HibernateJpaDialect {
+
+    @Override
+    public Object beginTransaction(EntityManager entityManager, TransactionDefinition definition) throws SQLException {
+        Object transactionData = super.beginTransaction(entityManager, definition);
+        entityManager.setProperty("jakarta.persistence.cache.storeMode",
+                definition.isReadOnly() ? CacheStoreMode.BYPASS : CacheStoreMode.USE);
+        return transactionData;
+    }
+}
@@ -0,0 +1,196 @@
+package com.portfolio.mytaskmanager.datasource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*  Connections for read-only transactions: taken round-robin from the healthy replicas, from the primary
+    when no replica is usable (all down or lagging more than max-lag)
+
+    a check at startup and then in the background marks each replica up or down every 'checkInterval': the connection has to be valid
+    and, when a lag query is configured, the replica must not be more than 'maxLag' behind the primary
+    a replica that refuses a connection between two checks is marked down at once and the primary is used
+*/
+public class ReplicaRoutingDataSource extends AbstractDataSource implements InitializingBean, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    private final DataSource primary;
+    private final List<DataSource> replicas;
+    private final Duration maxLag;
+    private final String lagQuery;
+    private final Duration checkInterval;
+
+    private final boolean[] healthy;
+    private final AtomicInteger next = new AtomicInteger();
+
+    private ScheduledExecutorService checker;
+
+    /*  lagQuery - returns the replica delay in seconds in the first column (MySQL: the Seconds_Behind_Source
+        column of SHOW REPLICA STATUS, exposed as a view or a heartbeat table), null = lag not checked
+    */
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas, Duration maxLag,
+                                    String lagQuery, Duration checkInterval) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.maxLag = maxLag;
+        this.lagQuery = lagQuery;
+        this.checkInterval = checkInterval;
+        // nothing is used before the first check (afterPropertiesSet)
+        this.healthy = new boolean[replicas.size()];
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        int replica = nextHealthyReplica();
+        if (replica < 0) {
+            return primary.getConnection();
+        }
+        try {
+            return replicas.get(replica).getConnection();
+        } catch (SQLException e) {
+            markDown(replica, e.getMessage());
+            return primary.getConnection();
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        int replica = nextHealthyReplica();
+        if (replica < 0) {
+            return primary.getConnection(username, password);
+        }
+        try {
+            return replicas.get(replica).getConnection(username, password);
+        } catch (SQLException e) {
+            markDown(replica, e.getMessage());
+            return primary.getConnection(username, password);
+        }
+    }
+
+    // Checks every replica once, called by the background checker
+    public void checkHealth() {
+        for (int i = 0; i < replicas.size(); i++) {
+            String problem = problemOf(replicas.get(i));
+            if (problem == null) {
+                markUp(i);
+            } else {
+                markDown(i, problem);
+            }
+        }
+    }
+
+    public int healthyReplicaCount() {
+        int count = 0;
+        synchronized (healthy) {
+            for (boolean up : healthy) {
+                if (up) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        checkHealth();
+        if (replicas.isEmpty() || checkInterval == null || checkInterval.isZero()) {
+            return;
+        }
+        checker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-health-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        checker.scheduleWithFixedDelay(this::checkHealth, checkInterval.toMillis(), checkInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    // The replica pools belong to this data source, the primary is closed by its owner
+    @Override
+    public void destroy() throws Exception {
+        if (checker != null) {
+            checker.shutdownNow();
+        }
+        for (DataSource replica : replicas) {
+            if (replica instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+
+    private int nextHealthyReplica() {
+        int count = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), Math.max(count, 1));
+        synchronized (healthy) {
+            for (int i = 0; i < count; i++) {
+                int candidate = (start + i) % count;
+                if (healthy[candidate]) {
+                    return candidate;
+                }
+            }
+        }
+        return -1;
+    }
+
+    // null when the replica can serve reads, otherwise the reason why not
+    private String problemOf(DataSource replica) {
+        try (Connection connection = replica.getConnection()) {
+            if (!connection.isValid(2)) {
+                return "connection not valid";
+            }
+            if (lagQuery == null || lagQuery.isBlank()) {
+                return null;
+            }
+            try (Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery(lagQuery)) {
+                if (!rs.next()) {
+                    return "lag unknown";
+                }
+                long lagSeconds = rs.getLong(1);
+                if (rs.wasNull()) {
+                    // MySQL reports NULL when replication is stopped
+                    return "replication not running";
+                }
+                return lagSeconds > maxLag.toSeconds() ? "lag " + lagSeconds + " s" : null;
+            }
+        } catch (SQLException e) {
+            return e.getMessage();
+        }
+    }
+
+    private void markUp(int replica) {
+        synchronized (healthy) {
+            if (healthy[replica]) {
+                return;
+            }
+            healthy[replica] = true;
+        }
+        log.info("Replica {} is in rotation for read-only transactions", replica);
+    }
+
+    private void markDown(int replica, String problem) {
+        synchronized (healthy) {
+            if (!healthy[replica]) {
+                return;
+            }
+            healthy[replica] = false;
+        }
+        log.warn("Replica {} taken out of rotation ({}), its reads go to the primary", replica, problem);
+    }
+}
@@ -0,0 +1,14 @@
+package com.portfolio.mytaskmanager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuditChangeDTO {
+
+    private Object oldValue;
+    private Object newValue;
+}
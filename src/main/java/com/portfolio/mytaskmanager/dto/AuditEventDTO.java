@@ -0,0 +1,30 @@
+package com.portfolio.mytaskmanager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuditEventDTO {
+
+    public enum Action { CREATED, UPDATED, DELETED, ARCHIVED }
+
+    // Position in the audit log of the instance that made the change, ascending in its commit order
+    private long seq;
+
+    private String entityType;
+    private Long entityId;
+    private Action action;
+
+    // X-User header of the request, its remote address without it, "system" for background jobs
+    private String actor;
+    private Instant occurredAt;
+
+    // Changed fields only, all fields with null old values for CREATED and null new values for DELETED
+    private Map<String, AuditChangeDTO> changes;
+}
@@ -0,0 +1,20 @@
+package com.portfolio.mytaskmanager.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class CalendarDayDTO {
+
+    private LocalDate date;
+    private int count;
+
+    // Only filled when the client asks for task summaries (includeTasks=true)
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<TaskResponseDTO> tasks;
+}
@@ -0,0 +1,36 @@
+package com.portfolio.mytaskmanager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class CriticalPathDTO {
+
+    private Long projectId;
+    private LocalDate projectStart;
+    private LocalDate projectEnd;
+
+    // Length of the longest "blocked by" chain, every task counts as one day
+    private int lengthInDays;
+    private LocalDate earliestFinish;
+
+    // False when the chain cannot finish by the project's endDate
+    private boolean onSchedule;
+
+    private List<CriticalTaskDTO> tasks;
+
+
+    @Getter
+    @AllArgsConstructor
+    public static class CriticalTaskDTO {
+        private Long taskId;
+        private String title;
+        private LocalDate earliestFinish;
+        private LocalDate latestFinish;
+        private Long slackDays;
+    }
+}
@@ -0,0 +1,26 @@
+package com.portfolio.mytaskmanager.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.portfolio.mytaskmanager.entity.Status;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.Map;
+
+@Getter
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class DashboardDTO {
+
+    // A section that failed or was not ready in time is left out (null) and named in 'incomplete'
+    private List<ProjectResponseDTO> projects;
+    // Open tasks by due date per project ID
+    private Map<Long, List<TaskResponseDTO>> projectTasks;
+    private List<TaskResponseDTO> overdue;
+    private List<TaskResponseDTO> dueThisWeek;
+    private Map<Status, Long> statusCounts;
+
+    @JsonInclude(JsonInclude.Include.ALWAYS)
+    private List<String> incomplete;
+}
@@ -0,0 +1,24 @@
+package com.portfolio.mytaskmanager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Instant;
+
+@Getter
+@AllArgsConstructor
+public class IngestionStatusDTO {
+
+    public enum State { QUEUED, CREATED, FAILED }
+
+    private String trackingId;
+    private State state;
+
+    // Set once CREATED
+    private Long taskId;
+
+    // Reason of a FAILED request (project not found...)
+    private String error;
+
+    private Instant acceptedAt;
+}
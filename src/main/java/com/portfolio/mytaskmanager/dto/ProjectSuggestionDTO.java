@@ -0,0 +1,13 @@
+package com.portfolio.mytaskmanager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// Lightweight project entry for the project picker (autocomplete)
+@Getter
+@AllArgsConstructor
+public class ProjectSuggestionDTO {
+
+    private Long id;
+    private String name;
+}
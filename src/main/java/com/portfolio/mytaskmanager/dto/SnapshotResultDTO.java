@@ -0,0 +1,16 @@
+package com.portfolio.mytaskmanager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Map;
+
+@Getter
+@AllArgsConstructor
+public class SnapshotResultDTO {
+
+    // Table name -> rows written or restored, in file order
+    private Map<String, Long> rows;
+
+    private long durationMillis;
+}
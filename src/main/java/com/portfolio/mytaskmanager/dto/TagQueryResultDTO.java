@@ -0,0 +1,20 @@
+package com.portfolio.mytaskmanager.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class TagQueryResultDTO {
+
+    // All matching tasks, ids may be cut to the requested limit
+    private long count;
+    private List<Long> ids;
+
+    // Only filled when the client asks for the tasks themselves (includeTasks=true)
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<TaskResponseDTO> tasks;
+}
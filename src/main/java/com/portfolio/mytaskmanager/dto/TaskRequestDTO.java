@@ -8,6 +8,7 @@ import jakarta.validation.constraints.Size;
 import lombok.Data;
 
 import java.time.LocalDate;
+import java.util.Set;
 
 @Data
 public class TaskRequestDTO {
@@ -30,4 +31,11 @@ public class TaskRequestDTO {
 
     @NotNull
     private Long projectId;
+
+    // Optional parent task from the same project (subtask)
+    private Long parentId;
+
+    // Optional labels, stored lower case, an update replaces the whole set
+    @Size(max = 20)
+    private Set<@NotBlank @Size(max = 50) String> tags;
 }
@@ -2,11 +2,13 @@ package com.portfolio.mytaskmanager.dto;
 
 
 import com.portfolio.mytaskmanager.entity.Status;
+import com.portfolio.mytaskmanager.entity.Task;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDate;
+import java.util.List;
 
 @Getter
 @NoArgsConstructor
@@ -19,5 +21,22 @@ public class TaskResponseDTO {
     private LocalDate dueDate;
     private Status status;
     private Long projectId;
+    private Long parentId;
+    private List<String> tags;
+
+
+    // Shared mapping used by the service and by the in-memory indexes
+    public static TaskResponseDTO from(Task t) {
+        return new TaskResponseDTO(
+                t.getId(),
+                t.getTitle(),
+                t.getDescription(),
+                t.getDueDate(),
+                t.getStatus(),
+                t.getProject() != null ? t.getProject().getId() : null,
+                t.getParent() != null ? t.getParent().getId() : null,
+                t.getTags() != null ? t.getTags().stream().sorted().toList() : List.of()
+        );
+    }
 
 }
@@ -0,0 +1,19 @@
+package com.portfolio.mytaskmanager.dto;
+
+import com.portfolio.mytaskmanager.entity.Status;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Map;
+
+@Getter
+@AllArgsConstructor
+public class TaskRollupDTO {
+
+    private Long taskId;
+
+    // The task itself plus all its subtasks at any depth
+    private long total;
+    private Map<Status, Long> byStatus;
+    private int percentDone;
+}
@@ -0,0 +1,51 @@
+package com.portfolio.mytaskmanager.entity;
+
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/*  Cold copy of a finished task moved out of the "task" table by TaskArchiveService
+    the primary table then only holds active work, old DONE/FAILED rows live here
+*/
+@Entity
+@Table(name = "task_archive", indexes = @Index(name = "idx_task_archive_project_id", columnList = "project_id"))
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ArchivedTask {
+
+    // Not generated - the archived row keeps the same ID the task had in the hot table
+    @Id
+    private Long id;
+
+    @Column(length = 100, nullable = false)
+    private String title;
+
+    @Column(length = 1000, nullable = false)
+    private String description;
+
+    @Enumerated(EnumType.STRING)
+    private Status status;
+
+    private LocalDate dueDate;
+
+    private LocalDateTime finishedAt;
+
+    private LocalDateTime archivedAt;
+
+    // ON DELETE CASCADE in the database - deleting a project removes its archived tasks as well
+    @ManyToOne
+    @JoinColumn(name = "project_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Project project;
+
+}
@@ -6,6 +6,8 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -15,6 +17,8 @@ import java.util.List;
 @NoArgsConstructor
 @Entity
 @Data
+// Read on every task load (Task.project) but rarely written - kept in the second-level cache, region sized in caffeine-cache.conf
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "project")
 public class Project {
 
     // this generates primary key for each object in my SQL database >project1_taskmanager<
@@ -22,6 +26,7 @@ public class Project {
     @GeneratedValue (strategy = GenerationType.IDENTITY)
     private Long id;
 
+    // The table also has name_upper = UPPER(name) with an index for the case-insensitive name check (V3 migration)
     private String name;
 
     private String description;
@@ -1,9 +1,19 @@
 package com.portfolio.mytaskmanager.entity;
 
+import java.util.EnumSet;
+import java.util.Set;
+
 public enum Status {
     TODO,
     IN_PROGRESS,
     DONE,
     FAILED,
-    DELAYED
+    DELAYED;
+
+    // Statuses after which a task is not worked on anymore (candidates for archiving)
+    public static final Set<Status> TERMINAL = EnumSet.of(DONE, FAILED);
+
+    public boolean isTerminal() {
+        return TERMINAL.contains(this);
+    }
 }
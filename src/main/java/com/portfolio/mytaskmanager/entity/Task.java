@@ -5,11 +5,24 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_task_status_finished_at", columnList = "status, finished_at"),
+        @Index(name = "idx_task_due_date", columnList = "due_date"),
+        @Index(name = "idx_task_project_id", columnList = "project_id")
+})
 @Data // Annotation automatically works with getters/setters/toString.... - Lombok dependency
 @Builder
 @AllArgsConstructor
@@ -33,6 +46,8 @@ public class Task {
 
     private LocalDate dueDate;
 
+    // Time when the task reached DONE or FAILED - the archiver uses it to find old finished tasks
+    private LocalDateTime finishedAt;
 
     /*  This part represents the connection - many tasks to one project
         JoinColumn makes a foreign key in Task table with name "project_id" pointing at ID in table Project
@@ -42,4 +57,47 @@ public class Task {
     @JoinColumn(name = "project_id", nullable = false)
     private Project project;
 
+
+    /*  Optional parent task (epic -> story -> subtask)
+        the whole hierarchy is also stored in the task_closure table, see TaskHierarchyService
+        subtree queries use the closure table, this column is only the direct link
+    */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "parent_id")
+    @OnDelete(action = OnDeleteAction.SET_NULL)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Task parent;
+
+
+    /*  Free labels ("bug", "customer-x", "q3") stored in the task_tag table, always lower case
+        filtering by tags is answered by TaskTagIndex, the table is only the storage
+    */
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "task_tag",
+            joinColumns = @JoinColumn(name = "task_id"),
+            indexes = @Index(name = "idx_task_tag_tag", columnList = "tag"))
+    @Column(name = "tag", length = 50, nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    @BatchSize(size = 100)
+    @Builder.Default
+    @EqualsAndHashCode.Exclude
+    private Set<String> tags = new HashSet<>();
+
+
+    /*  Keeps finishedAt in sync with the status before every insert/update
+        the first time a task becomes DONE/FAILED the time is stored, reopening the task clears it again
+    */
+    @PrePersist
+    @PreUpdate
+    void updateFinishedAt() {
+        if (status != null && status.isTerminal()) {
+            if (finishedAt == null) {
+                finishedAt = LocalDateTime.now();
+            }
+        } else {
+            finishedAt = null;
+        }
+    }
+
 }
@@ -0,0 +1,62 @@
+package com.portfolio.mytaskmanager.entity;
+
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.io.Serializable;
+
+/*  Closure table of the task hierarchy - one row for every (ancestor, descendant) pair
+    including the task itself with depth 0, so "all descendants of X" or "status rollup of X"
+    is one indexed query no matter how deep the tree is
+    rows are removed by the database together with the task (ON DELETE CASCADE)
+*/
+@Entity
+@Table(name = "task_closure", indexes = @Index(name = "idx_task_closure_descendant", columnList = "descendant_id, ancestor_id"))
+@IdClass(TaskClosure.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskClosure {
+
+    @Id
+    @Column(name = "ancestor_id")
+    private Long ancestorId;
+
+    @Id
+    @Column(name = "descendant_id")
+    private Long descendantId;
+
+    // 0 = the task itself, 1 = direct child, 2 = grandchild ...
+    private int depth;
+
+    // Read-only links, they only define the foreign keys and allow joins in queries
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "ancestor_id", insertable = false, updatable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Task ancestor;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "descendant_id", insertable = false, updatable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Task descendant;
+
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long ancestorId;
+        private Long descendantId;
+    }
+}
@@ -0,0 +1,45 @@
+package com.portfolio.mytaskmanager.entity;
+
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+/*  "Task is blocked by blocker" - the blocker has to be finished first
+    both tasks belong to the same project, cycles are refused by TaskDependencyService
+    rows are removed by the database when either task is deleted
+*/
+@Entity
+@Table(name = "task_dependency",
+        uniqueConstraints = @UniqueConstraint(name = "uk_task_dependency", columnNames = {"task_id", "blocker_id"}),
+        indexes = @Index(name = "idx_task_dependency_blocker", columnList = "blocker_id"))
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class TaskDependency {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "task_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Task task;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "blocker_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Task blocker;
+}
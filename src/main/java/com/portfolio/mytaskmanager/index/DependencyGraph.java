@@ -0,0 +1,388 @@
+package com.portfolio.mytaskmanager.index;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/*  "Blocked by" graph of the tasks of one project (edge blocker -> task)
+
+    Topological order is kept incrementally (Pearce-Kelly): a new edge that already follows
+    the order costs nothing, otherwise only the nodes between the two positions are reordered.
+    The same search finds cycles, so an edge closing a cycle is refused before it is stored.
+
+    Every task is counted as one day of work (tasks have no effort estimate), for every node we keep
+        earliest - longest chain of blockers ending with the task      (earliest finish day)
+        tail     - longest chain of dependents starting with the task  (days still needed after it)
+    both are updated only for nodes reachable from a changed edge, in topological order
+    critical path = chain with earliest + tail - 1 equal to the longest chain of the project
+
+    Not thread safe, the owner synchronizes on the graph
+*/
+public class DependencyGraph {
+
+    private final Map<Long, Set<Long>> dependents = new HashMap<>();
+    private final Map<Long, Set<Long>> blockers = new HashMap<>();
+
+    private final Map<Long, Integer> order = new HashMap<>();
+    private int nextOrder;
+
+    private final Map<Long, Integer> earliest = new HashMap<>();
+    private final Map<Long, Integer> tail = new HashMap<>();
+
+    private int edgeCount;
+
+    // Result of the last full scan, reads are far more frequent than changes
+    private List<Long> cachedPath;
+    private int cachedLongest = -1;
+
+
+    /*  Whole graph at once (edges as {blocker, task}), used when a project is loaded from the database
+        one topological sort (Kahn) and one pass in each direction instead of edge by edge propagation
+    */
+    public static DependencyGraph of(Collection<long[]> edges) {
+        DependencyGraph graph = new DependencyGraph();
+        for (long[] edge : edges) {
+            graph.addNode(edge[0]);
+            graph.addNode(edge[1]);
+            if (graph.dependents.get(edge[0]).add(edge[1])) {
+                graph.blockers.get(edge[1]).add(edge[0]);
+                graph.edgeCount++;
+            }
+        }
+
+        Map<Long, Integer> remaining = new HashMap<>();
+        ArrayDeque<Long> ready = new ArrayDeque<>();
+        graph.blockers.forEach((node, in) -> {
+            remaining.put(node, in.size());
+            if (in.isEmpty()) {
+                ready.add(node);
+            }
+        });
+        List<Long> sorted = new ArrayList<>(remaining.size());
+        while (!ready.isEmpty()) {
+            Long node = ready.poll();
+            sorted.add(node);
+            for (Long dependent : graph.dependents.get(node)) {
+                if (remaining.merge(dependent, -1, Integer::sum) == 0) {
+                    ready.add(dependent);
+                }
+            }
+        }
+        if (sorted.size() < remaining.size()) {
+            throw new IllegalArgumentException("Edges contain a cycle");
+        }
+
+        for (int i = 0; i < sorted.size(); i++) {
+            Long node = sorted.get(i);
+            graph.order.put(node, i);
+            int value = 1;
+            for (Long blocker : graph.blockers.get(node)) {
+                value = Math.max(value, graph.earliest.get(blocker) + 1);
+            }
+            graph.earliest.put(node, value);
+        }
+        for (int i = sorted.size() - 1; i >= 0; i--) {
+            Long node = sorted.get(i);
+            int value = 1;
+            for (Long dependent : graph.dependents.get(node)) {
+                value = Math.max(value, graph.tail.get(dependent) + 1);
+            }
+            graph.tail.put(node, value);
+        }
+        graph.nextOrder = sorted.size();
+        return graph;
+    }
+
+
+    // True when blocker -> task would close a cycle (task already blocks the blocker, directly or not)
+    public boolean wouldCreateCycle(Long blocker, Long task) {
+        if (blocker.equals(task)) {
+            return true;
+        }
+        if (!order.containsKey(blocker) || !order.containsKey(task)) {
+            return false;
+        }
+        if (order.get(blocker) < order.get(task)) {
+            return false;
+        }
+        return reaches(task, blocker, order.get(blocker));
+    }
+
+    public void addEdge(Long blocker, Long task) {
+        if (wouldCreateCycle(blocker, task)) {
+            throw new IllegalArgumentException("Edge " + blocker + " -> " + task + " would create a cycle");
+        }
+        addNode(blocker);
+        addNode(task);
+        if (!dependents.get(blocker).add(task)) {
+            return;
+        }
+        blockers.get(task).add(blocker);
+        edgeCount++;
+        invalidate();
+
+        int lower = order.get(task);
+        int upper = order.get(blocker);
+        if (lower < upper) {
+            reorder(blocker, task, lower, upper);
+        }
+        propagateEarliest(Set.of(task));
+        propagateTail(Set.of(blocker));
+    }
+
+    public void removeEdge(Long blocker, Long task) {
+        Set<Long> out = dependents.get(blocker);
+        if (out == null || !out.remove(task)) {
+            return;
+        }
+        blockers.get(task).remove(blocker);
+        edgeCount--;
+        invalidate();
+
+        propagateEarliest(Set.of(task));
+        propagateTail(Set.of(blocker));
+        removeIfIsolated(blocker);
+        removeIfIsolated(task);
+    }
+
+    public void removeNode(Long node) {
+        if (!order.containsKey(node)) {
+            return;
+        }
+        Set<Long> out = new HashSet<>(dependents.get(node));
+        Set<Long> in = new HashSet<>(blockers.get(node));
+        out.forEach(d -> removeEdge(node, d));
+        in.forEach(b -> removeEdge(b, node));
+    }
+
+    public boolean contains(Long node) {
+        return order.containsKey(node);
+    }
+
+    public int nodeCount() {
+        return order.size();
+    }
+
+    public int edgeCount() {
+        return edgeCount;
+    }
+
+    public Set<Long> nodes() {
+        return Set.copyOf(order.keySet());
+    }
+
+    public Set<Long> blockersOf(Long node) {
+        return Set.copyOf(blockers.getOrDefault(node, Set.of()));
+    }
+
+    // Earliest finish day counted from project start (1 = first day), 0 when the task is not in the graph
+    public int earliestFinish(Long node) {
+        return earliest.getOrDefault(node, 0);
+    }
+
+    // Days needed from the start of the task to the end of its longest chain of dependents
+    public int tail(Long node) {
+        return tail.getOrDefault(node, 0);
+    }
+
+    // Number of days of the longest chain of the whole project
+    public int longestChain() {
+        if (cachedLongest < 0) {
+            int longest = 0;
+            for (Long node : order.keySet()) {
+                longest = Math.max(longest, earliest.get(node) + tail.get(node) - 1);
+            }
+            cachedLongest = longest;
+        }
+        return cachedLongest;
+    }
+
+    // Tasks of one longest chain, from the first one to the last one
+    public List<Long> criticalPath() {
+        if (cachedPath != null) {
+            return cachedPath;
+        }
+        int longest = longestChain();
+        List<Long> path = new ArrayList<>();
+        Long current = null;
+        for (Long node : order.keySet()) {
+            if (earliest.get(node) == 1 && tail.get(node) == longest
+                    && (current == null || node < current)) {
+                current = node;
+            }
+        }
+        while (current != null) {
+            path.add(current);
+            Long next = null;
+            for (Long dependent : dependents.get(current)) {
+                if (earliest.get(dependent) == earliest.get(current) + 1
+                        && tail.get(dependent) == tail.get(current) - 1
+                        && (next == null || dependent < next)) {
+                    next = dependent;
+                }
+            }
+            current = next;
+        }
+        cachedPath = List.copyOf(path);
+        return cachedPath;
+    }
+
+    // Nodes sorted by their position in the maintained topological order
+    public List<Long> topologicalOrder() {
+        List<Long> nodes = new ArrayList<>(order.keySet());
+        nodes.sort(Comparator.comparing(order::get));
+        return nodes;
+    }
+
+
+    private void invalidate() {
+        cachedPath = null;
+        cachedLongest = -1;
+    }
+
+    private void addNode(Long node) {
+        if (order.containsKey(node)) {
+            return;
+        }
+        order.put(node, nextOrder++);
+        dependents.put(node, new LinkedHashSet<>());
+        blockers.put(node, new LinkedHashSet<>());
+        earliest.put(node, 1);
+        tail.put(node, 1);
+    }
+
+    private void removeIfIsolated(Long node) {
+        if (dependents.get(node).isEmpty() && blockers.get(node).isEmpty()) {
+            order.remove(node);
+            dependents.remove(node);
+            blockers.remove(node);
+            earliest.remove(node);
+            tail.remove(node);
+        }
+    }
+
+    // Forward search from 'from' limited to order <= upper, true when 'target' is found
+    private boolean reaches(Long from, Long target, int upper) {
+        Set<Long> visited = new HashSet<>();
+        List<Long> stack = new ArrayList<>(List.of(from));
+        while (!stack.isEmpty()) {
+            Long node = stack.remove(stack.size() - 1);
+            if (node.equals(target)) {
+                return true;
+            }
+            if (!visited.add(node)) {
+                continue;
+            }
+            for (Long next : dependents.get(node)) {
+                if (order.get(next) <= upper && !visited.contains(next)) {
+                    stack.add(next);
+                }
+            }
+        }
+        return false;
+    }
+
+    /*  Pearce-Kelly reordering for new edge blocker -> task where order(task) < order(blocker)
+        forward - nodes reachable from task with order < upper
+        backward - nodes reaching blocker with order > lower
+        the positions used by both sets are handed out again: backward nodes first, then forward nodes
+    */
+    private void reorder(Long blocker, Long task, int lower, int upper) {
+        List<Long> forward = collect(task, dependents, n -> order.get(n) < upper);
+        List<Long> backward = collect(blocker, blockers, n -> order.get(n) > lower);
+
+        Comparator<Long> byOrder = Comparator.comparing(order::get);
+        forward.sort(byOrder);
+        backward.sort(byOrder);
+
+        List<Long> nodes = new ArrayList<>(backward);
+        nodes.addAll(forward);
+        List<Integer> positions = new ArrayList<>(nodes.size());
+        nodes.forEach(n -> positions.add(order.get(n)));
+        positions.sort(Integer::compare);
+
+        for (int i = 0; i < nodes.size(); i++) {
+            order.put(nodes.get(i), positions.get(i));
+        }
+    }
+
+    private List<Long> collect(Long start, Map<Long, Set<Long>> edges, Predicate<Long> inRange) {
+        Set<Long> visited = new LinkedHashSet<>();
+        List<Long> stack = new ArrayList<>(List.of(start));
+        while (!stack.isEmpty()) {
+            Long node = stack.remove(stack.size() - 1);
+            if (!visited.add(node)) {
+                continue;
+            }
+            for (Long next : edges.get(node)) {
+                if (!visited.contains(next) && inRange.test(next)) {
+                    stack.add(next);
+                }
+            }
+        }
+        return new ArrayList<>(visited);
+    }
+
+    // Recomputes earliest finish of the seeds and of everything after them that actually changes
+    private void propagateEarliest(Set<Long> seeds) {
+        PriorityQueue<Long> queue = new PriorityQueue<>(Comparator.comparing(order::get));
+        Set<Long> queued = new HashSet<>();
+        for (Long seed : seeds) {
+            if (order.containsKey(seed) && queued.add(seed)) {
+                queue.add(seed);
+            }
+        }
+        while (!queue.isEmpty()) {
+            Long node = queue.poll();
+            queued.remove(node);
+            int value = 1;
+            for (Long blocker : blockers.get(node)) {
+                value = Math.max(value, earliest.get(blocker) + 1);
+            }
+            if (value != earliest.get(node)) {
+                earliest.put(node, value);
+                for (Long dependent : dependents.get(node)) {
+                    if (queued.add(dependent)) {
+                        queue.add(dependent);
+                    }
+                }
+            }
+        }
+    }
+
+    // Same as propagateEarliest, backwards through the blockers in reverse topological order
+    private void propagateTail(Set<Long> seeds) {
+        PriorityQueue<Long> queue = new PriorityQueue<>(Comparator.comparing(order::get).reversed());
+        Set<Long> queued = new HashSet<>();
+        for (Long seed : seeds) {
+            if (order.containsKey(seed) && queued.add(seed)) {
+                queue.add(seed);
+            }
+        }
+        while (!queue.isEmpty()) {
+            Long node = queue.poll();
+            queued.remove(node);
+            int value = 1;
+            for (Long dependent : dependents.get(node)) {
+                value = Math.max(value, tail.get(dependent) + 1);
+            }
+            if (value != tail.get(node)) {
+                tail.put(node, value);
+                for (Long blocker : blockers.get(node)) {
+                    if (queued.add(blocker)) {
+                        queue.add(blocker);
+                    }
+                }
+            }
+        }
+    }
+}
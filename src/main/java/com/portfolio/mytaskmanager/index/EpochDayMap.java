@@ -0,0 +1,91 @@
+package com.portfolio.mytaskmanager.index;
+
+import java.util.Arrays;
+import java.util.function.LongFunction;
+
+/*  Small hash map with primitive long keys (epoch days) - open addressing with linear probing
+    no boxing of the key on lookup, which matters when a month view does ~30 lookups per request
+    not thread safe, the owner guards it with its own lock; entries are never removed
+    (the number of distinct days is small, an empty bucket is cheaper than rehashing)
+*/
+class EpochDayMap<V> {
+
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    private long[] keys;
+    private Object[] values;
+    private int size;
+
+    EpochDayMap() {
+        keys = new long[64];
+        values = new Object[64];
+        Arrays.fill(keys, EMPTY);
+    }
+
+    @SuppressWarnings("unchecked")
+    V get(long key) {
+        int mask = keys.length - 1;
+        for (int i = slot(key, mask); ; i = (i + 1) & mask) {
+            long k = keys[i];
+            if (k == key) {
+                return (V) values[i];
+            }
+            if (k == EMPTY) {
+                return null;
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    V computeIfAbsent(long key, LongFunction<V> factory) {
+        V existing = get(key);
+        if (existing != null) {
+            return existing;
+        }
+        if ((size + 1) * 2 > keys.length) {
+            resize();
+        }
+        V value = factory.apply(key);
+        insert(key, value);
+        size++;
+        return value;
+    }
+
+    void clear() {
+        Arrays.fill(keys, EMPTY);
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private void insert(long key, Object value) {
+        int mask = keys.length - 1;
+        int i = slot(key, mask);
+        while (keys[i] != EMPTY) {
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        values[i] = value;
+    }
+
+    private void resize() {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        keys = new long[oldKeys.length * 2];
+        values = new Object[oldValues.length * 2];
+        Arrays.fill(keys, EMPTY);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                insert(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    private static int slot(long key, int mask) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+}
@@ -0,0 +1,133 @@
+package com.portfolio.mytaskmanager.index;
+
+
+import com.portfolio.mytaskmanager.dto.ProjectSuggestionDTO;
+import com.portfolio.mytaskmanager.entity.Project;
+import com.portfolio.mytaskmanager.repository.ProjectRepository;
+import com.portfolio.mytaskmanager.service.ProjectChangeListener;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/*  Project names sorted case-insensitively in a plain array, a prefix is found by binary search
+    and the completions are the next entries starting with it - no database access per keystroke
+    the array is never changed in place: a write builds a new one and swaps the reference
+    (copy-on-write), so readers need no lock and always see a complete sorted array
+*/
+@Component
+public class ProjectNameIndex implements ProjectChangeListener {
+
+    private static final Comparator<Entry> ORDER = Comparator.comparing(Entry::key).thenComparing(Entry::id);
+
+    @Autowired
+    private ProjectRepository repository;
+
+    private volatile Entry[] entries = new Entry[0];
+
+    // Project ID -> its current entry, only touched by writers (synchronized)
+    private final Map<Long, Entry> byId = new HashMap<>();
+
+    private volatile boolean loaded;
+
+
+    // Writes wait for the lock while loading, so a project saved meanwhile is applied after the load
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void onApplicationReady() {
+        load(repository.findAll());
+    }
+
+    public synchronized void load(List<Project> projects) {
+        byId.clear();
+        projects.forEach(p -> byId.put(p.getId(), entry(p)));
+        Entry[] sorted = byId.values().toArray(new Entry[0]);
+        Arrays.sort(sorted, ORDER);
+        entries = sorted;
+        loaded = true;
+    }
+
+    @Override
+    public synchronized void onProjectSaved(Project project) {
+        Entry entry = entry(project);
+        Entry previous = byId.put(project.getId(), entry);
+
+        List<Entry> next = new ArrayList<>(entries.length + 1);
+        for (Entry e : entries) {
+            if (e != previous) {
+                next.add(e);
+            }
+        }
+        int position = -Collections.binarySearch(next, entry, ORDER) - 1;
+        next.add(position, entry);
+        entries = next.toArray(new Entry[0]);
+    }
+
+    @Override
+    public synchronized void onProjectDeleted(Long projectId) {
+        Entry previous = byId.remove(projectId);
+        if (previous != null) {
+            entries = Arrays.stream(entries).filter(e -> e != previous).toArray(Entry[]::new);
+        }
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+
+    // First 'limit' names starting with the prefix (any letter case), alphabetically
+    public List<ProjectSuggestionDTO> suggest(String prefix, int limit) {
+        String key = normalize(prefix);
+        Entry[] snapshot = entries;
+
+        List<ProjectSuggestionDTO> result = new ArrayList<>(Math.min(limit, 16));
+        for (int i = lowerBound(snapshot, key); i < snapshot.length && result.size() < limit; i++) {
+            if (!snapshot[i].key().startsWith(key)) {
+                break;
+            }
+            result.add(new ProjectSuggestionDTO(snapshot[i].id(), snapshot[i].name()));
+        }
+        return result;
+    }
+
+    public int size() {
+        return entries.length;
+    }
+
+
+    // Index of the first entry whose key is >= the given key
+    private static int lowerBound(Entry[] snapshot, String key) {
+        int low = 0;
+        int high = snapshot.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (snapshot[middle].key().compareTo(key) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static Entry entry(Project project) {
+        return new Entry(normalize(project.getName()), project.getId(), project.getName());
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.trim().toLowerCase(Locale.ROOT);
+    }
+
+
+    private record Entry(String key, Long id, String name) {
+    }
+}
@@ -0,0 +1,127 @@
+package com.portfolio.mytaskmanager.index;
+
+
+import com.portfolio.mytaskmanager.dto.CalendarDayDTO;
+import com.portfolio.mytaskmanager.dto.TaskResponseDTO;
+import com.portfolio.mytaskmanager.entity.Task;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/*  Tasks grouped into one bucket per due date, keyed by the epoch day number
+    a calendar range (week, month) is answered with one bucket lookup per day instead of a table scan
+    many readers can query at the same time, writes take a short exclusive lock
+*/
+@Component
+public class TaskCalendarIndex implements TaskIndex {
+
+    private final EpochDayMap<TreeMap<Long, TaskResponseDTO>> buckets = new EpochDayMap<>();
+
+    // Task ID -> epoch day of the bucket holding it
+    private final Map<Long, Long> dayOfTask = new HashMap<>();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private volatile boolean loaded;
+
+
+    @Override
+    public void onTaskSaved(Task task) {
+        lock.writeLock().lock();
+        try {
+            removeTask(task.getId());
+            if (task.getDueDate() != null) {
+                long day = task.getDueDate().toEpochDay();
+                buckets.computeIfAbsent(day, d -> new TreeMap<>()).put(task.getId(), TaskResponseDTO.from(task));
+                dayOfTask.put(task.getId(), day);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onTaskDeleted(Long taskId) {
+        lock.writeLock().lock();
+        try {
+            removeTask(taskId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onProjectDeleted(Long projectId) {
+        lock.writeLock().lock();
+        try {
+            List<Long> ids = new ArrayList<>();
+            dayOfTask.forEach((id, day) -> {
+                TaskResponseDTO task = buckets.get(day).get(id);
+                if (projectId.equals(task.getProjectId())) {
+                    ids.add(id);
+                }
+            });
+            ids.forEach(this::removeTask);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            loaded = false;
+            buckets.clear();
+            dayOfTask.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void markLoaded() {
+        loaded = true;
+    }
+
+    @Override
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+
+    // Days between from and to (both inclusive) that have at least one task, in date order
+    public List<CalendarDayDTO> range(LocalDate from, LocalDate to, boolean includeTasks) {
+        List<CalendarDayDTO> days = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (long day = from.toEpochDay(); day <= to.toEpochDay(); day++) {
+                TreeMap<Long, TaskResponseDTO> bucket = buckets.get(day);
+                if (bucket != null && !bucket.isEmpty()) {
+                    days.add(new CalendarDayDTO(
+                            LocalDate.ofEpochDay(day),
+                            bucket.size(),
+                            includeTasks ? List.copyOf(bucket.values()) : null));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return days;
+    }
+
+
+    private void removeTask(Long taskId) {
+        Long day = dayOfTask.remove(taskId);
+        if (day != null) {
+            buckets.get(day).remove(taskId);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.portfolio.mytaskmanager.index;
+
+import com.portfolio.mytaskmanager.service.TaskChangeListener;
+
+/*  In-memory structure built from the task table at startup (TaskIndexLoader)
+    and then kept up to date through the TaskChangeListener callbacks
+*/
+public interface TaskIndex extends TaskChangeListener {
+
+    // Drops everything, called before a full (re)load
+    void clear();
+
+    // Called once the initial load has finished, until then the index may be incomplete
+    void markLoaded();
+
+    boolean isLoaded();
+}
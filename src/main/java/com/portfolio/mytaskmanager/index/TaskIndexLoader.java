@@ -0,0 +1,89 @@
+package com.portfolio.mytaskmanager.index;
+
+
+import com.portfolio.mytaskmanager.entity.Task;
+import com.portfolio.mytaskmanager.repository.TaskRepository;
+import com.portfolio.mytaskmanager.service.TaskChangeListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*  Fills every TaskIndex with the tasks from the database when the application starts
+    tasks are read page by page ordered by ID (keyset paging), so memory stays flat even for millions of rows
+    writes keep flowing during the load - tasks changed or deleted meanwhile are remembered and skipped,
+    the indexes already received their newer state through the listener callbacks
+*/
+@Component
+public class TaskIndexLoader implements TaskChangeListener {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskIndexLoader.class);
+
+    private static final int PAGE_SIZE = 1000;
+
+    @Autowired
+    private TaskRepository repository;
+
+    @Autowired
+    private List<TaskIndex> indexes;
+
+    private final Set<Long> changedWhileLoading = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean loading;
+
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        reload();
+    }
+
+    public synchronized void reload() {
+        long start = System.currentTimeMillis();
+        changedWhileLoading.clear();
+        loading = true;
+        indexes.forEach(TaskIndex::clear);
+
+        long lastId = 0;
+        long count = 0;
+        try {
+            List<Task> page;
+            do {
+                page = repository.findByIdGreaterThanOrderByIdAsc(lastId, PageRequest.of(0, PAGE_SIZE));
+                for (Task task : page) {
+                    if (!changedWhileLoading.contains(task.getId())) {
+                        indexes.forEach(index -> index.onTaskSaved(task));
+                    }
+                    lastId = task.getId();
+                }
+                count += page.size();
+            } while (page.size() == PAGE_SIZE);
+        } finally {
+            loading = false;
+        }
+
+        indexes.forEach(TaskIndex::markLoaded);
+        log.info("Loaded {} tasks into {} in-memory indexes in {} ms",
+                count, indexes.size(), System.currentTimeMillis() - start);
+    }
+
+    @Override
+    public void onTaskSaved(Task task) {
+        if (loading) {
+            changedWhileLoading.add(task.getId());
+        }
+    }
+
+    @Override
+    public void onTaskDeleted(Long taskId) {
+        if (loading) {
+            changedWhileLoading.add(taskId);
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package com.portfolio.mytaskmanager.index;
+
+
+import com.portfolio.mytaskmanager.dto.TaskResponseDTO;
+import com.portfolio.mytaskmanager.entity.Status;
+import com.portfolio.mytaskmanager.entity.Task;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/*  Inverted index over task title and description
+    every word (token) points to the set of task IDs containing it, tokens are kept sorted
+    so a prefix ("dep" -> "deploy", "deployment") is just a range of the sorted map
+    the whole task is stored as well, search results are returned without any database query
+*/
+@Component
+public class TaskSearchIndex implements TaskIndex {
+
+    private static final double TITLE_WEIGHT = 2.0;
+    private static final double DESCRIPTION_WEIGHT = 1.0;
+    private static final double EXACT_BONUS = 0.5;
+
+    private final ConcurrentSkipListMap<String, Set<Long>> postings = new ConcurrentSkipListMap<>();
+
+    private final Map<Long, Document> documents = new ConcurrentHashMap<>();
+
+    // Striped locks for posting changes, an emptied set must not be dropped while another thread adds to it
+    private final Object[] postingLocks = new Object[64];
+
+    private volatile boolean loaded;
+
+    public TaskSearchIndex() {
+        for (int i = 0; i < postingLocks.length; i++) {
+            postingLocks[i] = new Object();
+        }
+    }
+
+    @Override
+    public void onTaskSaved(Task task) {
+        Document document = new Document(TaskResponseDTO.from(task), tokenize(task.getTitle()), tokenize(task.getDescription()));
+
+        // compute() locks the task's entry, two updates of the same task cannot mix their postings
+        documents.compute(task.getId(), (id, previous) -> {
+            if (previous != null) {
+                removePostings(id, previous);
+            }
+            addPostings(id, document);
+            return document;
+        });
+    }
+
+    @Override
+    public void onTaskDeleted(Long taskId) {
+        documents.computeIfPresent(taskId, (id, previous) -> {
+            removePostings(id, previous);
+            return null;
+        });
+    }
+
+    @Override
+    public void onProjectDeleted(Long projectId) {
+        documents.values().stream()
+                .filter(d -> projectId.equals(d.task().getProjectId()))
+                .map(d -> d.task().getId())
+                .toList()
+                .forEach(this::onTaskDeleted);
+    }
+
+    @Override
+    public void clear() {
+        loaded = false;
+        documents.clear();
+        postings.clear();
+    }
+
+    @Override
+    public void markLoaded() {
+        loaded = true;
+    }
+
+    @Override
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+
+    /*  Every query word has to match (AND), each one as a prefix of some title/description word
+        the candidates come from the most selective word, the other words are checked on the document
+        only the best 'limit' results are kept in a small heap (top-K), ties ordered by ID
+    */
+    public List<TaskResponseDTO> search(String query, Status status, Long projectId, int limit) {
+        List<String> terms = new ArrayList<>(tokenize(query));
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+
+        Set<Long> candidates = null;
+        long smallest = Long.MAX_VALUE;
+        for (String term : terms) {
+            NavigableMap<String, Set<Long>> range = prefixRange(term);
+            long size = 0;
+            for (Set<Long> ids : range.values()) {
+                size += ids.size();
+            }
+            if (size == 0) {
+                return List.of();
+            }
+            if (size < smallest) {
+                smallest = size;
+                candidates = new LinkedHashSet<>();
+                for (Set<Long> ids : range.values()) {
+                    candidates.addAll(ids);
+                }
+            }
+        }
+
+        Comparator<Hit> worstFirst = Comparator.comparingDouble(Hit::score)
+                .thenComparing(Hit::id, Comparator.reverseOrder());
+        PriorityQueue<Hit> top = new PriorityQueue<>(worstFirst);
+
+        for (Long id : candidates) {
+            Document document = documents.get(id);
+            if (document == null || !matchesFilters(document.task(), status, projectId)) {
+                continue;
+            }
+            double score = score(document, terms);
+            if (score <= 0) {
+                continue;
+            }
+            top.offer(new Hit(id, score, document.task()));
+            if (top.size() > limit) {
+                top.poll();
+            }
+        }
+
+        List<Hit> hits = new ArrayList<>(top);
+        hits.sort(worstFirst.reversed());
+        return hits.stream().map(Hit::task).toList();
+    }
+
+    public int size() {
+        return documents.size();
+    }
+
+
+    // Sum over all query words, 0 when any word is missing in the document
+    private double score(Document document, List<String> terms) {
+        double score = 0;
+        for (String term : terms) {
+            double termScore = Math.max(
+                    termScore(document.titleTokens(), term, TITLE_WEIGHT),
+                    termScore(document.descriptionTokens(), term, DESCRIPTION_WEIGHT));
+            if (termScore == 0) {
+                return 0;
+            }
+            score += termScore;
+        }
+        return score;
+    }
+
+    private double termScore(Set<String> tokens, String term, double weight) {
+        if (tokens.contains(term)) {
+            return weight + EXACT_BONUS;
+        }
+        for (String token : tokens) {
+            if (token.startsWith(term)) {
+                return weight;
+            }
+        }
+        return 0;
+    }
+
+    private boolean matchesFilters(TaskResponseDTO task, Status status, Long projectId) {
+        return (status == null || status == task.getStatus())
+                && (projectId == null || projectId.equals(task.getProjectId()));
+    }
+
+    private NavigableMap<String, Set<Long>> prefixRange(String prefix) {
+        return postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+    }
+
+    private void addPostings(Long id, Document document) {
+        for (String token : document.allTokens()) {
+            synchronized (lockFor(token)) {
+                postings.computeIfAbsent(token, t -> ConcurrentHashMap.newKeySet()).add(id);
+            }
+        }
+    }
+
+    private void removePostings(Long id, Document document) {
+        for (String token : document.allTokens()) {
+            synchronized (lockFor(token)) {
+                Set<Long> ids = postings.get(token);
+                if (ids != null && ids.remove(id) && ids.isEmpty()) {
+                    postings.remove(token);
+                }
+            }
+        }
+    }
+
+    private Object lockFor(String token) {
+        return postingLocks[token.hashCode() & (postingLocks.length - 1)];
+    }
+
+    // Lower case words made of letters and digits, everything else separates words
+    static Set<String> tokenize(String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        if (text == null) {
+            return tokens;
+        }
+        StringBuilder current = new StringBuilder();
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                current.append(Character.toLowerCase(c));
+            } else if (!current.isEmpty()) {
+                tokens.add(current.toString());
+                current.setLength(0);
+            }
+        }
+        if (!current.isEmpty()) {
+            tokens.add(current.toString());
+        }
+        return tokens;
+    }
+
+
+    private record Document(TaskResponseDTO task, Set<String> titleTokens, Set<String> descriptionTokens) {
+
+        Set<String> allTokens() {
+            Set<String> all = new LinkedHashSet<>(titleTokens);
+            all.addAll(descriptionTokens);
+            return all;
+        }
+    }
+
+    private record Hit(Long id, double score, TaskResponseDTO task) {
+    }
+}
@@ -0,0 +1,221 @@
+package com.portfolio.mytaskmanager.index;
+
+
+import com.portfolio.mytaskmanager.entity.Status;
+import com.portfolio.mytaskmanager.entity.Task;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/*  One compressed bitmap of task IDs per tag, per status and per project (Roaring bitmaps)
+    a filter like "bug AND q3 AND NOT customer-x" is a few bitmap intersections/differences
+    instead of one join of task_tag per tag, the result is a bitmap of matching task IDs
+    many readers can query at the same time, writes take a short exclusive lock
+*/
+@Component
+public class TaskTagIndex implements TaskIndex {
+
+    private final Map<String, Roaring64Bitmap> byTag = new HashMap<>();
+    private final Map<Status, Roaring64Bitmap> byStatus = new EnumMap<>(Status.class);
+    private final Map<Long, Roaring64Bitmap> byProject = new HashMap<>();
+
+    // Every indexed task, the starting set when a query only excludes tags
+    private final Roaring64Bitmap allTasks = new Roaring64Bitmap();
+
+    // Task ID -> what it was indexed under, needed to take it out again
+    private final Map<Long, Entry> entries = new HashMap<>();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private volatile boolean loaded;
+
+
+    @Override
+    public void onTaskSaved(Task task) {
+        Entry entry = new Entry(Set.copyOf(task.getTags() != null ? task.getTags() : Set.of()), task.getStatus(),
+                task.getProject() != null ? task.getProject().getId() : null);
+
+        lock.writeLock().lock();
+        try {
+            removeTask(task.getId());
+            long id = task.getId();
+            entry.tags().forEach(tag -> byTag.computeIfAbsent(tag, t -> new Roaring64Bitmap()).addLong(id));
+            if (entry.status() != null) {
+                byStatus.computeIfAbsent(entry.status(), s -> new Roaring64Bitmap()).addLong(id);
+            }
+            if (entry.projectId() != null) {
+                byProject.computeIfAbsent(entry.projectId(), p -> new Roaring64Bitmap()).addLong(id);
+            }
+            allTasks.addLong(id);
+            entries.put(id, entry);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onTaskDeleted(Long taskId) {
+        lock.writeLock().lock();
+        try {
+            removeTask(taskId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onProjectDeleted(Long projectId) {
+        lock.writeLock().lock();
+        try {
+            Roaring64Bitmap ids = byProject.get(projectId);
+            if (ids != null) {
+                for (long id : ids.toArray()) {
+                    removeTask(id);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            loaded = false;
+            byTag.clear();
+            byStatus.clear();
+            byProject.clear();
+            allTasks.clear();
+            entries.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void markLoaded() {
+        loaded = true;
+    }
+
+    @Override
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+
+    // Number of indexed tasks per status, every status present (0 when none)
+    public Map<Status, Long> countByStatus() {
+        lock.readLock().lock();
+        try {
+            Map<Status, Long> counts = new EnumMap<>(Status.class);
+            for (Status status : Status.values()) {
+                Roaring64Bitmap ids = byStatus.get(status);
+                counts.put(status, ids != null ? ids.getLongCardinality() : 0L);
+            }
+            return counts;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /*  Tasks having all tags of 'allOf', at least one of 'anyOf' (when given) and none of 'noneOf'
+        status and projectId are optional extra filters, tags must already be normalized (lower case)
+        intersections start from the smallest bitmap so the intermediate results stay small
+    */
+    public Roaring64Bitmap query(Set<String> allOf, Set<String> anyOf, Set<String> noneOf, Status status, Long projectId) {
+        lock.readLock().lock();
+        try {
+            List<Roaring64Bitmap> required = new ArrayList<>();
+            for (String tag : allOf) {
+                required.add(byTag.get(tag));
+            }
+            if (status != null) {
+                required.add(byStatus.get(status));
+            }
+            if (projectId != null) {
+                required.add(byProject.get(projectId));
+            }
+            if (required.contains(null)) {
+                return new Roaring64Bitmap();
+            }
+
+            Roaring64Bitmap result = null;
+            if (!required.isEmpty()) {
+                required.sort(Comparator.comparingLong(Roaring64Bitmap::getLongCardinality));
+                result = required.get(0).clone();
+                for (int i = 1; i < required.size() && !result.isEmpty(); i++) {
+                    result.and(required.get(i));
+                }
+            }
+
+            if (!anyOf.isEmpty()) {
+                Roaring64Bitmap union = new Roaring64Bitmap();
+                for (String tag : anyOf) {
+                    Roaring64Bitmap ids = byTag.get(tag);
+                    if (ids != null) {
+                        union.or(ids);
+                    }
+                }
+                if (result == null) {
+                    result = union;
+                } else {
+                    result.and(union);
+                }
+            }
+
+            if (result == null) {
+                result = allTasks.clone();
+            }
+            for (String tag : noneOf) {
+                Roaring64Bitmap ids = byTag.get(tag);
+                if (ids != null && !result.isEmpty()) {
+                    result.andNot(ids);
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+
+    private void removeTask(long id) {
+        Entry previous = entries.remove(id);
+        if (previous == null) {
+            return;
+        }
+        previous.tags().forEach(tag -> removeFrom(byTag, tag, id));
+        if (previous.status() != null) {
+            removeFrom(byStatus, previous.status(), id);
+        }
+        if (previous.projectId() != null) {
+            removeFrom(byProject, previous.projectId(), id);
+        }
+        allTasks.removeLong(id);
+    }
+
+    // Empty bitmaps are dropped, deleted tags and projects do not stay in memory
+    private static <K> void removeFrom(Map<K, Roaring64Bitmap> map, K key, long id) {
+        Roaring64Bitmap ids = map.get(key);
+        if (ids != null) {
+            ids.removeLong(id);
+            if (ids.isEmpty()) {
+                map.remove(key);
+            }
+        }
+    }
+
+
+    private record Entry(Set<String> tags, Status status, Long projectId) {
+    }
+}
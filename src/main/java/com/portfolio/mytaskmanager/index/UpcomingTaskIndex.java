@@ -0,0 +1,156 @@
+package com.portfolio.mytaskmanager.index;
+
+
+import com.portfolio.mytaskmanager.dto.TaskResponseDTO;
+import com.portfolio.mytaskmanager.entity.Task;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/*  Open tasks (not DONE/FAILED) with a due date, sorted by (dueDate, id)
+    one sorted map for all tasks plus one per project, so "next K tasks" is just reading
+    the first K entries - O(K log N), no sorting and no database query per request
+*/
+@Component
+public class UpcomingTaskIndex implements TaskIndex {
+
+    private final ConcurrentSkipListMap<Key, TaskResponseDTO> all = new ConcurrentSkipListMap<>();
+
+    private final Map<Long, ConcurrentSkipListMap<Key, TaskResponseDTO>> byProject = new ConcurrentHashMap<>();
+
+    // Current position of each indexed task, needed to remove the old entry on update/delete
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+
+    private volatile boolean loaded;
+
+
+    @Override
+    public void onTaskSaved(Task task) {
+        entries.compute(task.getId(), (id, previous) -> {
+            if (previous != null) {
+                remove(previous);
+            }
+            if (task.getDueDate() == null || task.getStatus() == null || task.getStatus().isTerminal()) {
+                return null;
+            }
+            Entry entry = new Entry(new Key(task.getDueDate().toEpochDay(), id), TaskResponseDTO.from(task));
+            add(entry);
+            return entry;
+        });
+    }
+
+    @Override
+    public void onTaskDeleted(Long taskId) {
+        entries.computeIfPresent(taskId, (id, previous) -> {
+            remove(previous);
+            return null;
+        });
+    }
+
+    @Override
+    public void onProjectDeleted(Long projectId) {
+        Map<Key, TaskResponseDTO> tasks = byProject.get(projectId);
+        if (tasks != null) {
+            tasks.values().stream().map(TaskResponseDTO::getId).toList().forEach(this::onTaskDeleted);
+        }
+    }
+
+    @Override
+    public void clear() {
+        loaded = false;
+        entries.clear();
+        all.clear();
+        byProject.clear();
+    }
+
+    @Override
+    public void markLoaded() {
+        loaded = true;
+    }
+
+    @Override
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+
+    // First 'limit' open tasks by due date (overdue ones first), optionally for one project only
+    public List<TaskResponseDTO> upcoming(int limit, Long projectId) {
+        NavigableMap<Key, TaskResponseDTO> source = projectId == null ? all : byProject.get(projectId);
+        return first(source, limit);
+    }
+
+    // First 'limit' open tasks due from 'from' (inclusive) to 'to' (exclusive), a null bound is open
+    public List<TaskResponseDTO> due(LocalDate from, LocalDate to, int limit) {
+        NavigableMap<Key, TaskResponseDTO> source = all;
+        if (from != null) {
+            source = source.tailMap(new Key(from.toEpochDay(), Long.MIN_VALUE), true);
+        }
+        if (to != null) {
+            source = source.headMap(new Key(to.toEpochDay(), Long.MIN_VALUE), false);
+        }
+        return first(source, limit);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+
+    private static List<TaskResponseDTO> first(NavigableMap<Key, TaskResponseDTO> source, int limit) {
+        List<TaskResponseDTO> result = new ArrayList<>(limit);
+        if (source == null) {
+            return result;
+        }
+        for (TaskResponseDTO task : source.values()) {
+            if (result.size() == limit) {
+                break;
+            }
+            result.add(task);
+        }
+        return result;
+    }
+
+    private void add(Entry entry) {
+        all.put(entry.key(), entry.task());
+        Long projectId = entry.task().getProjectId();
+        if (projectId != null) {
+            // inside compute(), so a concurrent remove cannot drop the map we are adding to
+            byProject.compute(projectId, (p, tasks) -> {
+                ConcurrentSkipListMap<Key, TaskResponseDTO> target = tasks != null ? tasks : new ConcurrentSkipListMap<>();
+                target.put(entry.key(), entry.task());
+                return target;
+            });
+        }
+    }
+
+    private void remove(Entry entry) {
+        all.remove(entry.key());
+        Long projectId = entry.task().getProjectId();
+        if (projectId != null) {
+            byProject.computeIfPresent(projectId, (p, tasks) -> {
+                tasks.remove(entry.key());
+                return tasks.isEmpty() ? null : tasks;
+            });
+        }
+    }
+
+
+    private record Key(long dueEpochDay, long id) implements Comparable<Key> {
+
+        @Override
+        public int compareTo(Key other) {
+            int byDate = Long.compare(dueEpochDay, other.dueEpochDay);
+            return byDate != 0 ? byDate : Long.compare(id, other.id);
+        }
+    }
+
+    private record Entry(Key key, TaskResponseDTO task) {
+    }
+}
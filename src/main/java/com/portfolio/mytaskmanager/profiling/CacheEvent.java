@@ -0,0 +1,31 @@
+package com.portfolio.mytaskmanager.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// Lookup or invalidation of an application cache (project list snapshot, degradation mode answers)
+@Name("mytaskmanager.Cache")
+@Label("Cache Access")
+@Category({"MyTaskManager", "Cache"})
+@StackTrace(false)
+public class CacheEvent extends Event {
+
+    @Label("Cache")
+    String cache;
+
+    @Label("Result")
+    String result;
+
+    // Cheap while no recording is running, the event is only filled when it will be written
+    public static void emit(String cache, String result) {
+        CacheEvent event = new CacheEvent();
+        if (event.shouldCommit()) {
+            event.cache = cache;
+            event.result = result;
+            event.commit();
+        }
+    }
+}
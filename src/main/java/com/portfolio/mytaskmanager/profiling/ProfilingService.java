@@ -0,0 +1,95 @@
+package com.portfolio.mytaskmanager.profiling;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/*  Time-boxed JFR recordings on demand: JDK events of the settings profile (profiling.settings, "default" is the
+    low-overhead continuous profile) plus the application events (service operations, cache, queues)
+    one recording at a time, written to a temporary file that is removed once it was copied to the caller
+*/
+@Service
+public class ProfilingService {
+
+    private final String settings;
+    private final Duration maxDuration;
+
+    private final AtomicBoolean recording = new AtomicBoolean();
+
+    public ProfilingService(@Value("${profiling.settings:default}") String settings,
+                            @Value("${profiling.max-duration:PT5M}") Duration maxDuration) {
+        this.settings = settings;
+        this.maxDuration = maxDuration;
+    }
+
+    public boolean isRecording() {
+        return recording.get();
+    }
+
+    // Where the finished recording goes, opened only when there is one (errors can still set the status)
+    public interface Target {
+        OutputStream open() throws IOException;
+    }
+
+    /*  Records for 'duration' on the calling thread, then copies the .jfr file to the target
+        400 for a duration outside (0, max-duration], 409 while another recording runs
+    */
+    public void record(Duration duration, Target target) throws IOException {
+        if (duration.isNegative() || duration.isZero() || duration.compareTo(maxDuration) > 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Duration must be between 0 and " + maxDuration);
+        }
+        if (!recording.compareAndSet(false, true)) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "A recording is already running");
+        }
+        Path file = null;
+        try {
+            // inside the try: a temp directory that is full or read-only must not leave the flag set
+            file = Files.createTempFile("mytaskmanager-", ".jfr");
+            try (Recording jfr = new Recording(configuration())) {
+                jfr.setName("mytaskmanager-on-demand");
+                jfr.setToDisk(true);
+                jfr.enable(ServiceOperationEvent.class);
+                jfr.enable(CacheEvent.class);
+                jfr.enable(QueueEvent.class);
+                jfr.start();
+                try {
+                    Thread.sleep(duration.toMillis());
+                } catch (InterruptedException e) {
+                    // cut short, what was recorded so far is still returned
+                    Thread.currentThread().interrupt();
+                }
+                jfr.stop();
+                jfr.dump(file);
+            }
+            Files.copy(file, target.open());
+        } finally {
+            try {
+                if (file != null) {
+                    Files.deleteIfExists(file);
+                }
+            } finally {
+                recording.set(false);
+            }
+        }
+    }
+
+
+    private Configuration configuration() throws IOException {
+        try {
+            return Configuration.getConfiguration(settings);
+        } catch (ParseException e) {
+            throw new IOException("JFR settings '" + settings + "' cannot be read", e);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.portfolio.mytaskmanager.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/*  Activity of an in-process queue (task ingestion, audit buffer)
+    enqueue/reject are instants, batch spans the time the batch took to write
+*/
+@Name("mytaskmanager.Queue")
+@Label("Queue Activity")
+@Category({"MyTaskManager", "Queue"})
+@StackTrace(false)
+public class QueueEvent extends Event {
+
+    @Label("Queue")
+    String queue;
+
+    @Label("Action")
+    String action;
+
+    @Label("Items")
+    @Description("Items taken or written by this action")
+    int items;
+
+    @Label("Depth")
+    @Description("Items still waiting in the queue afterwards")
+    int depth;
+
+    public static void emit(String queue, String action, int items, int depth) {
+        QueueEvent event = new QueueEvent();
+        if (event.shouldCommit()) {
+            event.queue = queue;
+            event.action = action;
+            event.items = items;
+            event.depth = depth;
+            event.commit();
+        }
+    }
+
+    // For a timed action: begin() before it, then finish() after it
+    public void finish(String queue, String action, int items, int depth) {
+        end();
+        if (shouldCommit()) {
+            this.queue = queue;
+            this.action = action;
+            this.items = items;
+            this.depth = depth;
+            commit();
+        }
+    }
+}
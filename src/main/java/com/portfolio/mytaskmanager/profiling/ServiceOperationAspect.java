@@ -0,0 +1,45 @@
+package com.portfolio.mytaskmanager.profiling;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+/*  Writes a ServiceOperationEvent per public TaskService/ProjectService call while a JFR recording runs
+    without a recording the event is never enabled and the call goes straight through
+*/
+@Aspect
+@Component
+public class ServiceOperationAspect {
+
+    @Around("execution(public * com.portfolio.mytaskmanager.service.TaskService.*(..))"
+            + " || execution(public * com.portfolio.mytaskmanager.service.ProjectService.*(..))")
+    public Object record(ProceedingJoinPoint call) throws Throwable {
+        ServiceOperationEvent event = new ServiceOperationEvent();
+        if (!event.isEnabled()) {
+            return call.proceed();
+        }
+        int statementsBefore = StatementCounter.count();
+        boolean failed = true;
+        event.begin();
+        try {
+            Object result = call.proceed();
+            failed = false;
+            return result;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.operation = call.getSignature().getDeclaringType().getSimpleName() + "." + call.getSignature().getName();
+                event.entityId = entityId(call.getArgs());
+                event.statements = StatementCounter.count() - statementsBefore;
+                event.failed = failed;
+                event.commit();
+            }
+        }
+    }
+
+    // The ID methods take it first (findById, update, delete, history, ...)
+    private static long entityId(Object[] args) {
+        return args.length > 0 && args[0] instanceof Long id ? id : -1;
+    }
+}
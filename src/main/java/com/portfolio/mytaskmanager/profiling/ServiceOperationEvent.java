@@ -0,0 +1,31 @@
+package com.portfolio.mytaskmanager.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// One call of a TaskService/ProjectService method, written by ServiceOperationAspect
+@Name("mytaskmanager.ServiceOperation")
+@Label("Service Operation")
+@Category({"MyTaskManager", "Service"})
+@Description("A TaskService or ProjectService call with its SQL statements")
+@StackTrace(false)
+public class ServiceOperationEvent extends Event {
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Entity ID")
+    @Description("First Long argument of the call (task or project ID), -1 when there is none")
+    long entityId;
+
+    @Label("Statements")
+    @Description("SQL statements Hibernate prepared during the call, nested calls included")
+    int statements;
+
+    @Label("Failed")
+    boolean failed;
+}
@@ -0,0 +1,34 @@
+package com.portfolio.mytaskmanager.profiling;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/*  Counts the SQL statements Hibernate prepares on each thread, registered as Hibernate's statement inspector
+    the SQL is passed on unchanged; callers read count() before and after a piece of work
+    (statements of JdbcTemplate do not pass through Hibernate and are not counted)
+*/
+@Component
+public class StatementCounter implements StatementInspector, HibernatePropertiesCustomizer {
+
+    private static final ThreadLocal<int[]> COUNT = ThreadLocal.withInitial(() -> new int[1]);
+
+    // Statements prepared by the current thread so far
+    public static int count() {
+        return COUNT.get()[0];
+    }
+
+    @Override
+    public String inspect(String sql) {
+        COUNT.get()[0]++;
+        return sql;
+    }
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, this);
+    }
+}
@@ -0,0 +1,27 @@
+package com.portfolio.mytaskmanager.repository;
+
+import com.portfolio.mytaskmanager.entity.ArchivedTask;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+
+
+@Repository
+public interface ArchivedTaskRepository extends JpaRepository<ArchivedTask, Long> {
+
+
+    /*  Copies the given tasks into the archive with one INSERT ... SELECT executed by the database
+        no task is loaded into memory, the caller deletes the originals in the same transaction
+    */
+    @Modifying
+    @Query("""
+            insert into ArchivedTask (id, title, description, status, dueDate, finishedAt, archivedAt, project)
+            select t.id, t.title, t.description, t.status, t.dueDate, t.finishedAt, current_timestamp, t.project
+            from Task t where t.id in :ids
+            """)
+    int copyFromTasks(@Param("ids") Collection<Long> ids);
+}
@@ -1,12 +1,24 @@
 package com.portfolio.mytaskmanager.repository;
 
 import com.portfolio.mytaskmanager.entity.Project;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 
 // JPA repository with selected attribute for ID - Long
 @Repository
 public interface ProjectRepository extends JpaRepository<Project, Long> {
+
+    // Query cache: results are reused until the project table changes
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     boolean existsByNameIgnoreCase(String name);
+
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Project> findAll();
 }
@@ -0,0 +1,75 @@
+package com.portfolio.mytaskmanager.repository;
+
+import com.portfolio.mytaskmanager.entity.Status;
+import com.portfolio.mytaskmanager.entity.Task;
+import com.portfolio.mytaskmanager.entity.TaskClosure;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+
+@Repository
+public interface TaskClosureRepository extends JpaRepository<TaskClosure, TaskClosure.Key> {
+
+    // Row count per status in a subtree
+    interface StatusCount {
+        Status getStatus();
+        long getCount();
+    }
+
+
+    // The task itself (depth 0) and all tasks below it, served by the primary key (ancestor_id, descendant_id)
+    @Query("select c.descendantId from TaskClosure c where c.ancestorId = :id")
+    List<Long> findSubtreeIds(@Param("id") Long id);
+
+    // The task itself and all tasks above it, served by index on (descendant_id, ancestor_id)
+    @Query("select c.ancestorId from TaskClosure c where c.descendantId = :id and c.depth > 0")
+    List<Long> findAncestorIds(@Param("id") Long id);
+
+    boolean existsByAncestorIdAndDescendantId(Long ancestorId, Long descendantId);
+
+    boolean existsByAncestorIdAndDepthGreaterThan(Long ancestorId, int depth);
+
+    @Query("select c.descendant from TaskClosure c where c.ancestorId = :id and c.depth > 0 order by c.depth, c.descendantId")
+    List<Task> findDescendants(@Param("id") Long id);
+
+    @Query("""
+            select t.status as status, count(t) as count
+            from TaskClosure c join c.descendant t
+            where c.ancestorId = :id
+            group by t.status
+            """)
+    List<StatusCount> countSubtreeByStatus(@Param("id") Long id);
+
+
+    @Modifying
+    @Query("insert into TaskClosure (ancestorId, descendantId, depth) values (:id, :id, 0)")
+    void insertSelf(@Param("id") Long id);
+
+    // Every ancestor of the parent (and the parent itself) becomes an ancestor of the new task
+    @Modifying
+    @Query("""
+            insert into TaskClosure (ancestorId, descendantId, depth)
+            select c.ancestorId, :id, c.depth + 1 from TaskClosure c where c.descendantId = :parentId
+            """)
+    void insertUnderParent(@Param("id") Long id, @Param("parentId") Long parentId);
+
+    // Links every ancestor of the new parent with every node of the moved subtree
+    @Modifying
+    @Query("""
+            insert into TaskClosure (ancestorId, descendantId, depth)
+            select a.ancestorId, s.descendantId, a.depth + s.depth + 1
+            from TaskClosure a, TaskClosure s
+            where a.descendantId = :parentId and s.ancestorId = :id
+            """)
+    void insertSubtreeUnderParent(@Param("id") Long id, @Param("parentId") Long parentId);
+
+    @Modifying
+    @Query("delete from TaskClosure c where c.descendantId in :descendants and c.ancestorId in :ancestors")
+    void deleteLinks(@Param("descendants") Collection<Long> descendants, @Param("ancestors") Collection<Long> ancestors);
+}
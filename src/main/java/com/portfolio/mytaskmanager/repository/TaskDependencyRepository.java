@@ -0,0 +1,40 @@
+package com.portfolio.mytaskmanager.repository;
+
+import com.portfolio.mytaskmanager.entity.Task;
+import com.portfolio.mytaskmanager.entity.TaskDependency;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+
+@Repository
+public interface TaskDependencyRepository extends JpaRepository<TaskDependency, Long> {
+
+    // One edge of the graph: blocker -> task
+    interface Edge {
+        Long getBlockerId();
+        Long getTaskId();
+    }
+
+
+    boolean existsByTaskIdAndBlockerId(Long taskId, Long blockerId);
+
+    @Query("select d.blocker from TaskDependency d where d.task.id = :taskId order by d.blocker.id")
+    List<Task> findBlockers(@Param("taskId") Long taskId);
+
+    // All edges of one project, used to build its in-memory graph
+    @Query("select d.blocker.id as blockerId, d.task.id as taskId from TaskDependency d where d.task.project.id = :projectId")
+    List<Edge> findEdgesByProjectId(@Param("projectId") Long projectId);
+
+    @Modifying
+    @Query("delete from TaskDependency d where d.task.id = :taskId and d.blocker.id = :blockerId")
+    int deleteEdge(@Param("taskId") Long taskId, @Param("blockerId") Long blockerId);
+
+    @Modifying
+    @Query("delete from TaskDependency d where d.task.id = :taskId or d.blocker.id = :taskId")
+    int deleteAllOfTask(@Param("taskId") Long taskId);
+}
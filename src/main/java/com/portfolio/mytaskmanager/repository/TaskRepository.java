@@ -1,10 +1,18 @@
 package com.portfolio.mytaskmanager.repository;
 
 import com.portfolio.mytaskmanager.entity.Project;
+import com.portfolio.mytaskmanager.entity.Status;
 import com.portfolio.mytaskmanager.entity.Task;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 
@@ -24,4 +32,38 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
         multiple associated tasks.
     */
     List<Task> findByProject(Project project);
+
+    // Tasks of a project with their tags loaded, snapshots for the audit log before the project is deleted
+    @Query("select distinct t from Task t left join fetch t.tags where t.project.id = :projectId")
+    List<Task> findWithTagsByProjectId(@Param("projectId") Long projectId);
+
+
+    // Keyset paging - next page of tasks after the given ID, used to load the in-memory indexes
+    List<Task> findByIdGreaterThanOrderByIdAsc(Long id, Pageable page);
+
+
+    // Tasks due in the date range (both inclusive), uses index on due_date
+    List<Task> findByDueDateBetweenOrderByDueDateAscIdAsc(LocalDate from, LocalDate to);
+
+
+    /*  IDs of finished tasks that are old enough to be archived
+        the page size bounds one archive batch, uses index on (status, finished_at)
+        tasks with subtasks wait until their subtasks are archived
+        no order by: the batch is taken in index order, sorting every archivable task by ID only to keep
+        the first page was a sort over the whole backlog (see QueryPlanTest)
+    */
+    @Query("""
+            select t.id from Task t
+            where t.status in :statuses and t.finishedAt < :cutoff
+            and not exists (select c from TaskClosure c where c.ancestorId = t.id and c.depth > 0)
+            """)
+    List<Long> findArchivableIds(@Param("statuses") Collection<Status> statuses,
+                                 @Param("cutoff") LocalDateTime cutoff,
+                                 Pageable page);
+
+
+    // Tasks finished before finishedAt existed get the current time, so they start aging from now
+    @Modifying
+    @Query("update Task t set t.finishedAt = current_timestamp where t.status in :statuses and t.finishedAt is null")
+    int backfillFinishedAt(@Param("statuses") Collection<Status> statuses);
 }
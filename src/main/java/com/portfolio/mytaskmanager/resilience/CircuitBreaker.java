@@ -0,0 +1,78 @@
+package com.portfolio.mytaskmanager.resilience;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+/*  Minimal circuit breaker in front of the database
+    CLOSED    - calls go through, consecutive failures (errors or too slow calls) are counted
+    OPEN      - after 'failureThreshold' failures in a row, calls are refused for 'openDuration'
+    HALF_OPEN - after that one probe call is let through, its result closes or reopens the circuit
+*/
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureThreshold;
+    private final Duration openDuration;
+    private final Clock clock;
+
+    private State state = State.CLOSED;
+    private int failures;
+    private Instant openedAt;
+
+    public CircuitBreaker(int failureThreshold, Duration openDuration, Clock clock) {
+        this.failureThreshold = failureThreshold;
+        this.openDuration = openDuration;
+        this.clock = clock;
+    }
+
+    // True when the caller may go to the database now, an OPEN circuit lets one probe through once the wait is over
+    public synchronized boolean tryAcquire() {
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (!clock.instant().isBefore(openedAt.plus(openDuration))) {
+                    state = State.HALF_OPEN;
+                    return true;
+                }
+                return false;
+            default:
+                return false;
+        }
+    }
+
+    // The probe let through by tryAcquire could not be started (nothing learnt), the next call probes instead
+    public synchronized void releaseProbe() {
+        if (state == State.HALF_OPEN) {
+            state = State.OPEN;
+        }
+    }
+
+    public synchronized void onSuccess() {
+        state = State.CLOSED;
+        failures = 0;
+    }
+
+    public synchronized void onFailure() {
+        failures++;
+        if (state == State.HALF_OPEN || failures >= failureThreshold) {
+            state = State.OPEN;
+            openedAt = clock.instant();
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    // Seconds until a probe is allowed, used for the Retry-After header
+    public synchronized long secondsUntilRetry() {
+        if (state != State.OPEN) {
+            return 0;
+        }
+        Duration left = Duration.between(clock.instant(), openedAt.plus(openDuration));
+        return Math.max(1, (left.toMillis() + 999) / 1000);
+    }
+}
@@ -0,0 +1,281 @@
+package com.portfolio.mytaskmanager.resilience;
+
+import com.portfolio.mytaskmanager.profiling.CacheEvent;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/*  Degradation mode for the read endpoints (stale-while-revalidate)
+    every successful read is remembered per URL in a bounded LRU map (last known good response)
+    when the database is slow (no answer within latency-threshold), failing, or the circuit is open,
+    the remembered response is returned at once with Age and Warning headers, and the database call
+    keeps running (or a probe is started) in the background to refresh it
+    without a remembered response the caller waits for the database as usual, or gets 503 when the circuit is open
+
+    writes never use the remembered data, they are refused up front while the circuit is open (WriteGuardInterceptor)
+    a full read pool is this instance being busy, not the database failing: it is answered from memory or with 503
+    and never counted by the breaker (it would pause the writes of a healthy database)
+*/
+@Component
+public class DegradationGuard {
+
+    private static final Logger log = LoggerFactory.getLogger(DegradationGuard.class);
+
+    private static final String STALE_WARNING = "110 - \"Response is Stale\"";
+    private static final String REVALIDATION_FAILED_WARNING = "111 - \"Revalidation Failed\"";
+
+    private final boolean enabled;
+    private final Duration latencyThreshold;
+    private final Duration maxStale;
+    private final Clock clock;
+
+    private final CircuitBreaker breaker;
+    private final Map<String, Snapshot> lastGood;
+
+    // Bounded pool for database reads, a full queue is answered from memory or refused, never queued without limit
+    private final ThreadPoolExecutor executor;
+
+    @Autowired
+    public DegradationGuard(@Value("${degradation.enabled:true}") boolean enabled,
+                            @Value("${degradation.latency-threshold:PT0.5S}") Duration latencyThreshold,
+                            @Value("${degradation.max-stale:PT10M}") Duration maxStale,
+                            @Value("${degradation.cache-size:1000}") int cacheSize,
+                            @Value("${degradation.failure-threshold:5}") int failureThreshold,
+                            @Value("${degradation.open-duration:PT10S}") Duration openDuration,
+                            @Value("${degradation.read-threads:16}") int readThreads) {
+        this(enabled, latencyThreshold, maxStale, cacheSize, new CircuitBreaker(failureThreshold, openDuration, Clock.systemUTC()),
+                readThreads, Clock.systemUTC());
+    }
+
+    public DegradationGuard(boolean enabled, Duration latencyThreshold, Duration maxStale, int cacheSize,
+                            CircuitBreaker breaker, int readThreads, Clock clock) {
+        this.enabled = enabled;
+        this.latencyThreshold = latencyThreshold;
+        this.maxStale = maxStale;
+        this.breaker = breaker;
+        this.clock = clock;
+        this.lastGood = lruMap(cacheSize);
+        this.executor = new ThreadPoolExecutor(readThreads, readThreads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(readThreads * 8), runnable -> {
+                    Thread thread = new Thread(runnable, "degradation-read");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    // Read keyed by the current request URL (path + query)
+    public <T> ResponseEntity<T> serve(Supplier<T> loader) {
+        return serve(currentRequestKey(), loader);
+    }
+
+    public <T> ResponseEntity<T> serve(String key, Supplier<T> loader) {
+        if (!enabled) {
+            return ResponseEntity.ok(loader.get());
+        }
+
+        Snapshot stale = snapshot(key);
+
+        if (breaker.getState() != CircuitBreaker.State.CLOSED) {
+            // one probe at a time goes to the database, everybody else is answered from memory or refused
+            CompletableFuture<T> probe = null;
+            if (breaker.tryAcquire()) {
+                probe = load(key, loader);
+                if (probe == null) {
+                    breaker.releaseProbe();
+                }
+            }
+            if (stale != null) {
+                return staleResponse(stale, probe != null ? STALE_WARNING : REVALIDATION_FAILED_WARNING);
+            }
+            if (probe == null) {
+                throw unavailable();
+            }
+            return await(probe, null);
+        }
+
+        CompletableFuture<T> call = load(key, loader);
+        if (call == null) {
+            if (stale != null) {
+                return staleResponse(stale, STALE_WARNING);
+            }
+            throw busy();
+        }
+        if (stale == null) {
+            return await(call, null);
+        }
+        try {
+            return ResponseEntity.ok(call.get(latencyThreshold.toMillis(), TimeUnit.MILLISECONDS));
+        } catch (TimeoutException e) {
+            // slow database: old data now, the running call refreshes the snapshot when it finishes
+            return staleResponse(stale, STALE_WARNING);
+        } catch (ExecutionException e) {
+            return failed(e.getCause(), stale);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return staleResponse(stale, STALE_WARNING);
+        }
+    }
+
+    // Writes are refused while the database is known to be down, instead of waiting for connection timeouts
+    public boolean isWriteAllowed() {
+        return !enabled || breaker.getState() == CircuitBreaker.State.CLOSED;
+    }
+
+    public CircuitBreaker getBreaker() {
+        return breaker;
+    }
+
+    public long secondsUntilRetry() {
+        return breaker.secondsUntilRetry();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+
+    /*  Runs the loader on the read pool, the result updates the breaker and the snapshot whoever is waiting for it
+        null when the pool and its queue are full, the breaker is left alone then
+    */
+    private <T> CompletableFuture<T> load(String key, Supplier<T> loader) {
+        long start = System.nanoTime();
+        CompletableFuture<T> call;
+        try {
+            call = CompletableFuture.supplyAsync(loader, executor);
+        } catch (RejectedExecutionException e) {
+            return null;
+        }
+        return call.whenComplete((value, error) -> {
+            if (error == null) {
+                boolean slow = Duration.ofNanos(System.nanoTime() - start).compareTo(latencyThreshold) > 0;
+                if (slow) {
+                    breaker.onFailure();
+                } else {
+                    breaker.onSuccess();
+                }
+                remember(key, value);
+            } else if (unwrap(error) instanceof ResponseStatusException) {
+                // answered by the application (404...), the database is fine and the old answer is no longer valid
+                breaker.onSuccess();
+                forget(key);
+            } else {
+                breaker.onFailure();
+                log.warn("Read {} failed: {}", key, unwrap(error).toString());
+            }
+        });
+    }
+
+    private <T> ResponseEntity<T> await(CompletableFuture<T> call, Snapshot stale) {
+        try {
+            return ResponseEntity.ok(call.join());
+        } catch (CompletionException e) {
+            return failed(e.getCause(), stale);
+        }
+    }
+
+    private <T> ResponseEntity<T> failed(Throwable cause, Snapshot stale) {
+        if (cause instanceof ResponseStatusException statusException) {
+            throw statusException;
+        }
+        if (stale != null) {
+            return staleResponse(stale, REVALIDATION_FAILED_WARNING);
+        }
+        if (cause instanceof RuntimeException runtimeException) {
+            throw runtimeException;
+        }
+        throw new IllegalStateException(cause);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> ResponseEntity<T> staleResponse(Snapshot snapshot, String warning) {
+        CacheEvent.emit("degradation", "stale");
+        long age = Math.max(0, Duration.between(snapshot.storedAt(), clock.instant()).toSeconds());
+        return (ResponseEntity<T>) ResponseEntity.ok()
+                .header(HttpHeaders.AGE, String.valueOf(age))
+                .header("Warning", warning)
+                .body(snapshot.body());
+    }
+
+    private ResponseStatusException unavailable() {
+        return new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Database unavailable, retry in " + breaker.secondsUntilRetry() + " s");
+    }
+
+    private ResponseStatusException busy() {
+        return new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many reads in progress, retry shortly");
+    }
+
+    private Snapshot snapshot(String key) {
+        Snapshot snapshot;
+        synchronized (lastGood) {
+            snapshot = lastGood.get(key);
+        }
+        if (snapshot != null && Duration.between(snapshot.storedAt(), clock.instant()).compareTo(maxStale) > 0) {
+            forget(key);
+            return null;
+        }
+        return snapshot;
+    }
+
+    private void remember(String key, Object body) {
+        synchronized (lastGood) {
+            lastGood.put(key, new Snapshot(body, clock.instant()));
+        }
+    }
+
+    private void forget(String key) {
+        synchronized (lastGood) {
+            lastGood.remove(key);
+        }
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
+    private static String currentRequestKey() {
+        HttpServletRequest request = ((ServletRequestAttributes) RequestContextHolder.currentRequestAttributes()).getRequest();
+        String query = request.getQueryString();
+        return query != null ? request.getRequestURI() + "?" + query : request.getRequestURI();
+    }
+
+    // Access ordered LinkedHashMap dropping the least recently used entry above the limit
+    private static Map<String, Snapshot> lruMap(int maxSize) {
+        return new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Snapshot> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+
+    private record Snapshot(Object body, Instant storedAt) {
+    }
+}
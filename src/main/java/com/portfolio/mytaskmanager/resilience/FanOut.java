@@ -0,0 +1,97 @@
+package com.portfolio.mytaskmanager.resilience;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReentrantLock;
+
+/*  Scoped fan-out of independent calls, each on its own virtual thread (structured concurrency without the
+    preview StructuredTaskScope of Java 21): forks start at once, a part is awaited until its own deadline
+    (counted from the fork), a part that fails or misses its deadline gives null and its name is remembered
+    in incomplete(); close() interrupts whatever is still running, nothing outlives the scope
+    no synchronized here: a virtual thread waiting for a monitor pins its carrier thread (Java 21), with few carriers
+    a part joined from two threads would block the very thread it waits for
+
+        try (FanOut fanOut = new FanOut()) {
+            FanOut.Part<A> a = fanOut.fork("a", Duration.ofSeconds(1), () -> ...);
+            FanOut.Part<B> b = fanOut.fork("b", Duration.ofSeconds(2), () -> ...);
+            use(a.join(), b.join(), fanOut.incomplete());
+        }
+*/
+public class FanOut implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(FanOut.class);
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final List<String> incomplete = new CopyOnWriteArrayList<>();
+
+    public <T> Part<T> fork(String name, Duration timeout, Callable<T> call) {
+        return new Part<>(name, System.nanoTime() + timeout.toNanos(), executor.submit(call));
+    }
+
+    // Names of the parts joined so far that failed or timed out, in join order
+    public List<String> incomplete() {
+        return List.copyOf(incomplete);
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    public class Part<T> {
+
+        private final String name;
+        private final long deadline;
+        private final Future<T> future;
+        private final ReentrantLock lock = new ReentrantLock();
+        private boolean joined;
+        private T result;
+
+        private Part(String name, long deadline, Future<T> future) {
+            this.name = name;
+            this.deadline = deadline;
+            this.future = future;
+        }
+
+        // Result of the call, or null when it failed or is not done by its deadline, joining again gives the same
+        public T join() {
+            lock.lock();
+            try {
+                if (!joined) {
+                    joined = true;
+                    result = await();
+                }
+                return result;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private T await() {
+            try {
+                return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                future.cancel(true);
+                log.warn("{} did not finish in time, left out", name);
+            } catch (ExecutionException e) {
+                log.warn("{} failed, left out: {}", name, e.getCause().toString());
+            } catch (InterruptedException e) {
+                future.cancel(true);
+                Thread.currentThread().interrupt();
+            }
+            incomplete.add(name);
+            return null;
+        }
+    }
+}
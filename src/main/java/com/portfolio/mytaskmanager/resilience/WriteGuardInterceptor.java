@@ -0,0 +1,34 @@
+package com.portfolio.mytaskmanager.resilience;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/*  Fail fast for writes (POST/PUT/DELETE...) while the database circuit is open
+    the request is refused before it takes a connection pool slot and a request thread for the whole timeout
+*/
+@Component
+public class WriteGuardInterceptor implements HandlerInterceptor {
+
+    @Autowired
+    private DegradationGuard guard;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (HttpMethod.GET.matches(request.getMethod()) || HttpMethod.HEAD.matches(request.getMethod())
+                || HttpMethod.OPTIONS.matches(request.getMethod())) {
+            return true;
+        }
+        if (!guard.isWriteAllowed()) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(guard.secondsUntilRetry()));
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Database unavailable, writes are paused");
+        }
+        return true;
+    }
+}
@@ -0,0 +1,119 @@
+package com.portfolio.mytaskmanager.service;
+
+import com.portfolio.mytaskmanager.dto.DashboardDTO;
+import com.portfolio.mytaskmanager.dto.ProjectResponseDTO;
+import com.portfolio.mytaskmanager.dto.TaskResponseDTO;
+import com.portfolio.mytaskmanager.entity.Status;
+import com.portfolio.mytaskmanager.resilience.FanOut;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/*  Dashboard of one request: projects, open tasks per project, overdue tasks, tasks due this week, status counts
+    all sections run at the same time on virtual threads (FanOut), so the answer takes as long as the slowest
+    section, not the sum; each section waits at most dashboard.timeouts.<section> (default dashboard.section-timeout),
+    one that fails or is late is left out and named in 'incomplete' instead of failing the whole dashboard
+*/
+@Service
+public class DashboardService {
+
+    static final String PROJECTS = "projects";
+    static final String PROJECT_TASKS = "projectTasks";
+    static final String OVERDUE = "overdue";
+    static final String DUE_THIS_WEEK = "dueThisWeek";
+    static final String STATUS_COUNTS = "statusCounts";
+
+    @Autowired
+    private ProjectService projectService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private Environment environment;
+
+    @Value("${dashboard.section-timeout:PT2S}")
+    private Duration sectionTimeout;
+
+    // Projects shown with their tasks when the client names none
+    @Value("${dashboard.project-limit:5}")
+    private int projectLimit;
+
+    @Value("${dashboard.tasks-per-project:10}")
+    private int tasksPerProject;
+
+    @Value("${dashboard.list-limit:20}")
+    private int listLimit;
+
+
+    // projectIds: projects to show the tasks of, null or empty for the first project-limit projects
+    public DashboardDTO dashboard(List<Long> projectIds) {
+        LocalDate today = LocalDate.now();
+        try (FanOut fanOut = new FanOut()) {
+            FanOut.Part<List<ProjectResponseDTO>> projects = fanOut.fork(PROJECTS, timeout(PROJECTS), projectService::findAll);
+            List<String> lateProjects = new CopyOnWriteArrayList<>();
+            FanOut.Part<Map<Long, List<TaskResponseDTO>>> projectTasks = fanOut.fork(PROJECT_TASKS, timeout(PROJECT_TASKS),
+                    () -> projectTasks(projectIds != null && !projectIds.isEmpty() ? projectIds : firstProjects(projects), lateProjects));
+            FanOut.Part<List<TaskResponseDTO>> overdue = fanOut.fork(OVERDUE, timeout(OVERDUE),
+                    () -> taskService.openTasksDue(null, today, listLimit));
+            FanOut.Part<List<TaskResponseDTO>> dueThisWeek = fanOut.fork(DUE_THIS_WEEK, timeout(DUE_THIS_WEEK),
+                    () -> taskService.openTasksDue(today, today.plusDays(7), listLimit));
+            FanOut.Part<Map<Status, Long>> statusCounts = fanOut.fork(STATUS_COUNTS, timeout(STATUS_COUNTS),
+                    taskService::countByStatus);
+
+            DashboardDTO dashboard = new DashboardDTO(projects.join(), projectTasks.join(), overdue.join(),
+                    dueThisWeek.join(), statusCounts.join(), new ArrayList<>(fanOut.incomplete()));
+            dashboard.getIncomplete().addAll(lateProjects);
+            return dashboard;
+        }
+    }
+
+
+    // Waits for the projects section (its own deadline), none when it is left out
+    private List<Long> firstProjects(FanOut.Part<List<ProjectResponseDTO>> projects) {
+        List<ProjectResponseDTO> all = projects.join();
+        if (all == null) {
+            return List.of();
+        }
+        return all.stream().limit(projectLimit).map(ProjectResponseDTO::getId).toList();
+    }
+
+    /*  Upcoming tasks of every project, one virtual thread per project
+        a project that is late or fails is left out of the map and added to 'late' as "projectTasks/<id>"
+    */
+    private Map<Long, List<TaskResponseDTO>> projectTasks(List<Long> projectIds, List<String> late) {
+        Duration timeout = timeout(PROJECT_TASKS);
+        Map<Long, FanOut.Part<List<TaskResponseDTO>>> parts = new LinkedHashMap<>();
+        try (FanOut fanOut = new FanOut()) {
+            for (Long projectId : projectIds) {
+                Callable<List<TaskResponseDTO>> upcoming = () -> taskService.upcoming(tasksPerProject, projectId);
+                parts.put(projectId, fanOut.fork(PROJECT_TASKS + "/" + projectId, timeout, upcoming));
+            }
+            Map<Long, List<TaskResponseDTO>> tasks = new LinkedHashMap<>();
+            parts.forEach((projectId, part) -> {
+                List<TaskResponseDTO> upcoming = part.join();
+                if (upcoming != null) {
+                    tasks.put(projectId, upcoming);
+                }
+            });
+            late.addAll(fanOut.incomplete());
+            return tasks;
+        }
+    }
+
+    private Duration timeout(String section) {
+        String timeout = environment.getProperty("dashboard.timeouts." + section);
+        return timeout != null ? DurationStyle.detectAndParse(timeout) : sectionTimeout;
+    }
+}
@@ -0,0 +1,14 @@
+package com.portfolio.mytaskmanager.service;
+
+import com.portfolio.mytaskmanager.entity.Project;
+
+/*  Callback for components that keep their own copy of project data (name index...)
+    ProjectService calls it after every successful write
+*/
+public interface ProjectChangeListener {
+
+    // Project was created or updated, the given entity holds the current state
+    void onProjectSaved(Project project);
+
+    void onProjectDeleted(Long projectId);
+}
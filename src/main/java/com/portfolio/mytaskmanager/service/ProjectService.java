@@ -1,23 +1,60 @@
 package com.portfolio.mytaskmanager.service;
 
 
+import com.portfolio.mytaskmanager.audit.AuditLog;
+import com.portfolio.mytaskmanager.cache.SingleFlight;
+import com.portfolio.mytaskmanager.dto.AuditEventDTO;
 import com.portfolio.mytaskmanager.dto.ProjectRequestDTO;
 import com.portfolio.mytaskmanager.dto.ProjectResponseDTO;
+import com.portfolio.mytaskmanager.dto.ProjectSuggestionDTO;
+import com.portfolio.mytaskmanager.dto.TaskResponseDTO;
 import com.portfolio.mytaskmanager.entity.Project;
+import com.portfolio.mytaskmanager.index.ProjectNameIndex;
 import com.portfolio.mytaskmanager.repository.ProjectRepository;
+import com.portfolio.mytaskmanager.repository.TaskRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.util.List;
 
 @Service
-public class ProjectService {
+public class ProjectService implements MeterBinder {
 
     @Autowired
     private ProjectRepository repository;
 
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Deleting a project removes its tasks (cascade), task indexes have to forget them
+    @Autowired(required = false)
+    private List<TaskChangeListener> taskListeners = List.of();
+
+    // Copies of project data (name index for autocomplete...) refreshed after every write
+    @Autowired(required = false)
+    private List<ProjectChangeListener> projectListeners = List.of();
+
+    @Autowired(required = false)
+    private ProjectNameIndex nameIndex;
+
+    // Change history, deleting a project records a DELETED event for each of its tasks as well
+    @Autowired(required = false)
+    private AuditLog auditLog;
+
+    // Concurrent reads of the same project (a board opened by many clients) share one database call
+    private final SingleFlight<Long, ProjectResponseDTO> findByIdFlight = new SingleFlight<>("project.findById");
+
     public ProjectResponseDTO create(ProjectRequestDTO request){
         validate(request);
 
@@ -33,10 +70,17 @@ public class ProjectService {
                 .build();
 
         Project saved = repository.save(entity);
-        return toDto(saved);
+        projectListeners.forEach(l -> l.onProjectSaved(saved));
+        ProjectResponseDTO created = toDto(saved);
+        audit(saved.getId(), AuditEventDTO.Action.CREATED, null, created);
+        return created;
 
     }
 
+    /*  On the primary, not a replica: the list fills the project list snapshot (ProjectListCache) kept until the
+        next project write, a lagging replica would leave an old list there for good
+    */
+    @Transactional
     public List<ProjectResponseDTO> findAll() {
         return repository.findAll().stream().map(this::toDto).toList();
     }
@@ -46,6 +90,7 @@ public class ProjectService {
 
         Project project = repository.findById(id)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Project not found"));
+        ProjectResponseDTO before = toDto(project);
 
         project.setName(request.getName().trim());
         project.setDescription(request.getDescription());
@@ -53,22 +98,69 @@ public class ProjectService {
         project.setEndDate(request.getEndDate());
 
         Project saved = repository.save(project);
-        return  toDto(saved);
+        projectListeners.forEach(l -> l.onProjectSaved(saved));
+        ProjectResponseDTO updated = toDto(saved);
+        audit(id, AuditEventDTO.Action.UPDATED, before, updated);
+        return updated;
     }
 
 
+    // Not transactional itself: only the call that runs the load opens a transaction, the ones waiting hold no connection
     public ProjectResponseDTO findById(Long id) {
-        Project project = repository.findById(id)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Id not found"));
-        return toDto(project);
-
+        return findByIdFlight.execute(id, () -> readOnly(tx -> {
+            Project project = repository.findById(id)
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Id not found"));
+            return toDto(project);
+        }));
     }
 
     public void delete(Long id) {
         if(!repository.existsById(id)){
             throw new ResponseStatusException(HttpStatus.NOT_FOUND,"Not found for delete");
         }
+        ProjectResponseDTO before = null;
+        List<TaskResponseDTO> tasksBefore = List.of();
+        if (auditLog != null) {
+            before = repository.findById(id).map(this::toDto).orElse(null);
+            tasksBefore = taskRepository.findWithTagsByProjectId(id).stream().map(TaskResponseDTO::from).toList();
+        }
         repository.deleteById(id);
+        taskListeners.forEach(l -> l.onProjectDeleted(id));
+        projectListeners.forEach(l -> l.onProjectDeleted(id));
+        if (auditLog != null) {
+            // the cascade removed the tasks, their history ends with a deletion like after DELETE /api/tasks/{id}
+            tasksBefore.forEach(task -> auditLog.record("Task", task.getId(), AuditEventDTO.Action.DELETED, task, null));
+        }
+        audit(id, AuditEventDTO.Action.DELETED, before, null);
+    }
+
+    // Every change of the project oldest first, also of a deleted one
+    public List<AuditEventDTO> history(Long id) {
+        if (auditLog == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Audit history is disabled");
+        }
+        List<AuditEventDTO> events = auditLog.history("Project", id);
+        if (events.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No history for this project");
+        }
+        return events;
+    }
+
+    // Autocomplete for the project picker, answered from memory without touching the database
+    public List<ProjectSuggestionDTO> suggest(String prefix, int limit) {
+        if (limit < 1 || limit > 50) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Limit must be between 1 and 50");
+        }
+        if (nameIndex == null || !nameIndex.isLoaded()) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Project name index is still loading");
+        }
+        return nameIndex.suggest(prefix, limit);
+    }
+
+    // Exposes how many findById calls were coalesced (actuator metric singleflight.calls)
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        findByIdFlight.bindTo(registry);
     }
 
     private void validate(ProjectRequestDTO p){
@@ -80,6 +172,19 @@ public class ProjectService {
         }
     }
 
+    private <T> T readOnly(TransactionCallback<T> work) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        return transaction.execute(work);
+    }
+
+    // Project writes are not transactional here, the change is committed when record() is called
+    private void audit(Long id, AuditEventDTO.Action action, ProjectResponseDTO before, ProjectResponseDTO after) {
+        if (auditLog != null) {
+            auditLog.record("Project", id, action, before, after);
+        }
+    }
+
     private ProjectResponseDTO toDto(Project p){
         return new ProjectResponseDTO(
                 p.getId(),
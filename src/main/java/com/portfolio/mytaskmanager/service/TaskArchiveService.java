@@ -0,0 +1,104 @@
+package com.portfolio.mytaskmanager.service;
+
+
+import com.portfolio.mytaskmanager.audit.AuditLog;
+import com.portfolio.mytaskmanager.dto.AuditEventDTO;
+import com.portfolio.mytaskmanager.entity.Status;
+import com.portfolio.mytaskmanager.repository.ArchivedTaskRepository;
+import com.portfolio.mytaskmanager.repository.TaskRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/*  Moves old DONE/FAILED tasks from the "task" table into "task_archive"
+    runs in the background in small batches, every batch is its own short transaction
+    so the hot table is never locked for long and its size follows the active work
+*/
+@Service
+public class TaskArchiveService {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskArchiveService.class);
+
+    @Autowired
+    private TaskRepository repository;
+
+    @Autowired
+    private ArchivedTaskRepository archiveRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    // Archived tasks leave the hot table, the in-memory indexes treat them as deleted
+    @Autowired(required = false)
+    private List<TaskChangeListener> listeners = List.of();
+
+    // An archived task gets an ARCHIVED event without changes, its history stays readable
+    @Autowired(required = false)
+    private AuditLog auditLog;
+
+    @Value("${tasks.archive.enabled:true}")
+    private boolean enabled;
+
+    // How long a task has to be finished before it is archived
+    @Value("${tasks.archive.min-age:P30D}")
+    private Duration minAge;
+
+    @Value("${tasks.archive.batch-size:500}")
+    private int batchSize;
+
+    // Upper limit of batches in one run, the rest waits for the next run
+    @Value("${tasks.archive.max-batches-per-run:20}")
+    private int maxBatchesPerRun;
+
+
+    @Scheduled(initialDelayString = "${tasks.archive.initial-delay:PT5M}",
+               fixedDelayString = "${tasks.archive.interval:PT1H}")
+    public void scheduledRun() {
+        if (!enabled) {
+            return;
+        }
+        int archived = archiveFinishedTasks();
+        if (archived > 0) {
+            log.info("Archived {} finished tasks", archived);
+        }
+    }
+
+    // Returns the number of tasks moved to the archive
+    public int archiveFinishedTasks() {
+        transactionTemplate.executeWithoutResult(tx -> repository.backfillFinishedAt(Status.TERMINAL));
+
+        LocalDateTime cutoff = LocalDateTime.now().minus(minAge);
+        int total = 0;
+
+        for (int i = 0; i < maxBatchesPerRun; i++) {
+            List<Long> moved = transactionTemplate.execute(tx -> archiveBatch(cutoff));
+            moved.forEach(id -> listeners.forEach(l -> l.onTaskDeleted(id)));
+            if (auditLog != null) {
+                moved.forEach(id -> auditLog.record("Task", id, AuditEventDTO.Action.ARCHIVED, null, null));
+            }
+            total += moved.size();
+            if (moved.size() < batchSize) {
+                break;
+            }
+        }
+        return total;
+    }
+
+    private List<Long> archiveBatch(LocalDateTime cutoff) {
+        List<Long> ids = repository.findArchivableIds(Status.TERMINAL, cutoff, PageRequest.of(0, batchSize));
+        if (!ids.isEmpty()) {
+            archiveRepository.copyFromTasks(ids);
+            repository.deleteAllByIdInBatch(ids);
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,19 @@
+package com.portfolio.mytaskmanager.service;
+
+import com.portfolio.mytaskmanager.entity.Task;
+
+/*  Callback for components that keep their own copy of task data (in-memory indexes...)
+    TaskService calls it after every successful write, so implementations stay in sync without
+    querying the database again
+*/
+public interface TaskChangeListener {
+
+    // Task was created or updated, the given entity holds the current state
+    void onTaskSaved(Task task);
+
+    void onTaskDeleted(Long taskId);
+
+    // All tasks of the project were removed together with the project (cascade)
+    default void onProjectDeleted(Long projectId) {
+    }
+}
@@ -0,0 +1,196 @@
+package com.portfolio.mytaskmanager.service;
+
+
+import com.portfolio.mytaskmanager.dto.CriticalPathDTO;
+import com.portfolio.mytaskmanager.dto.TaskResponseDTO;
+import com.portfolio.mytaskmanager.entity.Project;
+import com.portfolio.mytaskmanager.entity.Task;
+import com.portfolio.mytaskmanager.entity.TaskDependency;
+import com.portfolio.mytaskmanager.index.DependencyGraph;
+import com.portfolio.mytaskmanager.repository.ProjectRepository;
+import com.portfolio.mytaskmanager.repository.TaskDependencyRepository;
+import com.portfolio.mytaskmanager.repository.TaskRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/*  "Blocked by" links between tasks of the same project and the project's critical path
+    every project has its own in-memory DependencyGraph, built from the database on first use
+    and then changed edge by edge - the topological order and earliest/latest finish days are
+    updated incrementally instead of recomputing the whole graph on every request
+*/
+@Service
+public class TaskDependencyService implements TaskChangeListener {
+
+    @Autowired
+    private TaskDependencyRepository dependencyRepository;
+
+    @Autowired
+    private TaskRepository repository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final Map<Long, DependencyGraph> graphs = new ConcurrentHashMap<>();
+
+    // Task ID -> project whose loaded graph contains the task
+    private final Map<Long, Long> projectOfTask = new ConcurrentHashMap<>();
+
+
+    @Transactional(readOnly = true)
+    public List<TaskResponseDTO> findBlockers(Long taskId) {
+        requireTask(taskId);
+        return dependencyRepository.findBlockers(taskId).stream().map(TaskResponseDTO::from).toList();
+    }
+
+    public void addBlocker(Long taskId, Long blockerId) {
+        Task task = requireTask(taskId);
+        Task blocker = requireTask(blockerId);
+
+        if (taskId.equals(blockerId)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Task cannot block itself");
+        }
+        Long projectId = task.getProject().getId();
+        if (!Objects.equals(projectId, blocker.getProject().getId())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Blocker must belong to the same project");
+        }
+
+        DependencyGraph graph = graphFor(projectId);
+        synchronized (graph) {
+            if (graph.wouldCreateCycle(blockerId, taskId)) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT, "Dependency would create a cycle");
+            }
+            if (dependencyRepository.existsByTaskIdAndBlockerId(taskId, blockerId)) {
+                return;
+            }
+            dependencyRepository.save(TaskDependency.builder().task(task).blocker(blocker).build());
+            graph.addEdge(blockerId, taskId);
+            projectOfTask.put(taskId, projectId);
+            projectOfTask.put(blockerId, projectId);
+        }
+    }
+
+    public void removeBlocker(Long taskId, Long blockerId) {
+        Task task = requireTask(taskId);
+        DependencyGraph graph = graphFor(task.getProject().getId());
+        synchronized (graph) {
+            Integer removed = transactionTemplate.execute(tx -> dependencyRepository.deleteEdge(taskId, blockerId));
+            if (removed == 0) {
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Dependency not found");
+            }
+            graph.removeEdge(blockerId, taskId);
+        }
+    }
+
+    /*  Longest chain of blocked tasks, counted from the project's startDate (today when not set)
+        latest finish and slack are counted back from endDate, they are null without an endDate
+    */
+    public CriticalPathDTO criticalPath(Long projectId) {
+        Project project = projectRepository.findById(projectId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Project not found"));
+        LocalDate start = project.getStartDate() != null ? project.getStartDate() : LocalDate.now();
+        LocalDate end = project.getEndDate();
+
+        DependencyGraph graph = graphFor(projectId);
+        List<Long> path;
+        int length;
+        Map<Long, int[]> days;
+        synchronized (graph) {
+            path = graph.criticalPath();
+            length = graph.longestChain();
+            days = path.stream().collect(Collectors.toMap(Function.identity(),
+                    id -> new int[]{graph.earliestFinish(id), graph.tail(id)}));
+        }
+
+        Map<Long, String> titles = repository.findAllById(path).stream()
+                .collect(Collectors.toMap(Task::getId, Task::getTitle));
+
+        List<CriticalPathDTO.CriticalTaskDTO> tasks = path.stream().map(id -> {
+            LocalDate earliestFinish = start.plusDays(days.get(id)[0] - 1L);
+            LocalDate latestFinish = end != null ? end.minusDays(days.get(id)[1] - 1L) : null;
+            Long slack = latestFinish != null ? ChronoUnit.DAYS.between(earliestFinish, latestFinish) : null;
+            return new CriticalPathDTO.CriticalTaskDTO(id, titles.get(id), earliestFinish, latestFinish, slack);
+        }).toList();
+
+        LocalDate earliestFinish = length > 0 ? start.plusDays(length - 1L) : null;
+        boolean onSchedule = end == null || earliestFinish == null || !earliestFinish.isAfter(end);
+        return new CriticalPathDTO(projectId, project.getStartDate(), end, length, earliestFinish, onSchedule, tasks);
+    }
+
+    public DependencyGraph graphFor(Long projectId) {
+        return graphs.computeIfAbsent(projectId, this::loadGraph);
+    }
+
+
+    /*  A task moved to another project loses its links, blocked-by only exists inside one project
+        the rows are deleted by TaskService.update in the move's transaction, here only the loaded graph follows
+    */
+    @Override
+    public void onTaskSaved(Task task) {
+        Long previousProject = projectOfTask.get(task.getId());
+        if (previousProject != null && task.getProject() != null
+                && !previousProject.equals(task.getProject().getId())) {
+            DependencyGraph graph = graphs.get(previousProject);
+            if (graph != null) {
+                synchronized (graph) {
+                    graph.removeNode(task.getId());
+                }
+            }
+            projectOfTask.remove(task.getId());
+        }
+    }
+
+    @Override
+    public void onTaskDeleted(Long taskId) {
+        Long projectId = projectOfTask.remove(taskId);
+        DependencyGraph graph = projectId != null ? graphs.get(projectId) : null;
+        if (graph != null) {
+            synchronized (graph) {
+                graph.removeNode(taskId);
+            }
+        }
+    }
+
+    @Override
+    public void onProjectDeleted(Long projectId) {
+        DependencyGraph graph = graphs.remove(projectId);
+        if (graph != null) {
+            synchronized (graph) {
+                graph.nodes().forEach(projectOfTask::remove);
+            }
+        }
+    }
+
+
+    private DependencyGraph loadGraph(Long projectId) {
+        List<long[]> edges = new ArrayList<>();
+        for (TaskDependencyRepository.Edge edge : dependencyRepository.findEdgesByProjectId(projectId)) {
+            edges.add(new long[]{edge.getBlockerId(), edge.getTaskId()});
+            projectOfTask.put(edge.getTaskId(), projectId);
+            projectOfTask.put(edge.getBlockerId(), projectId);
+        }
+        // rows are cycle free, every edge was checked before it was stored
+        return DependencyGraph.of(edges);
+    }
+
+    private Task requireTask(Long id) {
+        return repository.findById(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Task not found"));
+    }
+}
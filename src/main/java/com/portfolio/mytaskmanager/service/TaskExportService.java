@@ -0,0 +1,141 @@
+package com.portfolio.mytaskmanager.service;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.StreamWriteFeature;
+import com.fasterxml.jackson.core.io.SerializedString;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/*  Read path for big task lists (export): rows go from the JDBC result set straight into the JSON output
+    no Task entities (nothing enters a persistence context) and no TaskResponseDTOs are created,
+    the output has the same shape as the TaskResponseDTO list of GET /api/tasks
+
+    the rows are read with a fetch size, so the driver holds one chunk at a time (MySQL needs useCursorFetch=true),
+    one row per task tag ordered by task, a task is written when its last tag row has been seen
+*/
+@Service
+public class TaskExportService {
+
+    private static final String SELECT = "select t.id, t.title, t.description, t.due_date, t.status, "
+            + "t.project_id, t.parent_id, tt.tag from task t left join task_tag tt on tt.task_id = t.id";
+    private static final String ORDER = " order by t.id, tt.tag";
+
+    // Field names encoded once, written as ready UTF-8 bytes
+    private static final SerializableString ID = new SerializedString("id");
+    private static final SerializableString TITLE = new SerializedString("title");
+    private static final SerializableString DESCRIPTION = new SerializedString("description");
+    private static final SerializableString DUE_DATE = new SerializedString("dueDate");
+    private static final SerializableString STATUS = new SerializedString("status");
+    private static final SerializableString PROJECT_ID = new SerializedString("projectId");
+    private static final SerializableString PARENT_ID = new SerializedString("parentId");
+    private static final SerializableString TAGS = new SerializedString("tags");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${tasks.export.fetch-size:500}")
+    private int fetchSize;
+
+    // Thread safe and shared, generators created by it reuse their buffers (Jackson buffer recycling)
+    private final JsonFactory jsonFactory = JsonFactory.builder()
+            .disable(StreamWriteFeature.AUTO_CLOSE_TARGET)
+            .build();
+
+    // All tasks, or the tasks of one project, written as a JSON array into 'out' (not closed here)
+    public void writeTasks(Long projectId, OutputStream out) throws IOException {
+        String sql = projectId != null ? SELECT + " where t.project_id = ?" + ORDER : SELECT + ORDER;
+
+        try (JsonGenerator generator = jsonFactory.createGenerator(out, JsonEncoding.UTF8)) {
+            generator.writeStartArray();
+            jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                statement.setFetchSize(fetchSize);
+                if (projectId != null) {
+                    statement.setLong(1, projectId);
+                }
+                return statement;
+            }, (ResultSetExtractor<Void>) rs -> {
+                writeRows(rs, generator);
+                return null;
+            });
+            generator.writeEndArray();
+        } catch (UncheckedIOException e) {
+            // client went away while the rows were written
+            throw e.getCause();
+        }
+    }
+
+
+    private void writeRows(ResultSet rs, JsonGenerator generator) throws SQLException {
+        try {
+            boolean open = false;
+            long current = 0;
+            while (rs.next()) {
+                long id = rs.getLong(1);
+                if (!open || id != current) {
+                    if (open) {
+                        generator.writeEndArray();
+                        generator.writeEndObject();
+                    }
+                    writeTaskStart(rs, id, generator);
+                    current = id;
+                    open = true;
+                }
+                String tag = rs.getString(8);
+                if (tag != null) {
+                    generator.writeString(tag);
+                }
+            }
+            if (open) {
+                generator.writeEndArray();
+                generator.writeEndObject();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Every field up to the opening bracket of the tag list
+    private void writeTaskStart(ResultSet rs, long id, JsonGenerator generator) throws SQLException, IOException {
+        generator.writeStartObject();
+        generator.writeFieldName(ID);
+        generator.writeNumber(id);
+        generator.writeFieldName(TITLE);
+        generator.writeString(rs.getString(2));
+        generator.writeFieldName(DESCRIPTION);
+        generator.writeString(rs.getString(3));
+        // DATE columns come back as yyyy-MM-dd, the same text Jackson writes for LocalDate
+        generator.writeFieldName(DUE_DATE);
+        generator.writeString(rs.getString(4));
+        generator.writeFieldName(STATUS);
+        generator.writeString(rs.getString(5));
+        generator.writeFieldName(PROJECT_ID);
+        writeNullableLong(rs, 6, generator);
+        generator.writeFieldName(PARENT_ID);
+        writeNullableLong(rs, 7, generator);
+        generator.writeFieldName(TAGS);
+        generator.writeStartArray();
+    }
+
+    private static void writeNullableLong(ResultSet rs, int column, JsonGenerator generator) throws SQLException, IOException {
+        long value = rs.getLong(column);
+        if (rs.wasNull()) {
+            generator.writeNull();
+        } else {
+            generator.writeNumber(value);
+        }
+    }
+}
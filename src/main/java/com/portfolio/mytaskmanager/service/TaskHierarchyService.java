@@ -0,0 +1,93 @@
+package com.portfolio.mytaskmanager.service;
+
+
+import com.portfolio.mytaskmanager.dto.TaskResponseDTO;
+import com.portfolio.mytaskmanager.dto.TaskRollupDTO;
+import com.portfolio.mytaskmanager.entity.Status;
+import com.portfolio.mytaskmanager.entity.Task;
+import com.portfolio.mytaskmanager.repository.TaskClosureRepository;
+import com.portfolio.mytaskmanager.repository.TaskRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/*  Maintains the task_closure table next to Task.parent
+    create - the task gets a self row and inherits all ancestors of its parent
+    move   - links between the moved subtree and its old ancestors are replaced by links to the new ones
+    delete - closure rows go away with the task (ON DELETE CASCADE), tasks with subtasks cannot be deleted
+    tasks created before task_closure existed get their self row from the V5 migration
+    all methods run inside the caller's transaction (TaskService)
+*/
+@Service
+public class TaskHierarchyService {
+
+    @Autowired
+    private TaskClosureRepository closureRepository;
+
+    @Autowired
+    private TaskRepository repository;
+
+
+    @Transactional
+    public void attach(Task task) {
+        closureRepository.insertSelf(task.getId());
+        if (task.getParent() != null) {
+            closureRepository.insertUnderParent(task.getId(), task.getParent().getId());
+        }
+    }
+
+    // Called before the task's parent column is changed to newParent
+    @Transactional
+    public void move(Task task, Task newParent) {
+        if (newParent != null && closureRepository.existsByAncestorIdAndDescendantId(task.getId(), newParent.getId())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Task cannot be moved under itself or its subtask");
+        }
+
+        List<Long> subtree = closureRepository.findSubtreeIds(task.getId());
+        List<Long> oldAncestors = closureRepository.findAncestorIds(task.getId());
+        if (!oldAncestors.isEmpty()) {
+            closureRepository.deleteLinks(subtree, oldAncestors);
+        }
+        if (newParent != null) {
+            closureRepository.insertSubtreeUnderParent(task.getId(), newParent.getId());
+        }
+    }
+
+    public boolean hasSubtasks(Long id) {
+        return closureRepository.existsByAncestorIdAndDepthGreaterThan(id, 0);
+    }
+
+    // All tasks below the given one, closest levels first
+    public List<TaskResponseDTO> findSubtasks(Long id) {
+        requireTask(id);
+        return closureRepository.findDescendants(id).stream().map(TaskResponseDTO::from).toList();
+    }
+
+    public TaskRollupDTO rollup(Long id) {
+        requireTask(id);
+
+        Map<Status, Long> byStatus = new EnumMap<>(Status.class);
+        long total = 0;
+        for (TaskClosureRepository.StatusCount row : closureRepository.countSubtreeByStatus(id)) {
+            if (row.getStatus() != null) {
+                byStatus.put(row.getStatus(), row.getCount());
+            }
+            total += row.getCount();
+        }
+        long done = byStatus.getOrDefault(Status.DONE, 0L);
+        int percentDone = total == 0 ? 0 : (int) (done * 100 / total);
+        return new TaskRollupDTO(id, total, byStatus, percentDone);
+    }
+
+    private void requireTask(Long id) {
+        if (!repository.existsById(id)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Task not found");
+        }
+    }
+}
@@ -0,0 +1,328 @@
+package com.portfolio.mytaskmanager.service;
+
+import com.portfolio.mytaskmanager.audit.AuditLog;
+import com.portfolio.mytaskmanager.dto.IngestionStatusDTO;
+import com.portfolio.mytaskmanager.dto.TaskRequestDTO;
+import com.portfolio.mytaskmanager.profiling.QueueEvent;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/*  Write-behind task creation (POST /api/tasks with "Prefer: respond-async", when tasks.ingestion.enabled=true)
+    the request is validated at once and put into a bounded queue, the caller gets 202 and a tracking ID
+    one drainer thread takes the queued requests and writes them in batches, one transaction (one commit and
+    log flush) per batch instead of one per task: a batch is written when batch-size requests are waiting
+    or max-wait after its first request, whichever comes first
+
+    the queue is a ConcurrentLinkedQueue (CAS, no lock) bounded by a counter, a full queue is answered with 429
+    requests still queued when the application stops are written before it exits,
+    requests queued on an instance that crashes are lost - the tracking ID stays unknown to the client
+*/
+@Service
+public class TaskIngestionService implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskIngestionService.class);
+
+    private final TaskService taskService;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int capacity;
+    private final int batchSize;
+    private final Duration maxWait;
+    private final Duration statusTtl;
+    private final Clock clock;
+
+    private final ConcurrentLinkedQueue<Entry> queue = new ConcurrentLinkedQueue<>();
+    // Places taken in the queue, reserved before the offer so the bound holds without a lock
+    private final AtomicInteger queued = new AtomicInteger();
+
+    private final Map<String, IngestionStatusDTO> statuses = new ConcurrentHashMap<>();
+
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+
+    private volatile Thread drainer;
+    private volatile boolean running;
+    private long nextCleanup;
+
+    @Autowired
+    public TaskIngestionService(TaskService taskService, TransactionTemplate transactionTemplate,
+                                @Value("${tasks.ingestion.enabled:false}") boolean enabled,
+                                @Value("${tasks.ingestion.capacity:10000}") int capacity,
+                                @Value("${tasks.ingestion.batch-size:200}") int batchSize,
+                                @Value("${tasks.ingestion.max-wait:PT0.05S}") Duration maxWait,
+                                @Value("${tasks.ingestion.status-ttl:PT15M}") Duration statusTtl) {
+        this(taskService, transactionTemplate, enabled, capacity, batchSize, maxWait, statusTtl, Clock.systemUTC());
+    }
+
+    public TaskIngestionService(TaskService taskService, TransactionTemplate transactionTemplate, boolean enabled,
+                                int capacity, int batchSize, Duration maxWait, Duration statusTtl, Clock clock) {
+        this.taskService = taskService;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.maxWait = maxWait;
+        this.statusTtl = statusTtl;
+        this.clock = clock;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled || drainer != null) {
+            return;
+        }
+        running = true;
+        drainer = new Thread(this::drain, "task-ingestion");
+        drainer.setDaemon(true);
+        drainer.start();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /*  Validates and queues the request, null when the queue is full (the caller answers 429)
+        validation errors are thrown as for a synchronous create, checks needing the database
+        (project and parent exist) run when the batch is written and end in state FAILED
+    */
+    public IngestionStatusDTO submit(TaskRequestDTO request) {
+        taskService.validate(request);
+
+        if (queued.incrementAndGet() > capacity) {
+            queued.decrementAndGet();
+            rejected.increment();
+            QueueEvent.emit("task-ingestion", "reject", 1, capacity);
+            return null;
+        }
+        IngestionStatusDTO status = new IngestionStatusDTO(UUID.randomUUID().toString(),
+                IngestionStatusDTO.State.QUEUED, null, null, clock.instant());
+        statuses.put(status.getTrackingId(), status);
+        // the drainer thread has no request, the audit log gets who submitted it from here
+        queue.offer(new Entry(status, request, AuditLog.currentActor()));
+        accepted.increment();
+        QueueEvent.emit("task-ingestion", "enqueue", 1, queued.get());
+
+        Thread thread = drainer;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+        return status;
+    }
+
+    // Null for an unknown or expired tracking ID
+    public IngestionStatusDTO status(String trackingId) {
+        return statuses.get(trackingId);
+    }
+
+    public int queueSize() {
+        return queued.get();
+    }
+
+    public long batchCount() {
+        return batches.sum();
+    }
+
+    // Seconds a client should wait after a 429: about the time the drainer needs for a full queue
+    public long retryAfterSeconds() {
+        long batchesToDrain = (capacity + batchSize - 1) / batchSize;
+        return Math.max(1, TimeUnit.MILLISECONDS.toSeconds(batchesToDrain * maxWait.toMillis()));
+    }
+
+    // Writes whatever is queued right now, in batches (also when no drainer thread runs)
+    public void flush() {
+        List<Entry> batch;
+        while (!(batch = poll(batchSize)).isEmpty()) {
+            write(batch);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        Thread thread = drainer;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(30));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("tasks.ingestion.queue.size", queued, AtomicInteger::doubleValue)
+                .description("Task requests waiting to be written")
+                .register(registry);
+        FunctionCounter.builder("tasks.ingestion.requests", accepted, LongAdder::doubleValue)
+                .tag("result", "accepted")
+                .register(registry);
+        FunctionCounter.builder("tasks.ingestion.requests", rejected, LongAdder::doubleValue)
+                .tag("result", "rejected")
+                .description("Requests refused with 429 because the queue was full")
+                .register(registry);
+        FunctionCounter.builder("tasks.ingestion.batches", batches, LongAdder::doubleValue)
+                .description("Transactions written by the drainer")
+                .register(registry);
+    }
+
+
+    private void drain() {
+        while (running || !queue.isEmpty()) {
+            try {
+                List<Entry> batch = nextBatch();
+                if (!batch.isEmpty()) {
+                    write(batch);
+                }
+                removeExpiredStatuses();
+            } catch (RuntimeException e) {
+                log.error("Task ingestion drainer failed, continuing", e);
+            }
+        }
+    }
+
+    // Waits for the first request, then up to max-wait for the batch to fill
+    private List<Entry> nextBatch() {
+        while (running && queue.isEmpty()) {
+            LockSupport.parkNanos(TimeUnit.SECONDS.toNanos(1));
+            removeExpiredStatuses();
+        }
+        long deadline = System.nanoTime() + maxWait.toNanos();
+        while (running && queued.get() < batchSize) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                break;
+            }
+            LockSupport.parkNanos(Math.min(remaining, TimeUnit.MILLISECONDS.toNanos(1)));
+        }
+        return poll(batchSize);
+    }
+
+    private List<Entry> poll(int max) {
+        List<Entry> batch = new ArrayList<>(Math.min(max, 64));
+        Entry entry;
+        while (batch.size() < max && (entry = queue.poll()) != null) {
+            batch.add(entry);
+        }
+        queued.addAndGet(-batch.size());
+        return batch;
+    }
+
+    /*  One transaction for the batch, the outcome of each request is recorded only after the commit
+        when the batch as a whole fails (constraint violation, lost connection...) every request is
+        retried alone, so one bad row does not fail the others - but only when nothing was committed:
+        an error thrown after the commit (an after-commit listener...) leaves the tasks written, a retry would
+        write them twice
+    */
+    private void write(List<Entry> batch) {
+        QueueEvent event = new QueueEvent();
+        event.begin();
+        Map<TaskRequestDTO, Entry> entries = new IdentityHashMap<>();
+        batch.forEach(entry -> entries.put(entry.request(), entry));
+
+        List<IngestionStatusDTO> results = new ArrayList<>(batch.size());
+        AtomicBoolean committed = new AtomicBoolean();
+        try {
+            inTransaction(committed, () -> taskService.createAll(batch.stream().map(Entry::request).toList(),
+                    request -> entries.get(request).actor(),
+                    (request, created) -> results.add(finished(entries.get(request).status(), created.getId(), null)),
+                    (request, error) -> results.add(finished(entries.get(request).status(), null, error.getReason()))));
+            batches.increment();
+        } catch (RuntimeException e) {
+            if (committed.get()) {
+                log.warn("Batch of {} tasks committed, a step after the commit failed: {}", batch.size(), e.toString());
+                batches.increment();
+            } else {
+                log.warn("Batch of {} tasks failed, writing them one by one: {}", batch.size(), e.toString());
+                results.clear();
+                batch.forEach(entry -> results.add(writeAlone(entry)));
+            }
+        }
+        results.forEach(status -> statuses.put(status.getTrackingId(), status));
+        event.finish("task-ingestion", "batch", batch.size(), queued.get());
+    }
+
+    private IngestionStatusDTO writeAlone(Entry entry) {
+        AtomicBoolean committed = new AtomicBoolean();
+        IngestionStatusDTO[] result = new IngestionStatusDTO[1];
+        try {
+            inTransaction(committed, () -> taskService.createAll(List.of(entry.request()), request -> entry.actor(),
+                    (request, created) -> result[0] = finished(entry.status(), created.getId(), null),
+                    (request, error) -> result[0] = finished(entry.status(), null, error.getReason())));
+            batches.increment();
+            return result[0];
+        } catch (RuntimeException e) {
+            if (committed.get()) {
+                batches.increment();
+                return result[0];
+            }
+            log.warn("Queued task {} could not be written: {}", entry.status().getTrackingId(), e.toString());
+            return finished(entry.status(), null, "Task could not be saved");
+        }
+    }
+
+    // 'committed' is set once the transaction is over, also when an after-commit callback throws afterwards
+    private void inTransaction(AtomicBoolean committed, Runnable work) {
+        transactionTemplate.executeWithoutResult(tx -> {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    committed.set(status == STATUS_COMMITTED);
+                }
+            });
+            work.run();
+        });
+    }
+
+    private static IngestionStatusDTO finished(IngestionStatusDTO queued, Long taskId, String error) {
+        return new IngestionStatusDTO(queued.getTrackingId(),
+                taskId != null ? IngestionStatusDTO.State.CREATED : IngestionStatusDTO.State.FAILED,
+                taskId, error, queued.getAcceptedAt());
+    }
+
+    // Finished requests are kept status-ttl after they were accepted, queued ones until they are written
+    private void removeExpiredStatuses() {
+        long now = System.currentTimeMillis();
+        if (now < nextCleanup) {
+            return;
+        }
+        nextCleanup = now + 10_000;
+        Instant oldest = clock.instant().minus(statusTtl);
+        statuses.values().removeIf(status -> status.getState() != IngestionStatusDTO.State.QUEUED
+                && status.getAcceptedAt().isBefore(oldest));
+    }
+
+
+    private record Entry(IngestionStatusDTO status, TaskRequestDTO request, String actor) {
+    }
+}
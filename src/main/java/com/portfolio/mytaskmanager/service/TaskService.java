@@ -1,23 +1,57 @@
 package com.portfolio.mytaskmanager.service;
 
 
+import com.portfolio.mytaskmanager.audit.AuditLog;
+import com.portfolio.mytaskmanager.cache.SingleFlight;
+import com.portfolio.mytaskmanager.dto.AuditEventDTO;
+import com.portfolio.mytaskmanager.dto.CalendarDayDTO;
+import com.portfolio.mytaskmanager.dto.TagQueryResultDTO;
 import com.portfolio.mytaskmanager.dto.TaskRequestDTO;
 import com.portfolio.mytaskmanager.dto.TaskResponseDTO;
+import com.portfolio.mytaskmanager.dto.TaskRollupDTO;
+import com.portfolio.mytaskmanager.entity.ArchivedTask;
 import com.portfolio.mytaskmanager.entity.Project;
 import com.portfolio.mytaskmanager.entity.Status;
 import com.portfolio.mytaskmanager.entity.Task;
+import com.portfolio.mytaskmanager.index.TaskCalendarIndex;
+import com.portfolio.mytaskmanager.index.TaskSearchIndex;
+import com.portfolio.mytaskmanager.index.TaskTagIndex;
+import com.portfolio.mytaskmanager.index.UpcomingTaskIndex;
+import com.portfolio.mytaskmanager.repository.ArchivedTaskRepository;
 import com.portfolio.mytaskmanager.repository.ProjectRepository;
+import com.portfolio.mytaskmanager.repository.TaskDependencyRepository;
 import com.portfolio.mytaskmanager.repository.TaskRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.roaringbitmap.longlong.LongIterator;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
 
 @Service
-public class TaskService {
+public class TaskService implements MeterBinder {
 
     @Autowired
     private TaskRepository repository;
@@ -25,73 +59,407 @@ public class TaskService {
     @Autowired
     private ProjectRepository projectRepository;
 
+    @Autowired
+    private ArchivedTaskRepository archiveRepository;
+
+    @Autowired
+    private TaskDependencyRepository dependencyRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private TaskSearchIndex searchIndex;
+
+    @Autowired
+    private UpcomingTaskIndex upcomingIndex;
+
+    @Autowired
+    private TaskCalendarIndex calendarIndex;
+
+    @Autowired
+    private TaskTagIndex tagIndex;
+
+    @Autowired
+    private TaskHierarchyService hierarchy;
+
+    // In-memory indexes and other components notified after every task write
+    @Autowired(required = false)
+    private List<TaskChangeListener> listeners = List.of();
+
+    // Change history, null when no audit log is configured
+    @Autowired(required = false)
+    private AuditLog auditLog;
+
+    // Concurrent reads of the same task share one database call
+    private final SingleFlight<Long, TaskResponseDTO> findByIdFlight = new SingleFlight<>("task.findById");
+
+    @Transactional
     public TaskResponseDTO create(TaskRequestDTO request){
         validate(request);
+        return insert(request, null);
+    }
+
+    /*  Group commit for the ingestion queue: all requests are written in one transaction, one commit for the batch
+        a request failing its checks (project or parent not found...) is handed to 'onRejected' and skipped,
+        the others are handed to 'onCreated' - both before the commit, the caller applies them once this returns
+        'actorOf' gives who submitted each request, for the audit log (the batch is not written on their HTTP request)
+    */
+    @Transactional
+    public void createAll(List<TaskRequestDTO> requests,
+                          Function<TaskRequestDTO, String> actorOf,
+                          BiConsumer<TaskRequestDTO, TaskResponseDTO> onCreated,
+                          BiConsumer<TaskRequestDTO, ResponseStatusException> onRejected) {
+        for (TaskRequestDTO request : requests) {
+            TaskResponseDTO created;
+            try {
+                validate(request);
+                created = insert(request, actorOf.apply(request));
+            } catch (ResponseStatusException e) {
+                onRejected.accept(request, e);
+                continue;
+            }
+            onCreated.accept(request, created);
+        }
+    }
 
+    // actor: who asked for it, null for the current request
+    private TaskResponseDTO insert(TaskRequestDTO request, String actor) {
         Project project = projectRepository.findById(request.getProjectId())
                 .orElseThrow(()-> new ResponseStatusException(HttpStatus.NOT_FOUND, "Project not found"));
 
+        Task parent = findParent(request.getParentId(), project);
+
         Task entity = Task.builder()
                 .title(request.getTitle().trim())
                 .description(request.getDescription().trim())
                 .status(request.getStatus())
                 .dueDate(request.getDueDate())
                 .project(project)
+                .parent(parent)
+                .tags(normalizeTags(request.getTags()))
                 .build();
 
         Task saved = repository.save(entity);
-        return toDto(saved);
+        hierarchy.attach(saved);
+        afterCommit(() -> listeners.forEach(l -> l.onTaskSaved(saved)));
+        TaskResponseDTO created = toDto(saved);
+        audit(saved.getId(), AuditEventDTO.Action.CREATED, null, created, actor);
+        return created;
     }
 
+    @Transactional(readOnly = true)
     public List<TaskResponseDTO> findAll(){
         return repository.findAll().stream().map(this::toDto).toList();
     }
 
+    // Hot tasks only by default, archived ones are appended when explicitly requested
+    @Transactional(readOnly = true)
+    public List<TaskResponseDTO> findAll(boolean includeArchived){
+        List<TaskResponseDTO> result = findAll();
+        if (!includeArchived) {
+            return result;
+        }
+        List<TaskResponseDTO> all = new ArrayList<>(result);
+        archiveRepository.findAll().forEach(a -> all.add(toDto(a)));
+        return all;
+    }
+
+    // Not transactional itself: only the call that runs the load opens a transaction, the ones waiting hold no connection
     public TaskResponseDTO findById(Long id) {
-        Task task = repository.findById(id)
-                .orElseThrow(()-> new ResponseStatusException(HttpStatus.NOT_FOUND, "Task not found"));
-        return toDto(task);
+        return findByIdFlight.execute(id, () -> readOnly(tx -> {
+            Task task = repository.findById(id)
+                    .orElseThrow(()-> new ResponseStatusException(HttpStatus.NOT_FOUND, "Task not found"));
+            return toDto(task);
+        }));
     }
 
+    // Falls back to the archive when the task was already moved out of the hot table
+    public TaskResponseDTO findById(Long id, boolean includeArchived) {
+        if (!includeArchived) {
+            return findById(id);
+        }
+        return readOnly(tx -> repository.findById(id)
+                .map(this::toDto)
+                .or(() -> archiveRepository.findById(id).map(this::toDto))
+                .orElseThrow(()-> new ResponseStatusException(HttpStatus.NOT_FOUND, "Task not found")));
+    }
+
+    @Transactional
     public TaskResponseDTO update(Long id, TaskRequestDTO request) {
         validate(request);
 
         Task t = repository.findById(id)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Task not found"));
+        TaskResponseDTO before = auditLog != null ? toDto(t) : null;
 
         Project project = projectRepository.findById(request.getProjectId())
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Project not found"));
 
+        boolean projectChanged = t.getProject() != null && !Objects.equals(t.getProject().getId(), project.getId());
+        if (projectChanged && hierarchy.hasSubtasks(id)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Task with subtasks cannot move to another project");
+        }
+        if (projectChanged) {
+            // blocked-by only exists inside one project, the links go in this transaction with the move
+            dependencyRepository.deleteAllOfTask(id);
+        }
+
+        Task parent = findParent(request.getParentId(), project);
+        Long currentParentId = t.getParent() != null ? t.getParent().getId() : null;
+        if (!Objects.equals(currentParentId, request.getParentId())) {
+            hierarchy.move(t, parent);
+            t.setParent(parent);
+        }
+
         t.setTitle(request.getTitle().trim());
         t.setDescription(request.getDescription().trim());
         t.setDueDate(request.getDueDate());
         t.setStatus(request.getStatus() != null ? request.getStatus() : Status.TODO);
         t.setProject(project);
+        Set<String> tags = normalizeTags(request.getTags());
+        if (t.getTags() == null) {
+            t.setTags(tags);
+        } else if (!t.getTags().equals(tags)) {
+            // changed in place, Hibernate only writes the task_tag rows that differ
+            t.getTags().retainAll(tags);
+            t.getTags().addAll(tags);
+        }
 
         Task saved = repository.save(t);
-        return toDto(saved);
+        afterCommit(() -> listeners.forEach(l -> l.onTaskSaved(saved)));
+        TaskResponseDTO updated = toDto(saved);
+        audit(id, AuditEventDTO.Action.UPDATED, before, updated);
+        return updated;
     }
 
 
+    @Transactional
     public void delete(Long id) {
         if(!repository.existsById(id)){
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Task not found for delete");
         }
+        if (hierarchy.hasSubtasks(id)) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Task has subtasks, delete or move them first");
+        }
+        TaskResponseDTO before = auditLog != null ? repository.findById(id).map(this::toDto).orElse(null) : null;
         repository.deleteById(id);
+        afterCommit(() -> listeners.forEach(l -> l.onTaskDeleted(id)));
+        audit(id, AuditEventDTO.Action.DELETED, before, null);
+    }
+
+    // Every change of the task oldest first, also of a deleted or archived one
+    public List<AuditEventDTO> history(Long id) {
+        if (auditLog == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Audit history is disabled");
+        }
+        List<AuditEventDTO> events = auditLog.history("Task", id);
+        if (events.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No history for this task");
+        }
+        return events;
+    }
+
+    @Transactional(readOnly = true)
+    public List<TaskResponseDTO> findSubtasks(Long id) {
+        return hierarchy.findSubtasks(id);
+    }
+
+    @Transactional(readOnly = true)
+    public TaskRollupDTO rollup(Long id) {
+        return hierarchy.rollup(id);
+    }
+
+    /*  Full-text search over title and description, answered by the in-memory index
+        every word of the query is matched as a word prefix, best matches first
+    */
+    public List<TaskResponseDTO> search(String query, Status status, Long projectId, int limit) {
+        if (query == null || query.trim().isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Query cannot be blank");
+        }
+        if (limit < 1 || limit > 100) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Limit must be between 1 and 100");
+        }
+        if (!searchIndex.isLoaded()) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Search index is still loading");
+        }
+        return searchIndex.search(query, status, projectId, limit);
+    }
+
+    // Next open tasks by due date across all projects (or one project), served from memory
+    public List<TaskResponseDTO> upcoming(int limit, Long projectId) {
+        if (limit < 1 || limit > 100) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Limit must be between 1 and 100");
+        }
+        if (!upcomingIndex.isLoaded()) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Upcoming index is still loading");
+        }
+        return upcomingIndex.upcoming(limit, projectId);
+    }
+
+    // Open tasks due from 'from' until before 'to' (null: no bound) by due date, e.g. overdue = (null, today)
+    public List<TaskResponseDTO> openTasksDue(LocalDate from, LocalDate to, int limit) {
+        if (limit < 1 || limit > 100) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Limit must be between 1 and 100");
+        }
+        if (!upcomingIndex.isLoaded()) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Upcoming index is still loading");
+        }
+        return upcomingIndex.due(from, to, limit);
+    }
+
+    // Hot tasks per status, counted from the status bitmaps of the tag index
+    public Map<Status, Long> countByStatus() {
+        if (!tagIndex.isLoaded()) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Tag index is still loading");
+        }
+        return tagIndex.countByStatus();
+    }
+
+    /*  Tasks due between from and to grouped per day (only days with tasks are returned)
+        served from the in-memory day buckets, while they are still loading after startup
+        the same result is built from one query on the due_date index
+    */
+    public List<CalendarDayDTO> calendar(LocalDate from, LocalDate to, boolean includeTasks) {
+        if (from == null || to == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "From and to are required");
+        }
+        if (to.isBefore(from)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "To must not be before from");
+        }
+        if (ChronoUnit.DAYS.between(from, to) > 366) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Range cannot be longer than one year");
+        }
+        if (calendarIndex.isLoaded()) {
+            return calendarIndex.range(from, to, includeTasks);
+        }
+
+        Map<LocalDate, List<TaskResponseDTO>> byDay = new LinkedHashMap<>();
+        for (Task task : repository.findByDueDateBetweenOrderByDueDateAscIdAsc(from, to)) {
+            byDay.computeIfAbsent(task.getDueDate(), d -> new ArrayList<>()).add(toDto(task));
+        }
+        return byDay.entrySet().stream()
+                .map(e -> new CalendarDayDTO(e.getKey(), e.getValue().size(), includeTasks ? e.getValue() : null))
+                .toList();
+    }
+
+    /*  Task IDs matching a tag filter, e.g. all=bug,q3 & none=customer-x, answered by the bitmap index
+        ids are ascending and cut to 'limit', with includeTasks=true they are loaded with one IN query
+    */
+    @Transactional(readOnly = true)
+    public TagQueryResultDTO findByTags(Set<String> all, Set<String> any, Set<String> none,
+                                        Status status, Long projectId, boolean includeTasks, int limit) {
+        Set<String> allOf = normalizeTags(all);
+        Set<String> anyOf = normalizeTags(any);
+        Set<String> noneOf = normalizeTags(none);
+        if (allOf.isEmpty() && anyOf.isEmpty() && noneOf.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "At least one tag is required");
+        }
+        if (limit < 1 || limit > 1000) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Limit must be between 1 and 1000");
+        }
+        if (!tagIndex.isLoaded()) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Tag index is still loading");
+        }
+
+        Roaring64Bitmap matches = tagIndex.query(allOf, anyOf, noneOf, status, projectId);
+        List<Long> ids = new ArrayList<>();
+        LongIterator iterator = matches.getLongIterator();
+        while (iterator.hasNext() && ids.size() < limit) {
+            ids.add(iterator.next());
+        }
+
+        List<TaskResponseDTO> tasks = null;
+        if (includeTasks) {
+            tasks = repository.findAllById(ids).stream()
+                    .sorted(Comparator.comparing(Task::getId))
+                    .map(this::toDto)
+                    .toList();
+        }
+        return new TagQueryResultDTO(matches.getLongCardinality(), ids, tasks);
+    }
+
+    // Exposes how many findById calls were coalesced (actuator metric singleflight.calls)
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        findByIdFlight.bindTo(registry);
+    }
+
+    private Task findParent(Long parentId, Project project) {
+        if (parentId == null) {
+            return null;
+        }
+        Task parent = repository.findById(parentId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Parent task not found"));
+        if (parent.getProject() == null || !Objects.equals(parent.getProject().getId(), project.getId())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Parent task must belong to the same project");
+        }
+        return parent;
+    }
+
+    private <T> T readOnly(TransactionCallback<T> work) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        return transaction.execute(work);
+    }
+
+    // Listeners are called once the transaction commits, a rolled back write never reaches the indexes
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    // Recorded after the commit like the listener calls, with the snapshots taken inside the transaction
+    private void audit(Long id, AuditEventDTO.Action action, TaskResponseDTO before, TaskResponseDTO after) {
+        audit(id, action, before, after, null);
+    }
+
+    private void audit(Long id, AuditEventDTO.Action action, TaskResponseDTO before, TaskResponseDTO after, String actor) {
+        if (auditLog != null) {
+            afterCommit(() -> auditLog.record("Task", id, action, actor, before, after));
+        }
     }
 
     private TaskResponseDTO toDto(Task t){
+        return TaskResponseDTO.from(t);
+    }
+
+    private TaskResponseDTO toDto(ArchivedTask a){
         return new TaskResponseDTO(
-                t.getId(),
-                t.getTitle(),
-                t.getDescription(),
-                t.getDueDate(),
-                t.getStatus(),
-                t.getProject() != null ? t.getProject().getId() : null
+                a.getId(),
+                a.getTitle(),
+                a.getDescription(),
+                a.getDueDate(),
+                a.getStatus(),
+                a.getProject() != null ? a.getProject().getId() : null,
+                null,
+                List.of()
         );
     }
 
-    private void validate(TaskRequestDTO t) {
+    // Trimmed lower case tags, blank ones dropped ("Bug " and "bug" are the same tag)
+    private Set<String> normalizeTags(Set<String> tags) {
+        Set<String> normalized = new HashSet<>();
+        if (tags != null) {
+            for (String tag : tags) {
+                if (tag != null && !tag.isBlank()) {
+                    normalized.add(tag.trim().toLowerCase(Locale.ROOT));
+                }
+            }
+        }
+        return normalized;
+    }
+
+    // The checks of a create that need no database, run before a request is accepted
+    public void validate(TaskRequestDTO t) {
 
         if (t.getTitle() == null || t.getTitle().trim().isEmpty()) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Title cannot be blank");
@@ -0,0 +1,82 @@
+package com.portfolio.mytaskmanager.snapshot;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/*  One column of a snapshot table and how its values travel
+    every type except STRING is stored as a long (DATE as epoch day, TIMESTAMP as microseconds since 1970 without zone),
+    so the file format only knows two encodings
+*/
+record SnapshotColumn(String name, Type type) {
+
+    enum Type { LONG, INT, STRING, DATE, TIMESTAMP }
+
+    static SnapshotColumn of(String name, Type type) {
+        return new SnapshotColumn(name, type);
+    }
+
+    // The value of this column in the current row, null for SQL NULL
+    Object read(ResultSet rs, int index) throws SQLException {
+        return switch (type) {
+            case LONG -> {
+                long value = rs.getLong(index);
+                yield rs.wasNull() ? null : value;
+            }
+            case INT -> {
+                int value = rs.getInt(index);
+                yield rs.wasNull() ? null : value;
+            }
+            case STRING -> rs.getString(index);
+            case DATE -> rs.getObject(index, LocalDate.class);
+            case TIMESTAMP -> rs.getObject(index, LocalDateTime.class);
+        };
+    }
+
+    void bind(PreparedStatement statement, int index, Object value) throws SQLException {
+        if (value == null) {
+            statement.setNull(index, switch (type) {
+                case LONG -> Types.BIGINT;
+                case INT -> Types.INTEGER;
+                case STRING -> Types.VARCHAR;
+                case DATE -> Types.DATE;
+                case TIMESTAMP -> Types.TIMESTAMP;
+            });
+            return;
+        }
+        switch (type) {
+            case LONG -> statement.setLong(index, (Long) value);
+            case INT -> statement.setInt(index, (Integer) value);
+            case STRING -> statement.setString(index, (String) value);
+            case DATE, TIMESTAMP -> statement.setObject(index, value);
+        }
+    }
+
+    long toLong(Object value) {
+        return switch (type) {
+            case LONG -> (Long) value;
+            case INT -> (Integer) value;
+            case DATE -> ((LocalDate) value).toEpochDay();
+            case TIMESTAMP -> {
+                LocalDateTime time = (LocalDateTime) value;
+                yield time.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + time.getNano() / 1_000;
+            }
+            case STRING -> throw new IllegalStateException("STRING column " + name + " is not stored as a number");
+        };
+    }
+
+    Object fromLong(long value) {
+        return switch (type) {
+            case LONG -> value;
+            case INT -> (int) value;
+            case DATE -> LocalDate.ofEpochDay(value);
+            case TIMESTAMP -> LocalDateTime.ofEpochSecond(Math.floorDiv(value, 1_000_000),
+                    (int) Math.floorMod(value, 1_000_000) * 1_000, ZoneOffset.UTC);
+            case STRING -> throw new IllegalStateException("STRING column " + name + " is not stored as a number");
+        };
+    }
+}
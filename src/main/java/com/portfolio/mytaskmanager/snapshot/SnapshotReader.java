@@ -0,0 +1,159 @@
+package com.portfolio.mytaskmanager.snapshot;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+// Reads what SnapshotWriter wrote, one block at a time; a damaged or foreign file ends in an IOException
+class SnapshotReader {
+
+    private static final int MAX_STRING_BYTES = 16 * 1024 * 1024;
+
+    private final DataInputStream in;
+
+    private List<SnapshotColumn> columns;
+
+    SnapshotReader(InputStream source) throws IOException {
+        in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(source, 65536), 65536));
+        byte[] magic = new byte[SnapshotWriter.MAGIC.length];
+        in.readFully(magic);
+        if (!Arrays.equals(magic, SnapshotWriter.MAGIC)) {
+            throw new IOException("Not a task snapshot file");
+        }
+        int version = in.readInt();
+        if (version != SnapshotWriter.VERSION) {
+            throw new IOException("Unsupported snapshot version " + version);
+        }
+    }
+
+    // Name and columns of the next table, null after the last one
+    Table nextTable() throws IOException {
+        if (in.readByte() == 0) {
+            // reading up to the end lets gzip check its CRC and length trailer
+            if (in.read() != -1) {
+                throw new IOException("Data after the end of the snapshot");
+            }
+            return null;
+        }
+        String name = in.readUTF();
+        int count = readLength(64);
+        List<SnapshotColumn> tableColumns = new ArrayList<>(count);
+        SnapshotColumn.Type[] types = SnapshotColumn.Type.values();
+        for (int c = 0; c < count; c++) {
+            String column = in.readUTF();
+            int type = in.readUnsignedByte();
+            if (type >= types.length) {
+                throw new IOException("Unknown column type " + type + " of " + name + "." + column);
+            }
+            tableColumns.add(SnapshotColumn.of(column, types[type]));
+        }
+        columns = tableColumns;
+        return new Table(name, tableColumns);
+    }
+
+    // Values of the next block by column then row, null at the end of the table
+    Object[][] nextBlock() throws IOException {
+        int rows = readLength(SnapshotWriter.BLOCK_ROWS);
+        if (rows == 0) {
+            return null;
+        }
+        Object[][] block = new Object[columns.size()][];
+        for (int c = 0; c < columns.size(); c++) {
+            SnapshotColumn column = columns.get(c);
+            boolean[] isNull = readNulls(rows);
+            block[c] = column.type() == SnapshotColumn.Type.STRING
+                    ? readStrings(rows, isNull)
+                    : readNumbers(column, rows, isNull);
+        }
+        return block;
+    }
+
+
+    private boolean[] readNulls(int rows) throws IOException {
+        boolean[] isNull = new boolean[rows];
+        if (in.readByte() == 1) {
+            byte[] bitmap = new byte[(rows + 7) / 8];
+            in.readFully(bitmap);
+            for (int i = 0; i < rows; i++) {
+                isNull[i] = (bitmap[i >> 3] & (1 << (i & 7))) != 0;
+            }
+        }
+        return isNull;
+    }
+
+    private Object[] readNumbers(SnapshotColumn column, int rows, boolean[] isNull) throws IOException {
+        Object[] values = new Object[rows];
+        long previous = 0;
+        for (int i = 0; i < rows; i++) {
+            if (!isNull[i]) {
+                previous += unzigzag(readVarLong());
+                values[i] = column.fromLong(previous);
+            }
+        }
+        return values;
+    }
+
+    private Object[] readStrings(int rows, boolean[] isNull) throws IOException {
+        Object[] values = new Object[rows];
+        if (in.readByte() == 1) {
+            String[] dictionary = new String[readLength(rows)];
+            for (int d = 0; d < dictionary.length; d++) {
+                dictionary[d] = readString();
+            }
+            for (int i = 0; i < rows; i++) {
+                if (!isNull[i]) {
+                    int code = readLength(dictionary.length - 1);
+                    values[i] = dictionary[code];
+                }
+            }
+        } else {
+            for (int i = 0; i < rows; i++) {
+                if (!isNull[i]) {
+                    values[i] = readString();
+                }
+            }
+        }
+        return values;
+    }
+
+    private String readString() throws IOException {
+        byte[] bytes = new byte[readLength(MAX_STRING_BYTES)];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // A count or index read from the file, checked before it sizes an array
+    private int readLength(int max) throws IOException {
+        long value = readVarLong();
+        if (value < 0 || value > max) {
+            throw new IOException("Corrupt snapshot: " + value + " out of range");
+        }
+        return (int) value;
+    }
+
+    private long readVarLong() throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Corrupt snapshot: varint too long");
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+
+    record Table(String name, List<SnapshotColumn> columns) {
+    }
+}
@@ -0,0 +1,181 @@
+package com.portfolio.mytaskmanager.snapshot;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/*  Writes the snapshot file: gzip around a stream of tables, each table a header and blocks of up to BLOCK_ROWS rows
+    a block is stored column by column (all IDs, then all titles...), similar values next to each other
+    compress far better than whole rows, and numbers are written as varint deltas to the previous value
+    (ascending IDs cost one byte each), string columns with few distinct values (status, tags) as a dictionary
+
+    file:   magic "TMSNAP", int version, { byte 1, table }*, byte 0        (gzip adds a CRC-32 of everything)
+    table:  UTF name, varint column count, { UTF column name, byte type }*, { block }*, varint 0
+    block:  varint row count, { column }*
+    column: byte 0 | byte 1 + null bitmap, then the non-null values
+            numbers: zigzag varint deltas
+            strings: byte 0 + { varint length, UTF-8 bytes }* | byte 1 + varint size, dictionary strings, varint codes
+*/
+class SnapshotWriter {
+
+    static final byte[] MAGIC = "TMSNAP".getBytes(StandardCharsets.US_ASCII);
+    static final int VERSION = 1;
+    static final int BLOCK_ROWS = 4096;
+
+    private final GZIPOutputStream gzip;
+    private final DataOutputStream out;
+
+    private List<SnapshotColumn> columns;
+    private Object[][] block;
+    private int rows;
+
+    // 'target' is not closed, finish() completes the file
+    SnapshotWriter(OutputStream target) throws IOException {
+        gzip = new GZIPOutputStream(target, 65536);
+        out = new DataOutputStream(new BufferedOutputStream(gzip, 65536));
+        out.write(MAGIC);
+        out.writeInt(VERSION);
+    }
+
+    void startTable(String name, List<SnapshotColumn> tableColumns) throws IOException {
+        columns = tableColumns;
+        block = new Object[columns.size()][BLOCK_ROWS];
+        rows = 0;
+        out.writeByte(1);
+        out.writeUTF(name);
+        writeVarLong(columns.size());
+        for (SnapshotColumn column : columns) {
+            out.writeUTF(column.name());
+            out.writeByte(column.type().ordinal());
+        }
+    }
+
+    void addRow(Object[] values) throws IOException {
+        for (int c = 0; c < values.length; c++) {
+            block[c][rows] = values[c];
+        }
+        if (++rows == BLOCK_ROWS) {
+            writeBlock();
+        }
+    }
+
+    void endTable() throws IOException {
+        writeBlock();
+        writeVarLong(0);
+        block = null;
+    }
+
+    void finish() throws IOException {
+        out.writeByte(0);
+        out.flush();
+        gzip.finish();
+    }
+
+
+    private void writeBlock() throws IOException {
+        if (rows == 0) {
+            return;
+        }
+        writeVarLong(rows);
+        for (int c = 0; c < columns.size(); c++) {
+            Object[] values = block[c];
+            writeNulls(values);
+            if (columns.get(c).type() == SnapshotColumn.Type.STRING) {
+                writeStrings(values);
+            } else {
+                writeNumbers(columns.get(c), values);
+            }
+        }
+        for (Object[] values : block) {
+            Arrays.fill(values, 0, rows, null);
+        }
+        rows = 0;
+    }
+
+    private void writeNulls(Object[] values) throws IOException {
+        byte[] bitmap = null;
+        for (int i = 0; i < rows; i++) {
+            if (values[i] == null) {
+                if (bitmap == null) {
+                    bitmap = new byte[(rows + 7) / 8];
+                }
+                bitmap[i >> 3] |= (byte) (1 << (i & 7));
+            }
+        }
+        if (bitmap == null) {
+            out.writeByte(0);
+        } else {
+            out.writeByte(1);
+            out.write(bitmap);
+        }
+    }
+
+    private void writeNumbers(SnapshotColumn column, Object[] values) throws IOException {
+        long previous = 0;
+        for (int i = 0; i < rows; i++) {
+            if (values[i] != null) {
+                long value = column.toLong(values[i]);
+                writeVarLong(zigzag(value - previous));
+                previous = value;
+            }
+        }
+    }
+
+    private void writeStrings(Object[] values) throws IOException {
+        Map<String, Integer> dictionary = new HashMap<>();
+        int present = 0;
+        for (int i = 0; i < rows; i++) {
+            if (values[i] != null) {
+                dictionary.putIfAbsent((String) values[i], dictionary.size());
+                present++;
+            }
+        }
+        // a dictionary pays off when values repeat at least four times on average
+        if (dictionary.size() * 4 <= present) {
+            out.writeByte(1);
+            writeVarLong(dictionary.size());
+            String[] byCode = new String[dictionary.size()];
+            dictionary.forEach((value, code) -> byCode[code] = value);
+            for (String value : byCode) {
+                writeString(value);
+            }
+            for (int i = 0; i < rows; i++) {
+                if (values[i] != null) {
+                    writeVarLong(dictionary.get((String) values[i]));
+                }
+            }
+        } else {
+            out.writeByte(0);
+            for (int i = 0; i < rows; i++) {
+                if (values[i] != null) {
+                    writeString((String) values[i]);
+                }
+            }
+        }
+    }
+
+    private void writeString(String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(bytes.length);
+        out.write(bytes);
+    }
+
+    private void writeVarLong(long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+}
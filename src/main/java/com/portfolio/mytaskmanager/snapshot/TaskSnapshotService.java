@@ -0,0 +1,316 @@
+package com.portfolio.mytaskmanager.snapshot;
+
+import com.portfolio.mytaskmanager.cache.ProjectListCache;
+import com.portfolio.mytaskmanager.dto.SnapshotResultDTO;
+import com.portfolio.mytaskmanager.index.ProjectNameIndex;
+import com.portfolio.mytaskmanager.index.TaskIndexLoader;
+import com.portfolio.mytaskmanager.repository.ProjectRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static com.portfolio.mytaskmanager.snapshot.SnapshotColumn.Type.DATE;
+import static com.portfolio.mytaskmanager.snapshot.SnapshotColumn.Type.INT;
+import static com.portfolio.mytaskmanager.snapshot.SnapshotColumn.Type.LONG;
+import static com.portfolio.mytaskmanager.snapshot.SnapshotColumn.Type.STRING;
+import static com.portfolio.mytaskmanager.snapshot.SnapshotColumn.Type.TIMESTAMP;
+
+/*  Snapshot of all projects and tasks (with tags, hierarchy, dependencies and the archive) in one compact file,
+    and the restore of such a file into an empty database - for staging and load-test environments
+
+    the snapshot reads every table in one read-only REPEATABLE READ transaction (one consistent view of the data)
+    straight from the JDBC rows with a fetch size, nothing goes through Hibernate, see SnapshotWriter for the format
+    the restore inserts block by block with JDBC batches (MySQL needs rewriteBatchedStatements=true in the URL to
+    send a batch as one multi-row insert), all in one transaction, then moves the ID sequences past the restored IDs
+    and reloads the in-memory indexes and caches
+*/
+@Service
+public class TaskSnapshotService {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskSnapshotService.class);
+
+    // In insert order, a table only references the ones above it; name_upper of project is computed by the database
+    private static final List<SnapshotTable> TABLES = List.of(
+            new SnapshotTable("project", "id", true, null, List.of(
+                    SnapshotColumn.of("id", LONG),
+                    SnapshotColumn.of("name", STRING),
+                    SnapshotColumn.of("description", STRING),
+                    SnapshotColumn.of("start_date", DATE),
+                    SnapshotColumn.of("end_date", DATE))),
+            // parent_id is set after all tasks are in, a parent may have a higher ID than its subtask
+            new SnapshotTable("task", "id", true, "parent_id", List.of(
+                    SnapshotColumn.of("id", LONG),
+                    SnapshotColumn.of("title", STRING),
+                    SnapshotColumn.of("description", STRING),
+                    SnapshotColumn.of("status", STRING),
+                    SnapshotColumn.of("due_date", DATE),
+                    SnapshotColumn.of("finished_at", TIMESTAMP),
+                    SnapshotColumn.of("project_id", LONG),
+                    SnapshotColumn.of("parent_id", LONG))),
+            new SnapshotTable("task_tag", "task_id, tag", false, null, List.of(
+                    SnapshotColumn.of("task_id", LONG),
+                    SnapshotColumn.of("tag", STRING))),
+            new SnapshotTable("task_closure", "descendant_id, ancestor_id", false, null, List.of(
+                    SnapshotColumn.of("descendant_id", LONG),
+                    SnapshotColumn.of("ancestor_id", LONG),
+                    SnapshotColumn.of("depth", INT))),
+            new SnapshotTable("task_dependency", "id", true, null, List.of(
+                    SnapshotColumn.of("id", LONG),
+                    SnapshotColumn.of("task_id", LONG),
+                    SnapshotColumn.of("blocker_id", LONG))),
+            new SnapshotTable("task_archive", "id", false, null, List.of(
+                    SnapshotColumn.of("id", LONG),
+                    SnapshotColumn.of("title", STRING),
+                    SnapshotColumn.of("description", STRING),
+                    SnapshotColumn.of("status", STRING),
+                    SnapshotColumn.of("due_date", DATE),
+                    SnapshotColumn.of("finished_at", TIMESTAMP),
+                    SnapshotColumn.of("archived_at", TIMESTAMP),
+                    SnapshotColumn.of("project_id", LONG)))
+    );
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TaskIndexLoader indexLoader;
+
+    @Autowired(required = false)
+    private ProjectNameIndex nameIndex;
+
+    @Autowired(required = false)
+    private ProjectListCache projectListCache;
+
+    @Value("${snapshot.fetch-size:1000}")
+    private int fetchSize;
+
+
+    // Writes the snapshot into 'out' (not closed here)
+    public SnapshotResultDTO write(OutputStream out) throws IOException {
+        long start = System.currentTimeMillis();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        transaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+
+        SnapshotWriter writer = new SnapshotWriter(out);
+        Map<String, Long> rows = new LinkedHashMap<>();
+        try {
+            transaction.executeWithoutResult(tx -> TABLES.forEach(table -> rows.put(table.name(), writeTable(table, writer))));
+            writer.finish();
+        } catch (UncheckedIOException e) {
+            // client went away while the file was written
+            throw e.getCause();
+        }
+        long took = System.currentTimeMillis() - start;
+        log.info("Snapshot written in {} ms: {}", took, rows);
+        return new SnapshotResultDTO(rows, took);
+    }
+
+    // Restores a snapshot into a database without projects, all tables or none (one transaction)
+    public SnapshotResultDTO restore(InputStream in) {
+        Long projects = jdbcTemplate.queryForObject("select count(*) from project", Long.class);
+        if (projects != null && projects > 0) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Restore needs an empty database, found " + projects + " projects");
+        }
+
+        long start = System.currentTimeMillis();
+        Map<String, Long> rows;
+        try {
+            rows = new TransactionTemplate(transactionManager).execute(tx -> readTables(in));
+        } catch (UncheckedIOException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid snapshot: " + e.getCause().getMessage());
+        }
+
+        // DDL, commits on its own on MySQL - after the data is in
+        String database = jdbcTemplate.execute((ConnectionCallback<String>) c -> c.getMetaData().getDatabaseProductName());
+        TABLES.stream().filter(SnapshotTable::identity).forEach(table -> restartIdentity(database, table.name()));
+
+        indexLoader.reload();
+        if (nameIndex != null) {
+            nameIndex.load(projectRepository.findAll());
+        }
+        if (projectListCache != null) {
+            projectListCache.invalidate();
+        }
+        entityManagerFactory.getCache().evictAll();
+
+        long took = System.currentTimeMillis() - start;
+        log.info("Snapshot restored in {} ms: {}", took, rows);
+        return new SnapshotResultDTO(rows, took);
+    }
+
+
+    private long writeTable(SnapshotTable table, SnapshotWriter writer) {
+        String columns = table.columns().stream().map(SnapshotColumn::name).collect(Collectors.joining(", "));
+        String sql = "select " + columns + " from " + table.name() + " order by " + table.orderBy();
+        return jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            return statement;
+        }, (ResultSetExtractor<Long>) rs -> writeRows(table, rs, writer));
+    }
+
+    private long writeRows(SnapshotTable table, ResultSet rs, SnapshotWriter writer) throws SQLException {
+        List<SnapshotColumn> columns = table.columns();
+        long count = 0;
+        try {
+            writer.startTable(table.name(), columns);
+            while (rs.next()) {
+                Object[] values = new Object[columns.size()];
+                for (int c = 0; c < values.length; c++) {
+                    values[c] = columns.get(c).read(rs, c + 1);
+                }
+                writer.addRow(values);
+                count++;
+            }
+            writer.endTable();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return count;
+    }
+
+    private Map<String, Long> readTables(InputStream in) {
+        Map<String, Long> rows = new LinkedHashMap<>();
+        try {
+            SnapshotReader reader = new SnapshotReader(in);
+            SnapshotReader.Table header;
+            while ((header = reader.nextTable()) != null) {
+                SnapshotTable table = table(header);
+                rows.put(table.name(), insertTable(table, reader));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return rows;
+    }
+
+    // Known table with the same columns as in this version, in the same order
+    private static SnapshotTable table(SnapshotReader.Table header) throws IOException {
+        for (SnapshotTable table : TABLES) {
+            if (table.name().equals(header.name())) {
+                if (!table.columns().equals(header.columns())) {
+                    throw new IOException("Columns of " + header.name() + " do not match this version");
+                }
+                return table;
+            }
+        }
+        throw new IOException("Unknown table " + header.name());
+    }
+
+    private long insertTable(SnapshotTable table, SnapshotReader reader) throws IOException {
+        List<SnapshotColumn> columns = table.columns();
+        String sql = "insert into " + table.name()
+                + " (" + columns.stream().map(SnapshotColumn::name).collect(Collectors.joining(", ")) + ")"
+                + " values (" + columns.stream().map(c -> "?").collect(Collectors.joining(", ")) + ")";
+        int deferred = table.deferredColumn() != null ? indexOf(columns, table.deferredColumn()) : -1;
+        List<Object[]> deferredValues = new ArrayList<>();
+
+        long count = 0;
+        Object[][] block;
+        while ((block = reader.nextBlock()) != null) {
+            Object[][] values = block;
+            int size = values[0].length;
+            jdbcTemplate.batchUpdate(sql, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int row) throws SQLException {
+                    for (int c = 0; c < columns.size(); c++) {
+                        columns.get(c).bind(ps, c + 1, c == deferred ? null : values[c][row]);
+                    }
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return size;
+                }
+            });
+            if (deferred >= 0) {
+                for (int row = 0; row < size; row++) {
+                    if (values[deferred][row] != null) {
+                        deferredValues.add(new Object[]{values[deferred][row], values[0][row]});
+                    }
+                }
+            }
+            count += size;
+        }
+
+        if (!deferredValues.isEmpty()) {
+            jdbcTemplate.batchUpdate("update " + table.name() + " set " + table.deferredColumn() + " = ? where "
+                    + columns.get(0).name() + " = ?", deferredValues);
+        }
+        return count;
+    }
+
+    /*  Next generated ID after the highest restored one
+        an archived task keeps its task ID, so task IDs also continue after the archive's (a new task must not take
+        the ID of an archived one)
+    */
+    private void restartIdentity(String database, String table) {
+        long next = maxId(table) + 1;
+        if ("task".equals(table)) {
+            next = Math.max(next, maxId("task_archive") + 1);
+        }
+        if ("MySQL".equalsIgnoreCase(database)) {
+            jdbcTemplate.execute("alter table " + table + " auto_increment = " + next);
+        } else {
+            jdbcTemplate.execute("alter table " + table + " alter column id restart with " + next);
+        }
+    }
+
+    private long maxId(String table) {
+        Long max = jdbcTemplate.queryForObject("select max(id) from " + table, Long.class);
+        return max != null ? max : 0;
+    }
+
+    private static int indexOf(List<SnapshotColumn> columns, String name) {
+        for (int c = 0; c < columns.size(); c++) {
+            if (columns.get(c).name().equals(name)) {
+                return c;
+            }
+        }
+        throw new IllegalStateException("No column " + name);
+    }
+
+
+    /*  orderBy - rows in the file follow it (ascending IDs compress best)
+        identity - the table's id is generated, its sequence is restarted after a restore
+        deferredColumn - self reference inserted as null and set once all rows exist
+    */
+    private record SnapshotTable(String name, String orderBy, boolean identity, String deferredColumn,
+                                 List<SnapshotColumn> columns) {
+    }
+}
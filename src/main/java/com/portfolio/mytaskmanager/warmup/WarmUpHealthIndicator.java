@@ -0,0 +1,29 @@
+package com.portfolio.mytaskmanager.warmup;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/*  "warmUp" health contributor, part of the readiness group (management.endpoint.health.group.readiness)
+    OUT_OF_SERVICE until the warm-up is finished, so /actuator/health/readiness answers 503 and the
+    load balancer keeps the new instance out of rotation meanwhile
+*/
+@Component
+public class WarmUpHealthIndicator implements HealthIndicator {
+
+    @Autowired
+    private WarmUpService warmUp;
+
+    @Override
+    public Health health() {
+        Health.Builder builder = warmUp.getState() == WarmUpService.State.DONE ? Health.up() : Health.outOfService();
+        return builder
+                .withDetail("state", warmUp.getState())
+                .withDetail("connections", warmUp.getConnections())
+                .withDetail("requests", warmUp.getRequests())
+                .withDetail("failedRequests", warmUp.getFailedRequests())
+                .withDetail("tookMillis", warmUp.getTookMillis())
+                .build();
+    }
+}
@@ -0,0 +1,244 @@
+package com.portfolio.mytaskmanager.warmup;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.web.context.WebServerInitializedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+
+import javax.sql.DataSource;
+import java.net.URI;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*  Warm-up phase after a start, the instance reports ready (/actuator/health/readiness) only when it is done
+    1. every connection of the pool is opened (no connection setup on the first requests)
+    2. the read endpoints in warmup.paths are called over HTTP on this instance, concurrently and round after round,
+       with IDs of existing projects and tasks: the JIT compiles the whole request path (MVC, Jackson, Hibernate),
+       the project list snapshot and the second-level cache of the sampled projects are filled
+    stops after warmup.rounds rounds or when warmup.budget is used up, whichever comes first
+    only GET requests are sent, nothing is written; failed requests (404 on a path...) are counted and skipped
+
+    it starts when Spring Boot switches to ACCEPTING_TRAFFIC, after the in-memory indexes were loaded
+*/
+@Component
+public class WarmUpService {
+
+    private static final Logger log = LoggerFactory.getLogger(WarmUpService.class);
+
+    public enum State { PENDING, RUNNING, DONE }
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${warmup.enabled:true}")
+    private boolean enabled;
+
+    @Value("${warmup.budget:PT60S}")
+    private Duration budget;
+
+    @Value("${warmup.rounds:200}")
+    private int rounds;
+
+    @Value("${warmup.concurrency:4}")
+    private int concurrency;
+
+    // How many project and task IDs the {projectId} / {taskId} paths rotate through
+    @Value("${warmup.sample-size:20}")
+    private int sampleSize;
+
+    @Value("${warmup.paths:/api/projects}")
+    private List<String> paths;
+
+    private final AtomicBoolean started = new AtomicBoolean();
+
+    private volatile State state = State.PENDING;
+    private volatile int port = -1;
+
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicInteger failedRequests = new AtomicInteger();
+    private volatile int connections;
+    private volatile long tookMillis;
+
+
+    @EventListener
+    public void onWebServerInitialized(WebServerInitializedEvent event) {
+        if (event.getApplicationContext().getServerNamespace() == null) {
+            port = event.getWebServer().getPort();
+        }
+    }
+
+    @EventListener
+    public void onReadinessChanged(AvailabilityChangeEvent<ReadinessState> event) {
+        if (event.getState() != ReadinessState.ACCEPTING_TRAFFIC || !started.compareAndSet(false, true)) {
+            return;
+        }
+        if (!enabled) {
+            state = State.DONE;
+            return;
+        }
+        state = State.RUNNING;
+        Thread thread = new Thread(this::run, "warm-up");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public void run() {
+        long start = System.currentTimeMillis();
+        long deadline = start + budget.toMillis();
+        try {
+            connections = prefillConnectionPool();
+            if (port > 0) {
+                callEndpoints(deadline);
+            }
+        } catch (RuntimeException e) {
+            // never keeps the instance out of service, it only starts cold
+            log.warn("Warm-up stopped early: {}", e.toString());
+        } finally {
+            tookMillis = System.currentTimeMillis() - start;
+            state = State.DONE;
+            log.info("Warm-up done in {} ms: {} connections opened, {} requests ({} failed)",
+                    tookMillis, connections, requests.get(), failedRequests.get());
+        }
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public int getRequests() {
+        return requests.get();
+    }
+
+    public int getFailedRequests() {
+        return failedRequests.get();
+    }
+
+    public int getConnections() {
+        return connections;
+    }
+
+    public long getTookMillis() {
+        return tookMillis;
+    }
+
+
+    // Opens as many connections as the pool may hold at the same time, then gives them all back
+    private int prefillConnectionPool() {
+        DataSource pool = dataSource;
+        int size = concurrency;
+        try {
+            // behind the read/write routing proxy the primary Hikari pool
+            if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                HikariDataSource hikari = dataSource.unwrap(HikariDataSource.class);
+                pool = hikari;
+                size = hikari.getMaximumPoolSize();
+            }
+        } catch (SQLException e) {
+            log.debug("No Hikari pool behind the data source: {}", e.toString());
+        }
+
+        List<Connection> held = new ArrayList<>(size);
+        try {
+            for (int i = 0; i < size; i++) {
+                Connection connection = pool.getConnection();
+                held.add(connection);
+                connection.isValid(1);
+            }
+        } catch (SQLException e) {
+            log.warn("Warm-up opened {} of {} connections: {}", held.size(), size, e.toString());
+        } finally {
+            for (Connection connection : held) {
+                try {
+                    connection.close();
+                } catch (SQLException e) {
+                    log.debug("Closing warm-up connection failed: {}", e.toString());
+                }
+            }
+        }
+        return held.size();
+    }
+
+    private void callEndpoints(long deadline) {
+        List<Long> projectIds = jdbcTemplate.queryForList("select id from project order by id limit ?", Long.class, sampleSize);
+        List<Long> taskIds = jdbcTemplate.queryForList("select id from task order by id limit ?", Long.class, sampleSize);
+
+        List<String> requestPaths = new ArrayList<>();
+        for (int round = 0; round < rounds; round++) {
+            for (String path : paths) {
+                String resolved = resolve(path.trim(), round, projectIds, taskIds);
+                if (resolved != null) {
+                    requestPaths.add(resolved);
+                }
+            }
+        }
+
+        RestClient client = RestClient.create();
+        String base = "http://localhost:" + port;
+        AtomicInteger next = new AtomicInteger();
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            workers.execute(() -> {
+                int index;
+                while (System.currentTimeMillis() < deadline && (index = next.getAndIncrement()) < requestPaths.size()) {
+                    call(client, base + requestPaths.get(index));
+                }
+            });
+        }
+        workers.shutdown();
+        try {
+            workers.awaitTermination(Math.max(0, deadline - System.currentTimeMillis()) + 5_000, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        workers.shutdownNow();
+    }
+
+    private void call(RestClient client, String url) {
+        requests.incrementAndGet();
+        try {
+            client.get().uri(URI.create(url)).retrieve().toBodilessEntity();
+        } catch (RuntimeException e) {
+            failedRequests.incrementAndGet();
+            log.debug("Warm-up request {} failed: {}", url, e.toString());
+        }
+    }
+
+    // Fills in the placeholders, null when the path needs an ID and there is none in the database
+    private static String resolve(String path, int round, List<Long> projectIds, List<Long> taskIds) {
+        if (path.contains("{projectId}")) {
+            if (projectIds.isEmpty()) {
+                return null;
+            }
+            path = path.replace("{projectId}", String.valueOf(projectIds.get(round % projectIds.size())));
+        }
+        if (path.contains("{taskId}")) {
+            if (taskIds.isEmpty()) {
+                return null;
+            }
+            path = path.replace("{taskId}", String.valueOf(taskIds.get(round % taskIds.size())));
+        }
+        LocalDate today = LocalDate.now();
+        return path.replace("{today}", today.toString())
+                .replace("{nextMonth}", today.plusMonths(1).toString());
+    }
+}
@@ -0,0 +1,98 @@
+-- Same tables as mysql/V2__task_tables.sql
+
+alter table task add column finished_at timestamp(6);
+alter table task add column parent_id bigint;
+
+create table task_archive (
+    due_date date,
+    archived_at timestamp(6),
+    finished_at timestamp(6),
+    id bigint not null,
+    project_id bigint not null,
+    title varchar(100) not null,
+    description varchar(1000) not null,
+    status enum ('DELAYED','DONE','FAILED','IN_PROGRESS','TODO'),
+    primary key (id)
+);
+
+create table task_closure (
+    depth integer not null,
+    ancestor_id bigint not null,
+    descendant_id bigint not null,
+    primary key (ancestor_id, descendant_id)
+);
+
+create table task_dependency (
+    blocker_id bigint not null,
+    id bigint generated by default as identity,
+    task_id bigint not null,
+    primary key (id),
+    constraint uk_task_dependency unique (task_id, blocker_id)
+);
+
+create table task_tag (
+    task_id bigint not null,
+    tag varchar(50) not null,
+    primary key (task_id, tag)
+);
+
+create index idx_task_status_finished_at
+   on task (status, finished_at);
+
+create index idx_task_due_date
+   on task (due_date);
+
+create index idx_task_archive_project_id
+   on task_archive (project_id);
+
+create index idx_task_closure_descendant
+   on task_closure (descendant_id, ancestor_id);
+
+create index idx_task_dependency_blocker
+   on task_dependency (blocker_id);
+
+create index idx_task_tag_tag
+   on task_tag (tag);
+
+alter table if exists task
+   add constraint FK82ogu5quub0bhyuhp25riy7pf
+   foreign key (parent_id)
+   references task
+   on delete set null;
+
+
+alter table if exists task_archive
+   add constraint FK7ph9gdxo2h80ulw12gmv2xnhj
+   foreign key (project_id)
+   references project
+   on delete cascade;
+
+alter table if exists task_closure
+   add constraint FK1c4ag4fiuppomi0t8lx7fvgt2
+   foreign key (ancestor_id)
+   references task
+   on delete cascade;
+
+alter table if exists task_closure
+   add constraint FK609d09ip2k1pw846m4ncj8nhw
+   foreign key (descendant_id)
+   references task
+   on delete cascade;
+
+alter table if exists task_dependency
+   add constraint FK1c2pnpnceajqymy2j7oagelev
+   foreign key (blocker_id)
+   references task
+   on delete cascade;
+
+alter table if exists task_dependency
+   add constraint FKhql7htvb4qmd7xyaee6b51ogr
+   foreign key (task_id)
+   references task
+   on delete cascade;
+
+alter table if exists task_tag
+   add constraint FKmnb6mkxwtvkg1utqig0ps56ne
+   foreign key (task_id)
+   references task
+   on delete cascade;
@@ -0,0 +1,6 @@
+-- Same indexes as mysql/V3__query_indexes.sql, H2 has no online DDL options
+
+CREATE INDEX idx_task_project_id ON task (project_id);
+
+ALTER TABLE project ADD COLUMN name_upper VARCHAR(255) GENERATED ALWAYS AS (UPPER(name));
+CREATE INDEX idx_project_name_upper ON project (name_upper);
@@ -0,0 +1,12 @@
+-- Same table as mysql/V4__audit_event.sql
+
+create table audit_event (
+    seq bigint not null,
+    entity_type varchar(20) not null,
+    entity_id bigint not null,
+    occurred_at timestamp(3) not null,
+    payload clob not null,
+    primary key (seq)
+);
+
+create index idx_audit_event_entity on audit_event (entity_type, entity_id, seq);
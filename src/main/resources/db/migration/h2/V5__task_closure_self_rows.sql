@@ -0,0 +1,5 @@
+-- Same rows as mysql/V5__task_closure_self_rows.sql
+
+insert into task_closure (ancestor_id, descendant_id, depth)
+select t.id, t.id, 0 from task t
+where not exists (select 1 from task_closure c where c.descendant_id = t.id and c.depth = 0);
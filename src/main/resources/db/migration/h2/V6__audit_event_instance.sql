@@ -0,0 +1,5 @@
+-- Same key as mysql/V6__audit_event_instance.sql, H2 has no online DDL options
+
+ALTER TABLE audit_event ADD COLUMN instance_id VARCHAR(36) DEFAULT '' NOT NULL BEFORE seq;
+ALTER TABLE audit_event DROP PRIMARY KEY;
+ALTER TABLE audit_event ADD PRIMARY KEY (instance_id, seq);
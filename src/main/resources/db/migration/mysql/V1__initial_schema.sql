@@ -0,0 +1,27 @@
+-- Schema of the released version, as Hibernate created it (ddl-auto=update) before the switch to migrations
+-- existing databases are baselined at this version (spring.flyway.baseline-on-migrate), new ones run it;
+-- everything added since goes into the later scripts, so a baselined database gets it too
+
+create table project (
+    end_date date,
+    start_date date,
+    id bigint not null auto_increment,
+    description varchar(255),
+    name varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+create table task (
+    due_date date,
+    id bigint not null auto_increment,
+    project_id bigint not null,
+    title varchar(100) not null,
+    description varchar(1000) not null,
+    status enum ('DELAYED','DONE','FAILED','IN_PROGRESS','TODO'),
+    primary key (id)
+) engine=InnoDB;
+
+alter table task
+   add constraint FKk8qrwowg31kx7hp93sru1pdqa
+   foreign key (project_id)
+   references project (id);
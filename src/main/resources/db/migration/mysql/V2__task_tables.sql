@@ -0,0 +1,102 @@
+-- Columns and tables of the task features added after the released schema (V1): finish time, subtasks
+-- (parent_id and the closure table), archive, dependencies and tags, with their indexes and foreign keys
+
+alter table task
+    add column finished_at datetime(6),
+    add column parent_id bigint;
+
+create table task_archive (
+    due_date date,
+    archived_at datetime(6),
+    finished_at datetime(6),
+    id bigint not null,
+    project_id bigint not null,
+    title varchar(100) not null,
+    description varchar(1000) not null,
+    status enum ('DELAYED','DONE','FAILED','IN_PROGRESS','TODO'),
+    primary key (id)
+) engine=InnoDB;
+
+create table task_closure (
+    depth integer not null,
+    ancestor_id bigint not null,
+    descendant_id bigint not null,
+    primary key (ancestor_id, descendant_id)
+) engine=InnoDB;
+
+create table task_dependency (
+    blocker_id bigint not null,
+    id bigint not null auto_increment,
+    task_id bigint not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table task_tag (
+    task_id bigint not null,
+    tag varchar(50) not null,
+    primary key (task_id, tag)
+) engine=InnoDB;
+
+create index idx_task_status_finished_at
+   on task (status, finished_at);
+
+create index idx_task_due_date
+   on task (due_date);
+
+create index idx_task_archive_project_id
+   on task_archive (project_id);
+
+create index idx_task_closure_descendant
+   on task_closure (descendant_id, ancestor_id);
+
+create index idx_task_dependency_blocker
+   on task_dependency (blocker_id);
+
+alter table task_dependency
+   add constraint uk_task_dependency unique (task_id, blocker_id);
+
+create index idx_task_tag_tag
+   on task_tag (tag);
+
+alter table task
+   add constraint FK82ogu5quub0bhyuhp25riy7pf
+   foreign key (parent_id)
+   references task (id)
+   on delete set null;
+
+
+alter table task_archive
+   add constraint FK7ph9gdxo2h80ulw12gmv2xnhj
+   foreign key (project_id)
+   references project (id)
+   on delete cascade;
+
+alter table task_closure
+   add constraint FK1c4ag4fiuppomi0t8lx7fvgt2
+   foreign key (ancestor_id)
+   references task (id)
+   on delete cascade;
+
+alter table task_closure
+   add constraint FK609d09ip2k1pw846m4ncj8nhw
+   foreign key (descendant_id)
+   references task (id)
+   on delete cascade;
+
+alter table task_dependency
+   add constraint FK1c2pnpnceajqymy2j7oagelev
+   foreign key (blocker_id)
+   references task (id)
+   on delete cascade;
+
+alter table task_dependency
+   add constraint FKhql7htvb4qmd7xyaee6b51ogr
+   foreign key (task_id)
+   references task (id)
+   on delete cascade;
+
+alter table task_tag
+   add constraint FKmnb6mkxwtvkg1utqig0ps56ne
+   foreign key (task_id)
+   references task (id)
+   on delete cascade;
@@ -0,0 +1,17 @@
+-- Indexes for the project scoped task queries and the case-insensitive project name check
+--
+-- every statement is an online DDL: ALGORITHM=INPLACE, LOCK=NONE builds the index while reads and writes
+-- continue, and makes MySQL fail at once instead of falling back to a table copy with a write lock
+-- (for tables too big even for that, run the same ALTER through gh-ost / pt-online-schema-change
+-- and mark the version as applied)
+--
+-- task.status is already covered: it is the leading column of idx_task_status_finished_at,
+-- a separate index would only slow down every write
+
+-- replaces the index MySQL created implicitly for the project foreign key
+ALTER TABLE task ADD INDEX idx_task_project_id (project_id), ALGORITHM=INPLACE, LOCK=NONE;
+
+-- ProjectRepository.existsByNameIgnoreCase compares upper(name): a virtual column with the same
+-- expression lets the optimizer use its index for that predicate, nothing is stored in the rows
+ALTER TABLE project ADD COLUMN name_upper VARCHAR(255) AS (UPPER(name)) VIRTUAL, ALGORITHM=INPLACE, LOCK=NONE;
+ALTER TABLE project ADD INDEX idx_project_name_upper (name_upper), ALGORITHM=INPLACE, LOCK=NONE;
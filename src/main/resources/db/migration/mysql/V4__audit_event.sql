@@ -0,0 +1,13 @@
+-- Long-term store of the audit history, filled by the compaction of the audit log segments (AuditLog)
+-- seq is the position in the log, the whole event is kept as JSON in payload
+
+create table audit_event (
+    seq bigint not null,
+    entity_type varchar(20) not null,
+    entity_id bigint not null,
+    occurred_at datetime(3) not null,
+    payload text not null,
+    primary key (seq)
+) engine=InnoDB;
+
+create index idx_audit_event_entity on audit_event (entity_type, entity_id, seq);
@@ -0,0 +1,8 @@
+-- Tasks from before task_closure existed (the released V1 schema, or a baselined ddl-auto=update database)
+-- have no self row (id, id, 0):
+-- without it a subtask created under such a task gets no link to it, and moving the task inserts nothing
+-- the insert only adds missing rows, it may run on a database where every task has its row already
+
+insert into task_closure (ancestor_id, descendant_id, depth)
+select t.id, t.id, 0 from task t
+where not exists (select 1 from task_closure c where c.descendant_id = t.id and c.depth = 0);
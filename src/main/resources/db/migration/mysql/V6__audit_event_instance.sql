@@ -0,0 +1,10 @@
+-- Every instance numbers its audit records on its own, so seq alone is not unique once several instances
+-- write to the table: the key becomes (instance_id, seq), rows written before this script keep instance_id ''
+--
+-- adding a column and replacing the primary key in the same statement is an in-place online DDL
+
+ALTER TABLE audit_event
+    ADD COLUMN instance_id VARCHAR(36) NOT NULL DEFAULT '' FIRST,
+    DROP PRIMARY KEY,
+    ADD PRIMARY KEY (instance_id, seq),
+    ALGORITHM=INPLACE, LOCK=NONE;
@@ -0,0 +1,272 @@
+package com.portfolio.mytaskmanager;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.portfolio.mytaskmanager.audit.AuditCompactor;
+import com.portfolio.mytaskmanager.audit.AuditLog;
+import com.portfolio.mytaskmanager.dto.AuditEventDTO;
+import com.portfolio.mytaskmanager.dto.IngestionStatusDTO;
+import com.portfolio.mytaskmanager.dto.TaskRequestDTO;
+import com.portfolio.mytaskmanager.dto.TaskResponseDTO;
+import com.portfolio.mytaskmanager.entity.Project;
+import com.portfolio.mytaskmanager.entity.Status;
+import com.portfolio.mytaskmanager.repository.ProjectRepository;
+import com.portfolio.mytaskmanager.service.ProjectService;
+import com.portfolio.mytaskmanager.service.TaskIngestionService;
+import com.portfolio.mytaskmanager.service.TaskService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ComponentScan(basePackageClasses = {TaskService.class, com.portfolio.mytaskmanager.index.TaskIndex.class, AuditLog.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class AuditLogTest {
+
+    @DynamicPropertySource
+    static void auditDirectory(DynamicPropertyRegistry registry) throws IOException {
+        Path directory = Files.createTempDirectory("audit-test");
+        registry.add("audit.directory", directory::toString);
+    }
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private ProjectService projectService;
+
+    @Autowired
+    private AuditLog auditLog;
+
+    @Autowired
+    private TaskIngestionService ingestionService;
+
+    @Autowired
+    private AuditCompactor compactor;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Project project;
+
+    @BeforeEach
+    void setUp() {
+        project = projectRepository.save(Project.builder().name("Audit").description("x").build());
+    }
+
+    @AfterEach
+    void cleanUp() {
+        projectRepository.deleteAll();
+        jdbcTemplate.update("delete from audit_event");
+    }
+
+
+                                    // ====== HISTORY ======
+
+    @Test
+    void history_whenTaskCreatedUpdatedAndDeleted_thenEveryChangeWithOldAndNewValues() {
+
+        TaskResponseDTO task = taskService.create(request("Write report", Status.TODO));
+        taskService.update(task.getId(), request("Write final report", Status.IN_PROGRESS));
+        taskService.delete(task.getId());
+        auditLog.flush();
+
+        List<AuditEventDTO> history = auditLog.history("Task", task.getId());
+
+        assertThat(history).extracting(AuditEventDTO::getAction).containsExactly(
+                AuditEventDTO.Action.CREATED, AuditEventDTO.Action.UPDATED, AuditEventDTO.Action.DELETED);
+        assertThat(history).extracting(AuditEventDTO::getActor).containsOnly("system");
+        assertThat(history.get(0).getChanges().get("title").getNewValue()).isEqualTo("Write report");
+
+        AuditEventDTO update = history.get(1);
+        assertThat(update.getChanges()).containsOnlyKeys("title", "description", "status");
+        assertThat(update.getChanges().get("title").getOldValue()).isEqualTo("Write report");
+        assertThat(update.getChanges().get("title").getNewValue()).isEqualTo("Write final report");
+        assertThat(update.getChanges().get("status").getNewValue()).isEqualTo("IN_PROGRESS");
+
+        assertThat(history.get(2).getChanges().get("title").getOldValue()).isEqualTo("Write final report");
+    }
+
+    @Test
+    void history_whenProjectDeleted_thenEachOfItsTasksEndsWithDeleted() {
+
+        TaskResponseDTO first = taskService.create(request("First", Status.TODO));
+        TaskResponseDTO second = taskService.create(request("Second", Status.DONE));
+
+        projectService.delete(project.getId());
+        auditLog.flush();
+
+        for (TaskResponseDTO task : List.of(first, second)) {
+            List<AuditEventDTO> history = auditLog.history("Task", task.getId());
+            assertThat(history).extracting(AuditEventDTO::getAction)
+                    .containsExactly(AuditEventDTO.Action.CREATED, AuditEventDTO.Action.DELETED);
+            assertThat(history.get(1).getChanges().get("title").getOldValue()).isEqualTo(task.getTitle());
+        }
+        assertThat(auditLog.history("Project", project.getId()))
+                .extracting(AuditEventDTO::getAction).endsWith(AuditEventDTO.Action.DELETED);
+    }
+
+    @Test
+    void history_whenTaskIngested_thenActorIsWhoSubmittedIt() {
+
+        MockHttpServletRequest http = new MockHttpServletRequest();
+        http.addHeader("X-User", "alice");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(http));
+        IngestionStatusDTO queued;
+        try {
+            queued = ingestionService.submit(request("Queued", Status.TODO));
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+
+        // written outside of the request, as the drainer thread does
+        ingestionService.flush();
+        auditLog.flush();
+
+        Long taskId = ingestionService.status(queued.getTrackingId()).getTaskId();
+        assertThat(auditLog.history("Task", taskId)).extracting(AuditEventDTO::getActor).containsExactly("alice");
+    }
+
+    @Test
+    void history_whenNotYetWritten_thenReadFromTheBuffer() {
+
+        TaskResponseDTO task = taskService.create(request("Buffered", Status.TODO));
+
+        // no flush: the event is either still buffered or already appended, both are read
+        assertThat(auditLog.history("Task", task.getId())).hasSize(1);
+    }
+
+
+                                    // ====== COMPACTION ======
+
+    @Test
+    void compact_whenSegmentsClosed_thenEventsMovedToTableAndHistoryUnchanged() {
+
+        TaskResponseDTO task = taskService.create(request("Compacted", Status.TODO));
+        taskService.update(task.getId(), request("Compacted", Status.DONE));
+        auditLog.flush();
+        List<AuditEventDTO> before = auditLog.history("Task", task.getId());
+
+        int moved = compactor.compact();
+
+        assertThat(moved).isGreaterThanOrEqualTo(2);
+        assertThat(jdbcTemplate.queryForObject("select count(*) from audit_event where entity_type = 'Task' and entity_id = ?",
+                Integer.class, task.getId())).isEqualTo(2);
+        assertThat(auditLog.history("Task", task.getId())).isEqualTo(before);
+
+        // compacting again finds nothing new and doubles nothing
+        compactor.compact();
+        assertThat(auditLog.history("Task", task.getId())).hasSize(2);
+    }
+
+    @Test
+    void compact_whenAnotherInstanceUsedTheSameSeq_thenItsRowIsKept() {
+
+        TaskResponseDTO task = taskService.create(request("Ours", Status.TODO));
+        auditLog.flush();
+        long seq = auditLog.history("Task", task.getId()).get(0).getSeq();
+        // the row another instance compacted with the same seq number
+        jdbcTemplate.update("insert into audit_event (instance_id, seq, entity_type, entity_id, occurred_at, payload) "
+                + "values ('other', ?, 'Task', 999999, current_timestamp, '{}')", seq);
+
+        compactor.compact();
+
+        assertThat(jdbcTemplate.queryForObject("select count(*) from audit_event where seq = ?", Integer.class, seq)).isEqualTo(2);
+        assertThat(jdbcTemplate.queryForObject("select entity_id from audit_event where instance_id = 'other' and seq = ?",
+                Long.class, seq)).isEqualTo(999999L);
+        assertThat(auditLog.history("Task", task.getId())).hasSize(1);
+    }
+
+
+
+                                    // ====== RECOVERY ======
+
+    @Test
+    void start_whenSegmentsLeftByLastRun_thenIndexRebuiltAndSeqContinues(@TempDir Path directory) {
+
+        AuditLog first = newLog(directory);
+        first.start();
+        first.record("Task", 7L, AuditEventDTO.Action.CREATED, null, Map.of("title", "A"));
+        first.record("Task", 7L, AuditEventDTO.Action.UPDATED, Map.of("title", "A"), Map.of("title", "B"));
+        first.stop();
+
+        AuditLog second = newLog(directory);
+        second.start();
+        try {
+            second.record("Task", 7L, AuditEventDTO.Action.DELETED, Map.of("title", "B"), null);
+            second.flush();
+
+            assertThat(second.history("Task", 7L))
+                    .extracting(AuditEventDTO::getAction)
+                    .containsExactly(AuditEventDTO.Action.CREATED, AuditEventDTO.Action.UPDATED, AuditEventDTO.Action.DELETED);
+            assertThat(second.history("Task", 7L))
+                    .extracting(AuditEventDTO::getSeq)
+                    .doesNotHaveDuplicates();
+        } finally {
+            second.stop();
+        }
+    }
+
+    @Test
+    void append_whenSegmentFull_thenNextSegmentStarted(@TempDir Path directory) throws IOException {
+
+        AuditLog log = newLog(directory);
+        log.start();
+        try {
+            for (int i = 0; i < 50; i++) {
+                log.record("Task", 8L, AuditEventDTO.Action.UPDATED, Map.of("title", "Old " + i), Map.of("title", "New " + i));
+            }
+            log.flush();
+
+            try (Stream<Path> files = Files.list(directory)) {
+                assertThat(files.filter(f -> f.getFileName().toString().startsWith("segment-"))).hasSizeGreaterThan(1);
+            }
+            assertThat(log.history("Task", 8L)).hasSize(50);
+        } finally {
+            log.stop();
+        }
+    }
+
+
+    // Small segments (a few records each) so the tests see them roll over
+    private AuditLog newLog(Path directory) {
+        ObjectMapper mapper = Jackson2ObjectMapperBuilder.json().featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+        return new AuditLog(mapper, jdbcTemplate, true, directory, DataSize.ofKilobytes(2), 1000, Duration.ofMillis(100));
+    }
+
+    private TaskRequestDTO request(String title, Status status) {
+        TaskRequestDTO request = new TaskRequestDTO();
+        request.setTitle(title);
+        request.setDescription(title + " description");
+        request.setStatus(status);
+        request.setProjectId(project.getId());
+        return request;
+    }
+}
@@ -0,0 +1,122 @@
+package com.portfolio.mytaskmanager;
+
+import com.portfolio.mytaskmanager.dto.DashboardDTO;
+import com.portfolio.mytaskmanager.dto.ProjectResponseDTO;
+import com.portfolio.mytaskmanager.dto.TaskResponseDTO;
+import com.portfolio.mytaskmanager.entity.Status;
+import com.portfolio.mytaskmanager.service.DashboardService;
+import com.portfolio.mytaskmanager.service.ProjectService;
+import com.portfolio.mytaskmanager.service.TaskService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class DashboardServiceTest {
+
+    @Mock
+    private ProjectService projectService;
+
+    @Mock
+    private TaskService taskService;
+
+    @InjectMocks
+    private DashboardService service;
+
+    private final MockEnvironment environment = new MockEnvironment();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(service, "environment", environment);
+        ReflectionTestUtils.setField(service, "sectionTimeout", Duration.ofSeconds(2));
+        ReflectionTestUtils.setField(service, "projectLimit", 5);
+        ReflectionTestUtils.setField(service, "tasksPerProject", 10);
+        ReflectionTestUtils.setField(service, "listLimit", 20);
+    }
+
+
+                                    // ====== SECTIONS ======
+
+    @Test
+    void dashboard_whenSectionsAreSlow_thenTotalTimeIsTheSlowestNotTheSum() {
+
+        LocalDate today = LocalDate.now();
+        TaskResponseDTO overdue = task(1L);
+        TaskResponseDTO dueSoon = task(2L);
+        TaskResponseDTO upcoming = task(3L);
+        when(projectService.findAll()).thenAnswer(inv -> slow(300, List.of(project(7L))));
+        when(taskService.upcoming(10, 7L)).thenAnswer(inv -> slow(300, List.of(upcoming)));
+        when(taskService.openTasksDue(isNull(), eq(today), eq(20))).thenAnswer(inv -> slow(300, List.of(overdue)));
+        when(taskService.openTasksDue(today, today.plusDays(7), 20)).thenAnswer(inv -> slow(300, List.of(dueSoon)));
+        when(taskService.countByStatus()).thenAnswer(inv -> slow(300, Map.of(Status.TODO, 3L)));
+
+        long start = System.nanoTime();
+        DashboardDTO dashboard = service.dashboard(null);
+        long millis = (System.nanoTime() - start) / 1_000_000;
+
+        assertThat(dashboard.getProjects()).extracting(ProjectResponseDTO::getId).containsExactly(7L);
+        assertThat(dashboard.getProjectTasks()).containsExactly(Map.entry(7L, List.of(upcoming)));
+        assertThat(dashboard.getOverdue()).containsExactly(overdue);
+        assertThat(dashboard.getDueThisWeek()).containsExactly(dueSoon);
+        assertThat(dashboard.getStatusCounts()).containsEntry(Status.TODO, 3L);
+        assertThat(dashboard.getIncomplete()).isEmpty();
+        // five sections of 300ms: projects and then the project tasks (600ms), not 1500ms one after the other
+        assertThat(millis).isLessThan(1200);
+    }
+
+    @Test
+    void dashboard_whenSectionTimesOutOrFails_thenLeftOutAndOthersReturned() {
+
+        environment.setProperty("dashboard.timeouts.statusCounts", "PT0.2S");
+        when(taskService.upcoming(anyInt(), any())).thenReturn(List.of());
+        when(taskService.openTasksDue(any(), any(), anyInt())).thenReturn(List.of(task(1L)));
+        when(taskService.countByStatus()).thenAnswer(inv -> slow(5000, Map.of()));
+        when(projectService.findAll()).thenThrow(new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE));
+
+        long start = System.nanoTime();
+        DashboardDTO dashboard = service.dashboard(List.of(1L, 2L));
+        long millis = (System.nanoTime() - start) / 1_000_000;
+
+        assertThat(dashboard.getStatusCounts()).isNull();
+        assertThat(dashboard.getProjects()).isNull();
+        assertThat(dashboard.getIncomplete()).containsExactlyInAnyOrder("projects", "statusCounts");
+        // requested projects do not wait for the project list
+        assertThat(dashboard.getProjectTasks()).containsOnlyKeys(1L, 2L);
+        assertThat(dashboard.getOverdue()).hasSize(1);
+        assertThat(dashboard.getDueThisWeek()).hasSize(1);
+        assertThat(millis).isLessThan(2000);
+    }
+
+
+    private static <T> T slow(long millis, T result) throws InterruptedException {
+        Thread.sleep(millis);
+        return result;
+    }
+
+    private static ProjectResponseDTO project(Long id) {
+        return new ProjectResponseDTO(id, "Project " + id, "x", null, null);
+    }
+
+    private static TaskResponseDTO task(Long id) {
+        return new TaskResponseDTO(id, "Task " + id, "x", LocalDate.now(), Status.TODO, 7L, null, List.of());
+    }
+}
@@ -0,0 +1,261 @@
+package com.portfolio.mytaskmanager;
+
+import com.portfolio.mytaskmanager.resilience.CircuitBreaker;
+import com.portfolio.mytaskmanager.resilience.DegradationGuard;
+import com.portfolio.mytaskmanager.resilience.WriteGuardInterceptor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class DegradationGuardTest {
+
+    private final MutableClock clock = new MutableClock();
+
+    private final CircuitBreaker breaker = new CircuitBreaker(3, Duration.ofSeconds(10), clock);
+
+    private final DegradationGuard guard = new DegradationGuard(true, Duration.ofMillis(200), Duration.ofMinutes(10),
+            100, breaker, 4, clock);
+
+    @AfterEach
+    void tearDown() {
+        guard.shutdown();
+    }
+
+
+                                    // ====== STALE READS ======
+
+    @Test
+    void serve_whenDatabaseHealthy_thenFreshResponseWithoutWarning() {
+
+        ResponseEntity<String> response = guard.serve("/api/projects", () -> "fresh");
+
+        assertThat(response.getBody()).isEqualTo("fresh");
+        assertThat(response.getHeaders().containsKey("Warning")).isFalse();
+    }
+
+    @Test
+    void serve_whenDatabaseFails_thenLastGoodResponseWithAgeAndWarning() {
+
+        guard.serve("/api/projects", () -> "v1");
+        clock.advance(Duration.ofSeconds(42));
+
+        ResponseEntity<String> response = guard.serve("/api/projects", () -> {
+            throw new DataAccessResourceFailureException("connection refused");
+        });
+
+        assertThat(response.getBody()).isEqualTo("v1");
+        assertThat(response.getHeaders().getFirst(HttpHeaders.AGE)).isEqualTo("42");
+        assertThat(response.getHeaders().getFirst("Warning")).startsWith("111");
+    }
+
+    @Test
+    void serve_whenDatabaseSlow_thenStaleNowAndRefreshedInBackground() throws Exception {
+
+        guard.serve("/api/projects", () -> "v1");
+        CountDownLatch release = new CountDownLatch(1);
+
+        ResponseEntity<String> response = guard.serve("/api/projects", () -> {
+            await(release);
+            return "v2";
+        });
+
+        assertThat(response.getBody()).isEqualTo("v1");
+        assertThat(response.getHeaders().getFirst("Warning")).startsWith("110");
+
+        // the slow call finishes in the background and becomes the new last good answer
+        release.countDown();
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (System.currentTimeMillis() < deadline) {
+            if ("v2".equals(guard.serve("/api/projects", () -> {
+                throw new DataAccessResourceFailureException("down");
+            }).getBody())) {
+                return;
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("snapshot was not refreshed");
+    }
+
+    @Test
+    void serve_whenNotFound_thenErrorPassedThroughAndSnapshotDropped() {
+
+        guard.serve("/api/tasks/1", () -> "task 1");
+
+        assertThatThrownBy(() -> guard.serve("/api/tasks/1", () -> {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND);
+        })).isInstanceOf(ResponseStatusException.class);
+
+        assertThatThrownBy(() -> guard.serve("/api/tasks/1", () -> {
+            throw new DataAccessResourceFailureException("down");
+        })).isInstanceOf(DataAccessResourceFailureException.class);
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+
+                                    // ====== CIRCUIT ======
+
+    @Test
+    void serve_whenCircuitOpen_thenNoDatabaseCallsAndStaleOr503() {
+
+        guard.serve("/api/projects", () -> "v1");
+        AtomicInteger calls = new AtomicInteger();
+        for (int i = 0; i < 3; i++) {
+            guard.serve("/api/projects", () -> {
+                calls.incrementAndGet();
+                throw new DataAccessResourceFailureException("down");
+            });
+        }
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+
+        ResponseEntity<String> response = guard.serve("/api/projects", () -> {
+            calls.incrementAndGet();
+            return "v2";
+        });
+
+        assertThat(response.getBody()).isEqualTo("v1");
+        assertThat(calls.get()).isEqualTo(3);
+        assertThatThrownBy(() -> guard.serve("/api/tasks", () -> "never"))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE));
+    }
+
+    @Test
+    void breaker_whenOpenDurationPassed_thenOneProbeClosesOrReopens() {
+
+        for (int i = 0; i < 3; i++) {
+            breaker.onFailure();
+        }
+        assertThat(breaker.tryAcquire()).isFalse();
+        assertThat(breaker.secondsUntilRetry()).isEqualTo(10);
+
+        clock.advance(Duration.ofSeconds(10));
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.tryAcquire()).isFalse();
+        breaker.onFailure();
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+
+        // a probe that could not be started is handed back, the next call probes
+        clock.advance(Duration.ofSeconds(10));
+        assertThat(breaker.tryAcquire()).isTrue();
+        breaker.releaseProbe();
+        assertThat(breaker.tryAcquire()).isTrue();
+        breaker.onSuccess();
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void serve_whenReadPoolFull_thenStaleOr503AndCircuitStaysClosed() throws InterruptedException {
+
+        // one read thread and a queue of 8
+        DegradationGuard small = new DegradationGuard(true, Duration.ofMillis(200), Duration.ofMinutes(10),
+                100, breaker, 1, clock);
+        small.serve("/api/projects", () -> "v1");
+        CountDownLatch release = new CountDownLatch(1);
+        List<Thread> waiting = new ArrayList<>();
+        try {
+            for (int i = 0; i < 9; i++) {
+                String key = "/api/tasks/" + i;
+                Thread thread = new Thread(() -> small.serve(key, () -> {
+                    await(release);
+                    return "task";
+                }));
+                thread.start();
+                waiting.add(thread);
+            }
+            long deadline = System.currentTimeMillis() + 5_000;
+            while (waiting.stream().anyMatch(t -> t.getState() != Thread.State.WAITING) && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+
+            for (int i = 0; i < 5; i++) {
+                ResponseEntity<String> response = small.serve("/api/projects", () -> "v2");
+                assertThat(response.getBody()).isEqualTo("v1");
+                assertThat(response.getHeaders().getFirst("Warning")).startsWith("110");
+                assertThatThrownBy(() -> small.serve("/api/tasks", () -> "never"))
+                        .isInstanceOfSatisfying(ResponseStatusException.class,
+                                e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE));
+            }
+
+            // the database never failed: writes go on
+            assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+            assertThat(small.isWriteAllowed()).isTrue();
+        } finally {
+            release.countDown();
+            for (Thread thread : waiting) {
+                thread.join(5_000);
+            }
+            small.shutdown();
+        }
+    }
+
+    @Test
+    void writeGuard_whenCircuitOpen_thenWrites503WithRetryAfterAndReadsPass() {
+
+        WriteGuardInterceptor interceptor = new WriteGuardInterceptor();
+        ReflectionTestUtils.setField(interceptor, "guard", guard);
+        for (int i = 0; i < 3; i++) {
+            breaker.onFailure();
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertThat(interceptor.preHandle(new MockHttpServletRequest("GET", "/api/tasks"), response, null)).isTrue();
+        assertThatThrownBy(() -> interceptor.preHandle(new MockHttpServletRequest("POST", "/api/tasks"), response, null))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE));
+        assertThat(response.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("10");
+    }
+
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static class MutableClock extends Clock {
+
+        private volatile Instant now = Instant.parse("2025-01-01T10:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
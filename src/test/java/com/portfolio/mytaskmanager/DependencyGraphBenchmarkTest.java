@@ -0,0 +1,73 @@
+package com.portfolio.mytaskmanager;
+
+import com.portfolio.mytaskmanager.index.DependencyGraph;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*  Not part of the normal build, run with: mvn test -P benchmark
+    loads a random project plan with the given number of edges, then measures what one
+    "add blocker" request pays: cycle check + incremental update, and the critical path read
+*/
+@Tag("benchmark")
+public class DependencyGraphBenchmarkTest {
+
+    @ParameterizedTest
+    @ValueSource(ints = {10_000, 100_000})
+    void addEdge_onLargeGraph_thenIncrementalUpdateStaysCheap(int edges) {
+
+        Random random = new Random(7);
+        int nodes = edges / 4;
+
+        // plan order = position in a shuffled list, so task IDs say nothing about the order
+        List<Long> ids = new ArrayList<>();
+        for (long id = 1; id <= nodes; id++) {
+            ids.add(id);
+        }
+        Collections.shuffle(ids, random);
+
+        List<long[]> plan = new ArrayList<>();
+        for (int i = 0; i < edges; i++) {
+            int from = random.nextInt(nodes - 1);
+            int to = Math.min(nodes - 1, from + 1 + random.nextInt(50));
+            plan.add(new long[]{ids.get(from), ids.get(to)});
+        }
+
+        long loadStart = System.nanoTime();
+        DependencyGraph graph = DependencyGraph.of(plan);
+        long loadMillis = (System.nanoTime() - loadStart) / 1_000_000;
+
+        int rounds = 1_000;
+        long changeNanos = 0;
+        long readNanos = 0;
+        int refused = 0;
+        for (int i = 0; i < rounds; i++) {
+            Long blocker = ids.get(random.nextInt(nodes));
+            Long task = ids.get(random.nextInt(nodes));
+
+            long start = System.nanoTime();
+            if (graph.wouldCreateCycle(blocker, task)) {
+                refused++;
+            } else if (!graph.blockersOf(task).contains(blocker)) {
+                graph.addEdge(blocker, task);
+                graph.removeEdge(blocker, task);
+            }
+            long changed = System.nanoTime();
+            graph.criticalPath();
+            readNanos += System.nanoTime() - changed;
+            changeNanos += changed - start;
+        }
+
+        System.out.printf("edges=%d nodes=%d load=%dms change=%.1fus criticalPath=%.1fus refused=%d longest=%d%n",
+                graph.edgeCount(), graph.nodeCount(), loadMillis, changeNanos / 1_000.0 / rounds,
+                readNanos / 1_000.0 / rounds, refused, graph.longestChain());
+        assertThat(graph.longestChain()).isEqualTo(graph.criticalPath().size());
+    }
+}
@@ -0,0 +1,170 @@
+package com.portfolio.mytaskmanager;
+
+import com.portfolio.mytaskmanager.index.DependencyGraph;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class DependencyGraphTest {
+
+    private DependencyGraph graph;
+
+    // 1 -> 2 -> 3 -> 4 and a shorter branch 1 -> 5 -> 4
+    @BeforeEach
+    void setUp() {
+        graph = new DependencyGraph();
+        graph.addEdge(1L, 2L);
+        graph.addEdge(2L, 3L);
+        graph.addEdge(3L, 4L);
+        graph.addEdge(1L, 5L);
+        graph.addEdge(5L, 4L);
+    }
+
+
+                                    // ====== CYCLES ======
+
+    @Test
+    void wouldCreateCycle_whenEdgeClosesLoop_thenTrue() {
+
+        assertThat(graph.wouldCreateCycle(4L, 1L)).isTrue();
+        assertThat(graph.wouldCreateCycle(3L, 2L)).isTrue();
+        assertThat(graph.wouldCreateCycle(2L, 2L)).isTrue();
+        assertThat(graph.wouldCreateCycle(5L, 3L)).isFalse();
+        assertThat(graph.wouldCreateCycle(9L, 1L)).isFalse();
+    }
+
+    @Test
+    void addEdge_whenCycle_thenRefusedAndGraphUnchanged() {
+
+        assertThatThrownBy(() -> graph.addEdge(4L, 1L)).isInstanceOf(IllegalArgumentException.class);
+
+        assertThat(graph.edgeCount()).isEqualTo(5);
+        assertThat(graph.longestChain()).isEqualTo(4);
+    }
+
+
+                                    // ====== CRITICAL PATH ======
+
+    @Test
+    void criticalPath_whenBranches_thenLongestChain() {
+
+        assertThat(graph.criticalPath()).containsExactly(1L, 2L, 3L, 4L);
+        assertThat(graph.earliestFinish(5L)).isEqualTo(2);
+        assertThat(graph.tail(5L)).isEqualTo(2);
+    }
+
+    @Test
+    void removeEdge_whenChainBroken_thenOtherBranchBecomesCritical() {
+
+        graph.removeEdge(2L, 3L);
+        graph.addEdge(5L, 6L);
+        graph.addEdge(6L, 4L);
+
+        assertThat(graph.criticalPath()).containsExactly(1L, 5L, 6L, 4L);
+        assertThat(graph.contains(2L)).isTrue();
+    }
+
+    @Test
+    void removeNode_whenTaskDeleted_thenIsolatedNodesDropped() {
+
+        graph.removeNode(1L);
+        graph.removeNode(5L);
+
+        assertThat(graph.contains(1L)).isFalse();
+        assertThat(graph.contains(5L)).isFalse();
+        assertThat(graph.criticalPath()).containsExactly(2L, 3L, 4L);
+    }
+
+    @Test
+    void of_whenLoadedAtOnce_thenSameAsEdgeByEdge() {
+
+        DependencyGraph loaded = DependencyGraph.of(List.of(
+                new long[]{1L, 2L}, new long[]{2L, 3L}, new long[]{3L, 4L}, new long[]{1L, 5L}, new long[]{5L, 4L}));
+
+        assertThat(loaded.criticalPath()).isEqualTo(graph.criticalPath());
+        assertThat(loaded.earliestFinish(5L)).isEqualTo(2);
+        assertThat(loaded.tail(5L)).isEqualTo(2);
+        assertThat(loaded.wouldCreateCycle(4L, 1L)).isTrue();
+        assertThatThrownBy(() -> DependencyGraph.of(List.of(new long[]{1L, 2L}, new long[]{2L, 1L})))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    // Incremental values must match a full recomputation after every random change
+    @Test
+    void incrementalUpdates_whenRandomChanges_thenSameAsRecomputation() {
+
+        Random random = new Random(42);
+        DependencyGraph randomGraph = new DependencyGraph();
+        List<long[]> edges = new ArrayList<>();
+
+        for (int step = 0; step < 2000; step++) {
+            if (!edges.isEmpty() && random.nextInt(4) == 0) {
+                long[] edge = edges.remove(random.nextInt(edges.size()));
+                randomGraph.removeEdge(edge[0], edge[1]);
+            } else {
+                long blocker = random.nextInt(60);
+                long task = random.nextInt(60);
+                if (randomGraph.wouldCreateCycle(blocker, task)) {
+                    continue;
+                }
+                if (!randomGraph.blockersOf(task).contains(blocker)) {
+                    edges.add(new long[]{blocker, task});
+                }
+                randomGraph.addEdge(blocker, task);
+            }
+            if (step % 50 == 0) {
+                assertMatchesRecomputation(randomGraph, edges);
+            }
+        }
+        assertMatchesRecomputation(randomGraph, edges);
+    }
+
+
+    private void assertMatchesRecomputation(DependencyGraph incremental, List<long[]> edges) {
+        List<Long> order = incremental.topologicalOrder();
+        Map<Long, Integer> position = new HashMap<>();
+        for (int i = 0; i < order.size(); i++) {
+            position.put(order.get(i), i);
+        }
+        for (long[] edge : edges) {
+            assertThat(position.get(edge[0])).isLessThan(position.get(edge[1]));
+        }
+
+        Map<Long, Integer> earliest = new HashMap<>();
+        for (Long node : order) {
+            int value = 1;
+            for (Long blocker : incremental.blockersOf(node)) {
+                value = Math.max(value, earliest.get(blocker) + 1);
+            }
+            earliest.put(node, value);
+        }
+        Map<Long, Integer> tail = new HashMap<>();
+        for (int i = order.size() - 1; i >= 0; i--) {
+            Long node = order.get(i);
+            int value = 1;
+            for (long[] edge : edges) {
+                if (edge[0] == node) {
+                    value = Math.max(value, tail.get(edge[1]) + 1);
+                }
+            }
+            tail.put(node, value);
+        }
+
+        int longest = 0;
+        for (Long node : order) {
+            assertThat(incremental.earliestFinish(node)).isEqualTo(earliest.get(node));
+            assertThat(incremental.tail(node)).isEqualTo(tail.get(node));
+            longest = Math.max(longest, earliest.get(node) + tail.get(node) - 1);
+        }
+        assertThat(incremental.longestChain()).isEqualTo(longest);
+        assertThat(incremental.criticalPath()).hasSize(longest);
+    }
+}
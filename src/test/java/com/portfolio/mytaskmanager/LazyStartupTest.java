@@ -0,0 +1,39 @@
+package com.portfolio.mytaskmanager;
+
+import com.portfolio.mytaskmanager.service.TaskExportService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// prod profile (lazy initialization) on an in-memory H2 database instead of MySQL
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = {"spring.datasource.url=jdbc:h2:mem:lazy-startup;DB_CLOSE_DELAY=-1",
+                "audit.directory=target/audit/lazy-startup"})
+@ActiveProfiles("prod")
+public class LazyStartupTest {
+
+    @Autowired
+    private ConfigurableApplicationContext context;
+
+
+                                    // ====== LAZY INITIALIZATION ======
+
+    @Test
+    void startup_whenProdProfile_thenDatabaseBeansEagerAndOthersOnFirstUse() {
+
+        assertThat(context.getEnvironment().getProperty("spring.main.lazy-initialization")).isEqualTo("true");
+        assertThat(context.getBeanFactory().containsSingleton("entityManagerFactory")).isTrue();
+        assertThat(context.getBeanFactory().containsSingleton("flywayInitializer")).isTrue();
+        assertThat(context.getBeanFactory().containsSingleton("cacheInvalidationService")).isTrue();
+        assertThat(context.getBeanFactory().containsSingleton("taskArchiveService")).isTrue();
+        assertThat(context.getBeanFactory().containsSingleton("taskExportService")).isFalse();
+
+        context.getBean(TaskExportService.class);
+
+        assertThat(context.getBeanFactory().containsSingleton("taskExportService")).isTrue();
+    }
+}
@@ -0,0 +1,137 @@
+package com.portfolio.mytaskmanager;
+
+import com.portfolio.mytaskmanager.dto.TaskRequestDTO;
+import com.portfolio.mytaskmanager.dto.TaskResponseDTO;
+import com.portfolio.mytaskmanager.entity.Project;
+import com.portfolio.mytaskmanager.entity.Status;
+import com.portfolio.mytaskmanager.profiling.CacheEvent;
+import com.portfolio.mytaskmanager.profiling.ProfilingService;
+import com.portfolio.mytaskmanager.profiling.QueueEvent;
+import com.portfolio.mytaskmanager.profiling.ServiceOperationEvent;
+import com.portfolio.mytaskmanager.repository.ProjectRepository;
+import com.portfolio.mytaskmanager.service.TaskService;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.aop.AopAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*  Not part of the normal build, run with: mvn test -P benchmark -Dtest=ProfilingOverheadBenchmarkTest
+    throughput of a read/write service mix (findById, update, search) without a recording, with the settings
+    of the profiling endpoint ("default") and with the more detailed "profile" settings, both with the
+    application events enabled; ROUNDS alternating rounds per mode, the median round counts
+*/
+@Tag("benchmark")
+@DataJpaTest(properties = "spring.jpa.show-sql=false")
+@ComponentScan(basePackageClasses = {TaskService.class, com.portfolio.mytaskmanager.index.TaskIndex.class, ProfilingService.class})
+@ImportAutoConfiguration(AopAutoConfiguration.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class ProfilingOverheadBenchmarkTest {
+
+    private static final int TASKS = 200;
+    private static final int ROUNDS = 5;
+    private static final long ROUND_NANOS = 2_000_000_000L;
+
+    @Autowired
+    private TaskService service;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @AfterEach
+    void cleanUp() {
+        projectRepository.deleteAll();
+    }
+
+    @Test
+    void serviceCalls_whenRecording_thenSmallOverhead() throws Exception {
+
+        Project project = projectRepository.save(Project.builder().name("Bench").description("x").build());
+        List<TaskResponseDTO> tasks = new ArrayList<>();
+        for (int i = 0; i < TASKS; i++) {
+            tasks.add(service.create(request(project.getId(), "Deploy task " + i)));
+        }
+
+        // warm up (class loading, JIT, statement caches), also with the events enabled once
+        run(tasks, null);
+        run(tasks, "default");
+
+        List<Double> off = new ArrayList<>();
+        List<Double> defaults = new ArrayList<>();
+        List<Double> profile = new ArrayList<>();
+        for (int round = 0; round < ROUNDS; round++) {
+            off.add(run(tasks, null));
+            defaults.add(run(tasks, "default"));
+            profile.add(run(tasks, "profile"));
+        }
+
+        double base = median(off);
+        System.out.printf("no recording: %.0f ops/s  default: %.0f ops/s (%+.1f%%)  profile: %.0f ops/s (%+.1f%%)%n",
+                base, median(defaults), overhead(base, median(defaults)), median(profile), overhead(base, median(profile)));
+        // loose bound: on a small machine the rounds alone differ by several percent
+        assertThat(overhead(base, median(defaults))).isLessThan(15);
+    }
+
+
+    // Operations per second of one round, under a recording with the given settings (none for null)
+    private double run(List<TaskResponseDTO> tasks, String settings) throws Exception {
+        Recording recording = null;
+        if (settings != null) {
+            recording = new Recording(Configuration.getConfiguration(settings));
+            recording.enable(ServiceOperationEvent.class);
+            recording.enable(CacheEvent.class);
+            recording.enable(QueueEvent.class);
+            recording.start();
+        }
+        try {
+            long operations = 0;
+            long start = System.nanoTime();
+            while (System.nanoTime() - start < ROUND_NANOS) {
+                TaskResponseDTO task = tasks.get((int) (operations % tasks.size()));
+                service.findById(task.getId());
+                service.update(task.getId(), request(task.getProjectId(), task.getTitle()));
+                service.search("deploy", null, null, 20);
+                operations += 3;
+            }
+            return operations / ((System.nanoTime() - start) / 1e9);
+        } finally {
+            if (recording != null) {
+                recording.close();
+            }
+        }
+    }
+
+    private static double median(List<Double> values) {
+        List<Double> sorted = values.stream().sorted().toList();
+        return sorted.get(sorted.size() / 2);
+    }
+
+    private static double overhead(double base, double measured) {
+        return (base - measured) / base * 100;
+    }
+
+    private static TaskRequestDTO request(Long projectId, String title) {
+        TaskRequestDTO request = new TaskRequestDTO();
+        request.setTitle(title);
+        request.setDescription("Benchmark");
+        request.setStatus(Status.TODO);
+        request.setDueDate(LocalDate.now().plusDays(3));
+        request.setProjectId(projectId);
+        request.setTags(Set.of("backend"));
+        return request;
+    }
+}
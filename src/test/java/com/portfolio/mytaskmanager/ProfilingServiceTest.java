@@ -0,0 +1,152 @@
+package com.portfolio.mytaskmanager;
+
+import com.portfolio.mytaskmanager.dto.TaskRequestDTO;
+import com.portfolio.mytaskmanager.dto.TaskResponseDTO;
+import com.portfolio.mytaskmanager.entity.Project;
+import com.portfolio.mytaskmanager.entity.Status;
+import com.portfolio.mytaskmanager.profiling.CacheEvent;
+import com.portfolio.mytaskmanager.profiling.ProfilingService;
+import com.portfolio.mytaskmanager.repository.ProjectRepository;
+import com.portfolio.mytaskmanager.service.TaskService;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.RecordingState;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.aop.AopAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@ComponentScan(basePackageClasses = {TaskService.class, com.portfolio.mytaskmanager.index.TaskIndex.class, ProfilingService.class})
+@ImportAutoConfiguration(AopAutoConfiguration.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class ProfilingServiceTest {
+
+    @Autowired
+    private ProfilingService profilingService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @AfterEach
+    void cleanUp() {
+        projectRepository.deleteAll();
+    }
+
+
+                                    // ====== RECORDING ======
+
+    @Test
+    void record_whenServicesCalledDuringRecording_thenOperationEventsWithIdsAndStatements() throws Exception {
+
+        Project project = projectRepository.save(Project.builder().name("Profiled").description("x").build());
+        CompletableFuture<byte[]> recording = startRecording(Duration.ofSeconds(2));
+
+        TaskResponseDTO task = taskService.create(request(project.getId()));
+        taskService.findById(task.getId());
+        CacheEvent.emit("test-cache", "hit");
+
+        List<RecordedEvent> events = read(recording.get());
+
+        assertThat(events).anySatisfy(event -> {
+            assertThat(event.getEventType().getName()).isEqualTo("mytaskmanager.ServiceOperation");
+            assertThat(event.getString("operation")).isEqualTo("TaskService.findById");
+            assertThat(event.getLong("entityId")).isEqualTo(task.getId());
+            assertThat(event.getInt("statements")).isPositive();
+            assertThat(event.getBoolean("failed")).isFalse();
+        });
+        assertThat(events).anySatisfy(event -> {
+            assertThat(event.getString("operation")).isEqualTo("TaskService.create");
+            assertThat(event.getInt("statements")).isGreaterThanOrEqualTo(2);
+        });
+        assertThat(events).anySatisfy(event -> {
+            assertThat(event.getEventType().getName()).isEqualTo("mytaskmanager.Cache");
+            assertThat(event.getString("cache")).isEqualTo("test-cache");
+        });
+    }
+
+    @Test
+    void record_whenAlreadyRecordingOrBadDuration_thenConflictOrBadRequest() throws Exception {
+
+        CompletableFuture<byte[]> running = startRecording(Duration.ofSeconds(1));
+
+        assertThatThrownBy(() -> profilingService.record(Duration.ofSeconds(1), ByteArrayOutputStream::new))
+                .isInstanceOf(ResponseStatusException.class)
+                .extracting(e -> ((ResponseStatusException) e).getStatusCode())
+                .isEqualTo(HttpStatus.CONFLICT);
+        assertThat(running.get()).isNotEmpty();
+
+        assertThatThrownBy(() -> profilingService.record(Duration.ofHours(1), ByteArrayOutputStream::new))
+                .isInstanceOf(ResponseStatusException.class)
+                .extracting(e -> ((ResponseStatusException) e).getStatusCode())
+                .isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+
+    // Recording in the background, returns once JFR is running
+    private CompletableFuture<byte[]> startRecording(Duration duration) throws InterruptedException {
+        CompletableFuture<byte[]> file = CompletableFuture.supplyAsync(() -> {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            try {
+                profilingService.record(duration, () -> out);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return out.toByteArray();
+        });
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (FlightRecorder.getFlightRecorder().getRecordings().stream().noneMatch(r -> r.getState() == RecordingState.RUNNING)
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        return file;
+    }
+
+    private static List<RecordedEvent> read(byte[] jfr) throws IOException {
+        Path file = Files.createTempFile("profiling-test-", ".jfr");
+        try {
+            Files.write(file, jfr);
+            return RecordingFile.readAllEvents(file).stream()
+                    .filter(event -> event.getEventType().getName().startsWith("mytaskmanager."))
+                    .toList();
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    private static TaskRequestDTO request(Long projectId) {
+        TaskRequestDTO request = new TaskRequestDTO();
+        request.setTitle("Profiled task");
+        request.setDescription("Recorded by JFR");
+        request.setStatus(Status.TODO);
+        request.setDueDate(LocalDate.now().plusDays(3));
+        request.setProjectId(projectId);
+        request.setTags(Set.of("backend"));
+        return request;
+    }
+}
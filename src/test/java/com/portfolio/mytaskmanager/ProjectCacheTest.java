@@ -0,0 +1,145 @@
+package com.portfolio.mytaskmanager;
+
+import com.portfolio.mytaskmanager.cache.CacheInvalidation;
+import com.portfolio.mytaskmanager.cache.CacheInvalidationChannel;
+import com.portfolio.mytaskmanager.cache.CacheInvalidationService;
+import com.portfolio.mytaskmanager.dto.ProjectRequestDTO;
+import com.portfolio.mytaskmanager.entity.Project;
+import com.portfolio.mytaskmanager.repository.ProjectRepository;
+import com.portfolio.mytaskmanager.service.ProjectService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "cache.invalidation.channel=in-memory")
+@ComponentScan(basePackageClasses = CacheInvalidationService.class)
+@Import(ProjectService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class ProjectCacheTest {
+
+    @Autowired
+    private ProjectRepository repository;
+
+    @Autowired
+    private ProjectService projectService;
+
+    @Autowired
+    private CacheInvalidationService invalidationService;
+
+    @Autowired
+    private CacheInvalidationChannel channel;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    private Long projectId;
+
+    @BeforeEach
+    void setUp() {
+        projectId = repository.save(Project.builder().name("Web").description("x").build()).getId();
+
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        sessionFactory.getCache().evictAllRegions();
+        statistics = sessionFactory.getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        repository.deleteAll();
+    }
+
+
+                                    // ====== CACHE ======
+
+    @Test
+    void findById_whenReadTwice_thenSecondReadFromCache() {
+
+        repository.findById(projectId);
+        repository.findById(projectId);
+
+        assertThat(statistics.getSecondLevelCacheMissCount()).isEqualTo(1);
+        assertThat(statistics.getSecondLevelCacheHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void existsByName_whenAskedTwice_thenSecondAnswerFromQueryCache() {
+
+        repository.existsByNameIgnoreCase("web");
+        repository.existsByNameIgnoreCase("web");
+
+        assertThat(statistics.getQueryCacheMissCount()).isEqualTo(1);
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+    }
+
+
+                                    // ====== INVALIDATION ======
+
+    @Test
+    void update_whenWrittenThroughService_thenFreshReadAndOtherInstancesNotified() {
+
+        List<CacheInvalidation> sent = new ArrayList<>();
+        channel.subscribe(sent::add);
+        repository.findById(projectId);
+        repository.existsByNameIgnoreCase("web");
+
+        ProjectRequestDTO request = new ProjectRequestDTO();
+        request.setName("Renamed");
+        request.setDescription("x");
+        projectService.update(projectId, request);
+
+        assertThat(repository.findById(projectId)).get().extracting(Project::getName).isEqualTo("Renamed");
+        assertThat(repository.existsByNameIgnoreCase("web")).isFalse();
+        assertThat(sent).containsExactly(new CacheInvalidation(invalidationService.getOrigin(), "Project", projectId));
+    }
+
+    @Test
+    void remoteWrite_whenInvalidationReceived_thenNoStaleRead() {
+
+        repository.findById(projectId);
+        repository.existsByNameIgnoreCase("web");
+
+        // another instance renames the project directly in the shared database
+        jdbcTemplate.update("update project set name = ? where id = ?", "Changed elsewhere", projectId);
+
+        // without a message this instance still serves its cached copy
+        assertThat(repository.findById(projectId)).get().extracting(Project::getName).isEqualTo("Web");
+
+        channel.publish(new CacheInvalidation("other-instance", "Project", projectId));
+
+        assertThat(repository.findById(projectId)).get().extracting(Project::getName).isEqualTo("Changed elsewhere");
+        assertThat(repository.existsByNameIgnoreCase("web")).isFalse();
+    }
+
+    @Test
+    void ownMessage_whenReceived_thenCacheKept() {
+
+        repository.findById(projectId);
+        statistics.clear();
+
+        channel.publish(new CacheInvalidation(invalidationService.getOrigin(), "Project", projectId));
+        repository.findById(projectId);
+
+        assertThat(statistics.getSecondLevelCacheHitCount()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,119 @@
+package com.portfolio.mytaskmanager;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.portfolio.mytaskmanager.cache.CacheInvalidation;
+import com.portfolio.mytaskmanager.cache.CacheInvalidationChannel;
+import com.portfolio.mytaskmanager.cache.InMemoryInvalidationChannel;
+import com.portfolio.mytaskmanager.cache.JsonSnapshot;
+import com.portfolio.mytaskmanager.cache.ProjectListCache;
+import com.portfolio.mytaskmanager.dto.ProjectResponseDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ProjectListCacheTest {
+
+    private final InMemoryInvalidationChannel channel = new InMemoryInvalidationChannel();
+
+    private final ProjectListCache cache = newCache();
+
+    private final List<ProjectResponseDTO> projects = List.of(
+            new ProjectResponseDTO(1L, "Web", "Site", LocalDate.of(2025, 1, 1), LocalDate.of(2025, 6, 30)));
+
+
+                                    // ====== GENERATIONS ======
+
+    @Test
+    void current_whenStoredAndNoWrite_thenSameBytesServedAgain() {
+
+        assertThat(cache.current()).isNull();
+        JsonSnapshot stored = cache.store(cache.generation(), projects);
+
+        JsonSnapshot served = cache.current();
+
+        assertThat(served).isSameAs(stored);
+        assertThat(served.toResponse(null, null).getBody()).isSameAs(stored.json());
+        assertThat(new String(stored.json(), StandardCharsets.UTF_8)).contains("\"startDate\":\"2025-01-01\"");
+    }
+
+    @Test
+    void current_whenProjectWritten_thenSnapshotDropped() {
+
+        cache.store(cache.generation(), projects);
+
+        cache.onProjectDeleted(1L);
+
+        assertThat(cache.current()).isNull();
+    }
+
+    @Test
+    void store_whenWriteHappenedDuringLoad_thenResultNotKept() {
+
+        long generation = cache.generation();
+        cache.onProjectDeleted(1L);
+
+        cache.store(generation, projects);
+
+        assertThat(cache.current()).isNull();
+    }
+
+    @Test
+    void current_whenOtherInstanceChangedProject_thenSnapshotDropped() {
+
+        cache.store(cache.generation(), projects);
+
+        channel.publish(new CacheInvalidation("other-instance", "Project", 1L));
+
+        assertThat(cache.current()).isNull();
+    }
+
+
+                                    // ====== RESPONSE ======
+
+    @Test
+    void toResponse_whenEtagMatches_then304WithoutBody() {
+
+        JsonSnapshot snapshot = cache.store(cache.generation(), projects);
+        String etag = snapshot.toResponse(null, null).getHeaders().getETag();
+
+        ResponseEntity<byte[]> response = snapshot.toResponse(etag, null);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(response.getBody()).isNull();
+        assertThat(cache.store(cache.generation(), projects).etag()).isEqualTo(etag);
+    }
+
+    @Test
+    void toResponse_whenGzipAccepted_thenCompressedBytesOfSameJson() throws IOException {
+
+        JsonSnapshot snapshot = cache.store(cache.generation(), projects);
+
+        ResponseEntity<byte[]> response = snapshot.toResponse(null, "deflate, gzip;q=0.8");
+
+        assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        assertThat(response.getHeaders().getETag()).isNotEqualTo(snapshot.etag());
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(response.getBody()))) {
+            assertThat(in.readAllBytes()).isEqualTo(snapshot.json());
+        }
+        assertThat(snapshot.toResponse(null, "gzip;q=0").getHeaders().containsKey(HttpHeaders.CONTENT_ENCODING)).isFalse();
+    }
+
+
+    private ProjectListCache newCache() {
+        StaticListableBeanFactory beans = new StaticListableBeanFactory();
+        beans.addBean("channel", channel);
+        return new ProjectListCache(beans.getBeanProvider(ObjectMapper.class),
+                beans.getBeanProvider(CacheInvalidationChannel.class));
+    }
+}
@@ -0,0 +1,77 @@
+package com.portfolio.mytaskmanager;
+
+import com.portfolio.mytaskmanager.dto.ProjectSuggestionDTO;
+import com.portfolio.mytaskmanager.entity.Project;
+import com.portfolio.mytaskmanager.index.ProjectNameIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ProjectNameIndexTest {
+
+    private ProjectNameIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProjectNameIndex();
+        index.load(List.of(
+                project(1L, "Website"),
+                project(2L, "web shop"),
+                project(3L, "Mobile app"),
+                project(4L, "Webinar"),
+                project(5L, "Backend")));
+    }
+
+
+                                    // ====== SUGGEST ======
+
+    @Test
+    void suggest_whenPrefixInAnyCase_thenMatchingNamesAlphabetically() {
+
+        assertThat(index.suggest("WEB", 10)).extracting(ProjectSuggestionDTO::getName)
+                .containsExactly("web shop", "Webinar", "Website");
+        assertThat(index.suggest(" webs", 10)).extracting(ProjectSuggestionDTO::getId).containsExactly(1L);
+        assertThat(index.suggest("x", 10)).isEmpty();
+    }
+
+    @Test
+    void suggest_whenLimitOrEmptyPrefix_thenFirstNamesOnly() {
+
+        assertThat(index.suggest("web", 2)).extracting(ProjectSuggestionDTO::getId).containsExactly(2L, 4L);
+        assertThat(index.suggest("", 2)).extracting(ProjectSuggestionDTO::getName)
+                .containsExactly("Backend", "Mobile app");
+    }
+
+
+                                    // ====== CHANGES ======
+
+    @Test
+    void onProjectSaved_whenRenamedOrCreated_thenOrderFollows() {
+
+        index.onProjectSaved(project(3L, "Web mobile"));
+        index.onProjectSaved(project(6L, "Api"));
+
+        assertThat(index.suggest("mob", 10)).isEmpty();
+        assertThat(index.suggest("web", 10)).extracting(ProjectSuggestionDTO::getName)
+                .containsExactly("Web mobile", "web shop", "Webinar", "Website");
+        assertThat(index.suggest("", 1)).extracting(ProjectSuggestionDTO::getName).containsExactly("Api");
+        assertThat(index.size()).isEqualTo(6);
+    }
+
+    @Test
+    void onProjectDeleted_thenNameRemoved() {
+
+        index.onProjectDeleted(1L);
+        index.onProjectDeleted(99L);
+
+        assertThat(index.suggest("web", 10)).extracting(ProjectSuggestionDTO::getId).containsExactly(2L, 4L);
+    }
+
+
+    private Project project(Long id, String name) {
+        return Project.builder().id(id).name(name).build();
+    }
+}
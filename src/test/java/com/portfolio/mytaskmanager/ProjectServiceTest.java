@@ -13,11 +13,18 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.mockito.Mockito.when;
 import static org.assertj.core.api.Assertions.*;
@@ -30,6 +37,9 @@ public class ProjectServiceTest {
     @Mock
     private ProjectRepository repository;
 
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     @InjectMocks
     private ProjectService service;
 
@@ -279,6 +289,40 @@ public class ProjectServiceTest {
 
     }
 
+    @Test
+    void findById_whenCallsCoalesced_thenOnlyTheLoadingCallOpensATransaction() throws Exception {
+
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(repository.findById(4L)).thenAnswer(inv -> {
+            loading.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return Optional.of(Project.builder().id(4L).name("Shared").build());
+        });
+
+        ExecutorService callers = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<ProjectResponseDTO>> results = new ArrayList<>();
+            results.add(callers.submit(() -> service.findById(4L)));
+            assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+            for (int i = 0; i < 3; i++) {
+                results.add(callers.submit(() -> service.findById(4L)));
+            }
+            Thread.sleep(100);
+
+            // the waiting callers did not take a transaction (a pooled connection) while the load runs
+            verify(transactionManager, times(1)).getTransaction(any());
+
+            release.countDown();
+            for (Future<ProjectResponseDTO> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS).getName()).isEqualTo("Shared");
+            }
+        } finally {
+            release.countDown();
+            callers.shutdownNow();
+        }
+    }
+
     @Test
     void findById_whenIdIsInvalid_thenThrowNotFound(){
 
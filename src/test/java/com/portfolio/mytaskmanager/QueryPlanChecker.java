@@ -0,0 +1,207 @@
+package com.portfolio.mytaskmanager;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/*  Records every SQL statement sent through the "dataSource" bean (Hibernate and JdbcTemplate alike) with the
+    parameters of its last execution, then runs EXPLAIN ANALYZE on each one against the H2 database and reports:
+    - full scans of a checked table (table scan, or an index walked without a condition) reading more than maxRows
+    - an ORDER BY that no index delivers (H2 sorts the rows, "filesort") over more than maxRows rows read
+    UPDATE and DELETE statements are explained in a transaction that is rolled back
+*/
+class QueryPlanChecker implements BeanPostProcessor {
+
+    // Table accesses in the H2 plan: "PUBLIC"."TASK" "T1_0" /* PUBLIC.IDX_X: PROJECT_ID = ?1 */ /* scanCount: 12 */
+    private static final Pattern ACCESS = Pattern.compile(
+            "\"PUBLIC\"\\.\"(\\w+)\"(?: \"\\w+\")?\\s+/\\* PUBLIC\\.([\\w.]+)(:.*?)?\\s*\\*/(?:\\s*/\\* WHERE .*?\\*/)?(?:\\s*/\\* scanCount: (\\d+) \\*/)?",
+            Pattern.DOTALL);
+    private static final Pattern TOP_LEVEL_ORDER_BY = Pattern.compile("^ORDER BY", Pattern.MULTILINE);
+    // "index sorted: 1 of 2 columns" counts too, H2 then only sorts the runs with the same leading value
+    private static final Pattern INDEX_SORTED = Pattern.compile("^/\\* index sorted", Pattern.MULTILINE);
+
+    private final Set<String> checkedTables;
+    private final Map<String, Object[]> statements = Collections.synchronizedMap(new LinkedHashMap<>());
+    private DataSource target;
+
+    QueryPlanChecker(Set<String> checkedTables) {
+        this.checkedTables = checkedTables;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && beanName.equals("dataSource")) {
+            target = dataSource;
+            return proxy(DataSource.class, dataSource, (method, args) ->
+                    method.getName().equals("getConnection") ? connection((Connection) method.invoke(dataSource, args)) : null);
+        }
+        return bean;
+    }
+
+    // Forgets the statements seen so far, e.g. the ones of the test set-up
+    void reset() {
+        statements.clear();
+    }
+
+    // Distinct statements seen so far
+    Set<String> statements() {
+        synchronized (statements) {
+            return Set.copyOf(statements.keySet());
+        }
+    }
+
+    /*  One entry per statement with problems: the statement, what is wrong and the plan
+        statements that are not SELECT/UPDATE/DELETE or do not name a checked table are skipped
+    */
+    List<String> violations(int maxRows) throws SQLException {
+        Map<String, Object[]> recorded;
+        synchronized (statements) {
+            recorded = new LinkedHashMap<>(statements);
+        }
+        List<String> violations = new ArrayList<>();
+        try (Connection connection = target.getConnection()) {
+            connection.setAutoCommit(false);
+            for (Map.Entry<String, Object[]> statement : recorded.entrySet()) {
+                if (!isChecked(statement.getKey())) {
+                    continue;
+                }
+                String plan = explain(connection, statement.getKey(), statement.getValue());
+                List<String> problems = problems(plan, maxRows);
+                if (!problems.isEmpty()) {
+                    violations.add(String.join(", ", problems) + "\n  " + statement.getKey() + "\n" + plan.indent(4));
+                }
+            }
+        }
+        return violations;
+    }
+
+    // Full scans and sorts of one plan, the driving (first) table access gives the rows to sort
+    private List<String> problems(String plan, int maxRows) {
+        List<String> problems = new ArrayList<>();
+        long drivingRows = -1;
+        boolean checked = false;
+        Matcher access = ACCESS.matcher(plan);
+        while (access.find()) {
+            String table = access.group(1).toLowerCase(Locale.ROOT);
+            long rows = access.group(4) != null ? Long.parseLong(access.group(4)) : 0;
+            if (drivingRows < 0) {
+                drivingRows = rows;
+            }
+            if (!checkedTables.contains(table)) {
+                continue;
+            }
+            checked = true;
+            boolean fullScan = access.group(3) == null;
+            if (fullScan && rows > maxRows) {
+                problems.add("full scan of " + table + " (" + rows + " rows, " + access.group(2) + ")");
+            }
+        }
+        if (checked && drivingRows > maxRows
+                && TOP_LEVEL_ORDER_BY.matcher(plan).find() && !INDEX_SORTED.matcher(plan).find()) {
+            problems.add("sort without index over " + drivingRows + " rows");
+        }
+        return problems;
+    }
+
+
+    private boolean isChecked(String sql) {
+        String lower = sql.strip().toLowerCase(Locale.ROOT);
+        if (!(lower.startsWith("select") || lower.startsWith("update") || lower.startsWith("delete") || lower.startsWith("with"))
+                || lower.contains("information_schema")) {
+            return false;
+        }
+        return checkedTables.stream().anyMatch(table -> Pattern.compile("\\b" + table + "\\b").matcher(lower).find());
+    }
+
+    private static String explain(Connection connection, String sql, Object[] parameters) throws SQLException {
+        try (PreparedStatement explain = connection.prepareStatement("explain analyze " + sql)) {
+            for (int i = 0; i < parameters.length; i++) {
+                explain.setObject(i + 1, parameters[i]);
+            }
+            try (ResultSet plan = explain.executeQuery()) {
+                plan.next();
+                return plan.getString(1);
+            }
+        } finally {
+            connection.rollback();
+        }
+    }
+
+    private void record(String sql, Map<Integer, Object> parameters) {
+        Object[] values = new Object[parameters.isEmpty() ? 0 : Collections.max(parameters.keySet())];
+        parameters.forEach((index, value) -> values[index - 1] = value);
+        statements.put(sql, values);
+    }
+
+    private Connection connection(Connection connection) {
+        return proxy(Connection.class, connection, (method, args) -> {
+            if (method.getName().startsWith("prepareStatement")) {
+                return preparedStatement((String) args[0], (PreparedStatement) method.invoke(connection, args));
+            }
+            if (method.getName().equals("createStatement")) {
+                return statement((Statement) method.invoke(connection, args));
+            }
+            return null;
+        });
+    }
+
+    private Statement statement(Statement statement) {
+        return proxy(Statement.class, statement, (method, args) -> {
+            if ((method.getName().startsWith("execute") || method.getName().equals("addBatch"))
+                    && args != null && args.length > 0 && args[0] instanceof String sql) {
+                record(sql, Map.of());
+            }
+            return null;
+        });
+    }
+
+    private PreparedStatement preparedStatement(String sql, PreparedStatement statement) {
+        Map<Integer, Object> parameters = new TreeMap<>();
+        return proxy(PreparedStatement.class, statement, (method, args) -> {
+            String name = method.getName();
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                parameters.put(index, name.equals("setNull") ? null : args[1]);
+            } else if (name.equals("clearParameters")) {
+                parameters.clear();
+            } else if ((name.startsWith("execute") || name.equals("addBatch")) && (args == null || args.length == 0)) {
+                record(sql, parameters);
+            }
+            return null;
+        });
+    }
+
+    // Calls the target unless the interceptor returns something else than null
+    private interface Interceptor {
+        Object invoke(java.lang.reflect.Method method, Object[] args) throws Exception;
+    }
+
+    private static <T> T proxy(Class<T> type, T target, Interceptor interceptor) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            try {
+                Object replaced = interceptor.invoke(method, args);
+                return replaced != null ? replaced : method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        };
+        return type.cast(Proxy.newProxyInstance(QueryPlanChecker.class.getClassLoader(), new Class<?>[]{type}, handler));
+    }
+}
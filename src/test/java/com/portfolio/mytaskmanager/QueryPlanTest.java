@@ -0,0 +1,230 @@
+package com.portfolio.mytaskmanager;
+
+import com.portfolio.mytaskmanager.cache.ProjectListCache;
+import com.portfolio.mytaskmanager.entity.Project;
+import com.portfolio.mytaskmanager.entity.Status;
+import com.portfolio.mytaskmanager.index.ProjectNameIndex;
+import com.portfolio.mytaskmanager.index.TaskIndexLoader;
+import com.portfolio.mytaskmanager.repository.ProjectRepository;
+import com.portfolio.mytaskmanager.repository.TaskRepository;
+import com.portfolio.mytaskmanager.service.TaskArchiveService;
+import com.portfolio.mytaskmanager.snapshot.TaskSnapshotService;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.OutputStream;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*  Query-plan regression test: seeds TASKS generated tasks, calls every endpoint and the background jobs, then
+    explains every statement that reached the database and fails on full scans and sorts without an index on
+    task/project reading more than -Dquery-plan.max-rows rows (default 1000)
+    a new derived query or a dropped index shows up here instead of as a slow query in production
+*/
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"spring.datasource.url=jdbc:h2:mem:query-plan;DB_CLOSE_DELAY=-1",
+                "warmup.enabled=false", "degradation.enabled=false", "tasks.archive.enabled=false",
+                "tasks.archive.max-batches-per-run=1",
+                "audit.directory=target/audit/query-plan", "spring.jpa.show-sql=false"})
+public class QueryPlanTest {
+
+    private static final int TASKS = 20_000;
+    private static final int MAX_ROWS = Integer.getInteger("query-plan.max-rows", 1000);
+
+    /*  Statements that read a whole table on purpose (every row is returned), matched by the whole statement
+        everything else on task/project has to use an index
+    */
+    private static final Map<String, String> FULL_READS = Map.of(
+            "select t1_0.id,t1_0.description,t1_0.due_date,t1_0.finished_at,t1_0.parent_id,t1_0.project_id,t1_0.status,t1_0.title from task t1_0",
+            "GET /api/tasks returns all tasks",
+            "select p1_0.id,p1_0.description,p1_0.end_date,p1_0.name,p1_0.start_date from project p1_0",
+            "GET /api/projects returns all projects, the name index and the project cache load them all",
+            "select t.id, t.title, t.description, t.due_date, t.status, t.project_id, t.parent_id, tt.tag from task t left join task_tag tt on tt.task_id = t.id order by t.id, tt.tag",
+            "GET /api/tasks/export streams every task",
+            "select id, title, description, status, due_date, finished_at, project_id, parent_id from task order by id",
+            "the database snapshot copies every task",
+            "select id, name, description, start_date, end_date from project order by id",
+            "the database snapshot copies every project");
+
+    @TestConfiguration
+    static class RecordingConfig {
+
+        @Bean
+        static QueryPlanChecker queryPlanChecker() {
+            return new QueryPlanChecker(Set.of("task", "project"));
+        }
+    }
+
+    @Autowired
+    private QueryPlanChecker checker;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private TaskArchiveService archiveService;
+
+    @Autowired
+    private TaskSnapshotService snapshotService;
+
+    @Autowired
+    private TaskIndexLoader indexLoader;
+
+    @Autowired
+    private ProjectNameIndex nameIndex;
+
+    @Autowired
+    private ProjectListCache projectListCache;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+
+                                    // ====== EVERY STATEMENT ======
+
+    @Test
+    void statements_whenEveryEndpointAndJobCalled_thenNoFullScanOrSortWithoutIndex() throws Exception {
+
+        LocalDate today = LocalDate.now();
+        new TaskDataGenerator(7, today).generate(jdbcTemplate, TaskDataGenerator.projectsFor(TASKS), TASKS);
+        entityManagerFactory.getCache().evictAll();
+        projectListCache.invalidate();
+
+        // a project with several tasks, two of them unlinked so a dependency can be added and removed
+        long projectId = jdbcTemplate.queryForObject(
+                "select project_id from task group by project_id order by count(*) desc limit 1 offset 10", Long.class);
+        List<Long> taskIds = jdbcTemplate.queryForList(
+                "select id from task where project_id = ? and id not in (select task_id from task_dependency)"
+                        + " and id not in (select blocker_id from task_dependency) order by id", Long.class, projectId);
+        long taskId = taskIds.get(0);
+        long blockerId = taskIds.get(1);
+        // only the statements of the application from here on, the in-memory indexes load again
+        checker.reset();
+        nameIndex.onApplicationReady();
+        indexLoader.reload();
+
+        for (String path : List.of("/api/projects", "/api/projects/" + projectId, "/api/projects/suggest?prefix=project",
+                "/api/projects/" + projectId + "/critical-path", "/api/tasks", "/api/tasks?includeArchived=true",
+                "/api/tasks/export", "/api/tasks/export?projectId=" + projectId, "/api/tasks/" + taskId,
+                "/api/tasks/" + taskId + "/subtasks", "/api/tasks/" + taskId + "/rollup",
+                "/api/tasks/" + taskId + "/blockers", "/api/tasks/search?q=deploy",
+                "/api/tasks/tags?all=backend&any=q3,urgent&none=bug&includeTasks=true", "/api/tasks/upcoming?limit=20",
+                "/api/tasks/upcoming?projectId=" + projectId, "/api/tasks/calendar?from=" + today + "&to=" + today.plusDays(30),
+                "/api/dashboard", "/api/dashboard?projectIds=" + projectId)) {
+            assertOk(restTemplate.getForEntity(path, String.class), path);
+        }
+
+        assertOk(restTemplate.postForEntity("/api/tasks/" + taskId + "/blockers/" + blockerId, null, String.class), "add blocker");
+        assertOk(restTemplate.exchange("/api/tasks/" + taskId + "/blockers/" + blockerId, HttpMethod.DELETE, null, String.class), "remove blocker");
+
+        ResponseEntity<Map> created = restTemplate.postForEntity("/api/tasks", json(taskJson(projectId, taskId)), Map.class);
+        assertOk(created, "create task");
+        long createdId = ((Number) created.getBody().get("id")).longValue();
+        assertOk(restTemplate.exchange("/api/tasks/" + createdId, HttpMethod.PUT, json(taskJson(projectId, null)), String.class), "update task");
+        assertOk(restTemplate.getForEntity("/api/tasks/" + createdId + "/history", String.class), "task history");
+        assertOk(restTemplate.exchange("/api/tasks/" + createdId, HttpMethod.DELETE, null, String.class), "delete task");
+
+        String projectJson = "{\"name\":\"Plan check\",\"description\":\"Query plans\",\"startDate\":\"" + today + "\"}";
+        ResponseEntity<Map> project = restTemplate.postForEntity("/api/projects", json(projectJson), Map.class);
+        assertOk(project, "create project");
+        long newProjectId = ((Number) project.getBody().get("id")).longValue();
+        assertOk(restTemplate.exchange("/api/projects/" + newProjectId, HttpMethod.PUT,
+                json(projectJson.replace("Plan check", "Plan checked")), String.class), "update project");
+        assertOk(restTemplate.getForEntity("/api/projects/" + newProjectId + "/history", String.class), "project history");
+        assertOk(restTemplate.exchange("/api/projects/" + newProjectId, HttpMethod.DELETE, null, String.class), "delete project");
+
+        // repository methods no endpoint reaches with these arguments
+        Project someProject = projectRepository.findById(projectId).orElseThrow();
+        taskRepository.findByProject(someProject);
+        taskRepository.findByIdGreaterThanOrderByIdAsc(TASKS / 2L, PageRequest.of(0, 500));
+        taskRepository.findByDueDateBetweenOrderByDueDateAscIdAsc(today, today.plusDays(7));
+        taskRepository.findArchivableIds(Status.TERMINAL, LocalDateTime.now().minusDays(30), PageRequest.of(0, 500));
+        transactionTemplate.executeWithoutResult(tx -> taskRepository.backfillFinishedAt(Status.TERMINAL));
+        projectRepository.existsByNameIgnoreCase("Project 000001 login");
+
+        // background jobs last, the archive moves rows out of the task table
+        snapshotService.write(OutputStream.nullOutputStream());
+        archiveService.archiveFinishedTasks();
+
+        assertThat(checker.statements()).hasSizeGreaterThan(30);
+        List<String> violations = checker.violations(MAX_ROWS).stream()
+                .filter(violation -> FULL_READS.keySet().stream().noneMatch(sql -> violation.contains("\n  " + sql + "\n")))
+                .toList();
+        assertThat(violations).as("statements on task/project without a usable index").isEmpty();
+    }
+
+
+                                    // ====== CHECKER ======
+
+    @Test
+    void problems_whenScanOrSortWithoutIndex_thenReported() throws SQLException {
+
+        jdbcTemplate.update("insert into project (id, name, description) values (100000, 'Scan', 'x')");
+        jdbcTemplate.batchUpdate("insert into task (title, description, status, project_id) values (?, 'x', 'TODO', 100000)",
+                IntStream.range(0, 50).mapToObj(i -> new Object[]{"Scan " + i}).toList());
+        try {
+            // unindexed column: table scan; project_id: index, but ordered by title; primary key range: index order
+            jdbcTemplate.queryForList("select id from task where title = ?", "Scan 1");
+            jdbcTemplate.queryForList("select id from task where project_id = ? order by title", 100000L);
+            jdbcTemplate.queryForList("select id from task where id > ? order by id", 0L);
+
+            List<String> violations = checker.violations(10);
+
+            assertThat(violations).anySatisfy(v -> assertThat(v).startsWith("full scan of task").contains("where title = ?"));
+            assertThat(violations).anySatisfy(v -> assertThat(v).startsWith("sort without index over 51 rows").contains("order by title"));
+            assertThat(violations).noneSatisfy(v -> assertThat(v).contains("where id > ? order by id"));
+        } finally {
+            jdbcTemplate.update("delete from task where project_id = 100000");
+            jdbcTemplate.update("delete from project where id = 100000");
+        }
+    }
+
+
+    private static void assertOk(ResponseEntity<?> response, String call) {
+        assertThat(response.getStatusCode().is2xxSuccessful()).as(call + ": " + response.getStatusCode()).isTrue();
+    }
+
+    private static HttpEntity<String> json(String body) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        return new HttpEntity<>(body, headers);
+    }
+
+    private static String taskJson(long projectId, Long parentId) {
+        return "{\"title\":\"Plan check\",\"description\":\"Query plans\",\"status\":\"TODO\",\"projectId\":" + projectId
+                + ",\"dueDate\":\"" + LocalDate.now().plusDays(3) + "\",\"tags\":[\"backend\"]"
+                + (parentId != null ? ",\"parentId\":" + parentId : "") + "}";
+    }
+}
@@ -0,0 +1,182 @@
+package com.portfolio.mytaskmanager;
+
+import com.portfolio.mytaskmanager.datasource.ReplicaDataSourceConfig;
+import com.portfolio.mytaskmanager.datasource.ReplicaRoutingDataSource;
+import com.portfolio.mytaskmanager.dto.ProjectResponseDTO;
+import com.portfolio.mytaskmanager.dto.TaskRequestDTO;
+import com.portfolio.mytaskmanager.dto.TaskResponseDTO;
+import com.portfolio.mytaskmanager.entity.Project;
+import com.portfolio.mytaskmanager.entity.Status;
+import com.portfolio.mytaskmanager.repository.ProjectRepository;
+import com.portfolio.mytaskmanager.service.ProjectService;
+import com.portfolio.mytaskmanager.service.TaskService;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*  Two embedded H2 databases play primary and replica
+    "replication" is a copy of the primary (H2 SCRIPT) into the replica, after that both are changed
+    separately so every read shows which database answered it
+*/
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "datasource.replicas.urls=jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1",
+        "datasource.replicas.lag-query=select seconds from replica_lag",
+        "datasource.replicas.max-lag=PT5S",
+        "datasource.replicas.check-interval=PT1H"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ComponentScan(basePackageClasses = {TaskService.class, com.portfolio.mytaskmanager.index.TaskIndex.class})
+@Import(ReplicaDataSourceConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class ReplicaRoutingTest {
+
+    @Autowired
+    private TaskService service;
+
+    @Autowired
+    private ProjectService projectService;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    // plain connections without a transaction, always the primary
+    @Autowired
+    private JdbcTemplate primary;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private ReplicaRoutingDataSource replicaDataSource;
+
+    private final JdbcTemplate replica = new JdbcTemplate(
+            new DriverManagerDataSource("jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1", "sa", ""));
+
+    private Long projectId;
+    private Long taskId;
+
+    @BeforeEach
+    void setUp() {
+        projectId = projectRepository.save(Project.builder().name("Routing").description("x").build()).getId();
+        taskId = service.create(request("Written on primary")).getId();
+        replicate();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        projectRepository.deleteAll();
+    }
+
+
+                                    // ====== ROUTING ======
+
+    @Test
+    void readOnlyTransaction_whenReplicaHealthy_thenAnsweredByReplica() {
+
+        replica.update("update task set title = ? where id = ?", "Read from replica", taskId);
+
+        assertThat(service.findById(taskId).getTitle()).isEqualTo("Read from replica");
+        assertThat(service.findAll()).extracting(TaskResponseDTO::getTitle).containsExactly("Read from replica");
+        assertThat(primary.queryForObject("select title from task where id = ?", String.class, taskId))
+                .isEqualTo("Written on primary");
+    }
+
+    @Test
+    void write_whenReplicaConfigured_thenGoesToPrimaryOnly() {
+
+        service.update(taskId, request("Renamed"));
+
+        assertThat(primary.queryForObject("select title from task where id = ?", String.class, taskId)).isEqualTo("Renamed");
+        assertThat(replica.queryForObject("select title from task where id = ?", String.class, taskId))
+                .isEqualTo("Written on primary");
+    }
+
+
+                                    // ====== CACHES ======
+
+    @Test
+    void readOnlyTransaction_whenReplicaAnswers_thenNothingPutIntoSecondLevelCache() {
+
+        replica.update("update project set name = ? where id = ?", "Old name on replica", projectId);
+        Cache cache = entityManagerFactory.getCache();
+        cache.evictAll();
+
+        // the task read loads its project from the replica
+        assertThat(service.findById(taskId).getTitle()).isEqualTo("Written on primary");
+        assertThat(cache.contains(Project.class, projectId)).isFalse();
+
+        // the same load in a read-write transaction (primary) is cached
+        transactionTemplate.executeWithoutResult(tx -> projectRepository.findById(projectId));
+        assertThat(cache.contains(Project.class, projectId)).isTrue();
+    }
+
+    @Test
+    void projectList_whenReplicaBehind_thenLoadedFromPrimary() {
+
+        replica.update("update project set name = ? where id = ?", "Old name on replica", projectId);
+
+        assertThat(projectService.findAll()).extracting(ProjectResponseDTO::getName).containsExactly("Routing");
+    }
+
+
+                                    // ====== HEALTH ======
+
+    @Test
+    void readOnlyTransaction_whenReplicaLagsTooMuch_thenPrimaryUntilCaughtUp() {
+
+        replica.update("update task set title = ? where id = ?", "Read from replica", taskId);
+        replica.update("update replica_lag set seconds = 60");
+        replicaDataSource.checkHealth();
+
+        assertThat(replicaDataSource.healthyReplicaCount()).isZero();
+        assertThat(service.findById(taskId).getTitle()).isEqualTo("Written on primary");
+
+        replica.update("update replica_lag set seconds = 0");
+        replicaDataSource.checkHealth();
+
+        assertThat(service.findById(taskId).getTitle()).isEqualTo("Read from replica");
+    }
+
+
+    // Copies schema and data of the primary into an empty replica
+    private void replicate() {
+        replica.execute("drop all objects");
+        List<String> script = primary.queryForList("script", String.class);
+        script.forEach(replica::execute);
+        replica.execute("create table replica_lag (seconds int)");
+        replica.update("insert into replica_lag values (0)");
+        replicaDataSource.checkHealth();
+    }
+
+    private TaskRequestDTO request(String title) {
+        TaskRequestDTO request = new TaskRequestDTO();
+        request.setTitle(title);
+        request.setDescription("x");
+        request.setStatus(Status.TODO);
+        request.setProjectId(projectId);
+        return request;
+    }
+}
@@ -0,0 +1,345 @@
+package com.portfolio.mytaskmanager;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.portfolio.mytaskmanager.cache.ProjectListCache;
+import com.portfolio.mytaskmanager.index.ProjectNameIndex;
+import com.portfolio.mytaskmanager.index.TaskIndexLoader;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*  Not part of the normal build, run with: mvn test -P benchmark -Dtest=ScaleBenchmarkTest
+    loads TaskDataGenerator data of every size in -Dbenchmark.sizes (default 10000,100000) into an H2 file
+    database, then calls every endpoint over HTTP and records per endpoint and size:
+    latency (p50/p95/p99/max of one client), throughput (requests/s of benchmark.clients clients),
+    statements per request (H2 query statistics, Hibernate and JdbcTemplate alike), bytes allocated per request
+    by all threads, response size, and the heap used after the load
+    results are printed and written to target/benchmark/scale-benchmark.csv, endpoints whose latency grows much
+    faster than the data are the scaling cliffs
+
+    bigger sizes: -Dbenchmark.sizes=1000000 (a few GB of heap for the in-memory indexes, -DargLine=-Xmx8g)
+*/
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"spring.datasource.url=jdbc:h2:file:./target/benchmark/scale;DB_CLOSE_DELAY=-1",
+                "warmup.enabled=false", "degradation.enabled=false", "audit.directory=target/benchmark/audit",
+                "tasks.archive.enabled=false", "spring.jpa.show-sql=false"})
+public class ScaleBenchmarkTest {
+
+    private static final long SEED = 42;
+
+    private static final Duration BUDGET = Duration.parse(System.getProperty("benchmark.budget", "PT2S"));
+    private static final Duration THROUGHPUT_TIME = Duration.parse(System.getProperty("benchmark.throughput-time", "PT1S"));
+    private static final int CLIENTS = Integer.getInteger("benchmark.clients", 4);
+    private static final int MAX_REQUESTS = 500;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TaskIndexLoader indexLoader;
+
+    @Autowired
+    private ProjectNameIndex nameIndex;
+
+    @Autowired
+    private ProjectListCache projectListCache;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final HttpClient http = HttpClient.newHttpClient();
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    void endpoints_acrossDataSizes() throws Exception {
+
+        int[] sizes = Arrays.stream(System.getProperty("benchmark.sizes", "10000,100000").split(","))
+                .map(String::trim).mapToInt(Integer::parseInt).toArray();
+        LocalDate today = LocalDate.now();
+        List<Result> results = new ArrayList<>();
+
+        jdbcTemplate.execute("set query_statistics true");
+        jdbcTemplate.execute("set query_statistics_max_entries 10000");
+
+        for (int tasks : sizes) {
+            int projects = TaskDataGenerator.projectsFor(tasks);
+            long loadStart = System.nanoTime();
+            reset();
+            new TaskDataGenerator(SEED, today).generate(jdbcTemplate, projects, tasks);
+            reloadMemory();
+            long loadMillis = (System.nanoTime() - loadStart) / 1_000_000;
+            long heapMb = usedHeapAfterGc() / (1024 * 1024);
+            System.out.printf("%n=== %,d tasks in %,d projects, loaded in %,d ms, heap after load %,d MB ===%n",
+                    tasks, projects, loadMillis, heapMb);
+
+            Ids ids = new Ids(projects, tasks, today);
+            for (Endpoint endpoint : endpoints()) {
+                Result result = measure(endpoint, ids, tasks, heapMb);
+                results.add(result);
+                System.out.println(result.line());
+            }
+        }
+
+        writeCsv(results);
+        assertThat(results).allSatisfy(result -> assertThat(result.failures()).as(result.endpoint()).isZero());
+    }
+
+
+    // Every endpoint a client calls, writes last so the reads see the generated data only
+    private List<Endpoint> endpoints() {
+        return List.of(
+                get("GET /api/projects", ids -> "/api/projects"),
+                get("GET /api/projects/{id}", ids -> "/api/projects/" + ids.project()),
+                get("GET /api/projects/suggest", ids -> "/api/projects/suggest?prefix=project%200" + ids.digit()),
+                get("GET /api/projects/{id}/critical-path", ids -> "/api/projects/" + ids.project() + "/critical-path"),
+                get("GET /api/tasks", ids -> "/api/tasks"),
+                get("GET /api/tasks/export", ids -> "/api/tasks/export"),
+                get("GET /api/tasks/export?projectId", ids -> "/api/tasks/export?projectId=" + ids.project()),
+                get("GET /api/tasks/{id}", ids -> "/api/tasks/" + ids.task()),
+                get("GET /api/tasks/{id}/subtasks", ids -> "/api/tasks/" + ids.task() + "/subtasks"),
+                get("GET /api/tasks/{id}/rollup", ids -> "/api/tasks/" + ids.task() + "/rollup"),
+                get("GET /api/tasks/{id}/blockers", ids -> "/api/tasks/" + ids.task() + "/blockers"),
+                get("GET /api/tasks/search", ids -> "/api/tasks/search?q=" + ids.word()),
+                get("GET /api/tasks/tags", ids -> "/api/tasks/tags?all=backend&any=q3,urgent&includeTasks=true"),
+                get("GET /api/tasks/upcoming", ids -> "/api/tasks/upcoming?limit=20"),
+                get("GET /api/tasks/calendar", ids -> "/api/tasks/calendar?from=" + ids.today + "&to=" + ids.today.plusDays(30)),
+                new Endpoint("POST /api/tasks", "POST", ids -> "/api/tasks", ids -> taskJson(ids, "Created")),
+                new Endpoint("PUT /api/tasks/{id}", "PUT", ids -> "/api/tasks/" + ids.created.peekFirst(), ids -> taskJson(ids, "Updated")),
+                new Endpoint("DELETE /api/tasks/{id}", "DELETE", ids -> "/api/tasks/" + ids.deletable(), ids -> null)
+        );
+    }
+
+    private static Endpoint get(String name, Function<Ids, String> path) {
+        return new Endpoint(name, "GET", path, ids -> null);
+    }
+
+    private String taskJson(Ids ids, String title) {
+        return "{\"title\":\"" + title + " task\",\"description\":\"Benchmark\",\"status\":\"TODO\",\"projectId\":"
+                + ids.project() + ",\"dueDate\":\"" + ids.today.plusDays(7) + "\",\"tags\":[\"bench\"]}";
+    }
+
+    private Result measure(Endpoint endpoint, Ids ids, int tasks, long heapMb) throws Exception {
+        // warm-up, also proves the endpoint answers
+        int failures = 0;
+        for (int i = 0; i < 3; i++) {
+            failures += call(endpoint, ids).ok() ? 0 : 1;
+        }
+
+        long statementsBefore = statementCount();
+        long allocatedBefore = allocatedBytes();
+        List<Long> latencies = new ArrayList<>();
+        long bytes = 0;
+        long deadline = System.nanoTime() + BUDGET.toNanos();
+        while (latencies.size() < MAX_REQUESTS && (latencies.isEmpty() || System.nanoTime() < deadline)) {
+            long start = System.nanoTime();
+            Response response = call(endpoint, ids);
+            latencies.add(System.nanoTime() - start);
+            bytes += response.bytes();
+            failures += response.ok() ? 0 : 1;
+        }
+        long allocated = allocatedBytes() - allocatedBefore;
+        // minus the first statistics query, counted once it has run
+        long statements = statementCount() - statementsBefore - 1;
+
+        double throughput = endpoint.method().equals("GET") ? throughput(endpoint, ids) : Double.NaN;
+
+        long[] sorted = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+        int n = sorted.length;
+        return new Result(tasks, endpoint.name(), n, millis(sorted, 0.50), millis(sorted, 0.95), millis(sorted, 0.99),
+                sorted[n - 1] / 1e6, throughput, (double) statements / n, allocated / n / 1024.0, bytes / n / 1024.0,
+                heapMb, failures);
+    }
+
+    // Requests per second of CLIENTS concurrent clients in THROUGHPUT_TIME
+    private double throughput(Endpoint endpoint, Ids ids) throws Exception {
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        try {
+            long start = System.nanoTime();
+            long deadline = start + THROUGHPUT_TIME.toNanos();
+            List<Future<Integer>> counts = new ArrayList<>();
+            for (int c = 0; c < CLIENTS; c++) {
+                Ids clientIds = new Ids(ids.projects, ids.tasks, ids.today);
+                counts.add(clients.submit(() -> {
+                    int done = 0;
+                    while (System.nanoTime() < deadline) {
+                        call(endpoint, clientIds);
+                        done++;
+                    }
+                    return done;
+                }));
+            }
+            long total = 0;
+            for (Future<Integer> count : counts) {
+                total += count.get();
+            }
+            return total / ((System.nanoTime() - start) / 1e9);
+        } finally {
+            clients.shutdownNow();
+        }
+    }
+
+    private Response call(Endpoint endpoint, Ids ids) throws IOException, InterruptedException {
+        String body = endpoint.body().apply(ids);
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + endpoint.path().apply(ids)))
+                .method(endpoint.method(), body != null ? HttpRequest.BodyPublishers.ofString(body) : HttpRequest.BodyPublishers.noBody());
+        if (body != null) {
+            request.header("Content-Type", "application/json");
+        }
+        HttpResponse<InputStream> response = http.send(request.build(), HttpResponse.BodyHandlers.ofInputStream());
+        long bytes;
+        if (endpoint.method().equals("POST") && response.statusCode() == 201) {
+            byte[] json = response.body().readAllBytes();
+            bytes = json.length;
+            ids.created.addLast(mapper.readTree(json).get("id").asLong());
+        } else {
+            try (InputStream in = response.body()) {
+                bytes = in.transferTo(OutputStream.nullOutputStream());
+            }
+        }
+        return new Response(response.statusCode() / 100 == 2, bytes);
+    }
+
+    // Empty tables, then the caches and indexes see the same state as the database
+    private void reset() {
+        jdbcTemplate.execute("set referential_integrity false");
+        for (String table : List.of("task_tag", "task_closure", "task_dependency", "task_archive", "task", "project", "audit_event")) {
+            jdbcTemplate.execute("truncate table " + table + " restart identity");
+        }
+        jdbcTemplate.execute("set referential_integrity true");
+    }
+
+    private void reloadMemory() {
+        entityManagerFactory.getCache().evictAll();
+        projectListCache.invalidate();
+        nameIndex.onApplicationReady();
+        indexLoader.reload();
+    }
+
+    // rand() keeps H2 from answering the query from its result cache
+    private long statementCount() {
+        Long count = jdbcTemplate.queryForObject("select sum(execution_count) from information_schema.query_statistics where rand() >= 0", Long.class);
+        return count != null ? count : 0;
+    }
+
+    private static long allocatedBytes() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        return Arrays.stream(threads.getThreadAllocatedBytes(threads.getAllThreadIds())).filter(b -> b > 0).sum();
+    }
+
+    private static long usedHeapAfterGc() {
+        System.gc();
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    private static double millis(long[] sorted, double percentile) {
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(percentile * sorted.length) - 1)] / 1e6;
+    }
+
+    private static void writeCsv(List<Result> results) throws IOException {
+        Path file = Path.of("target", "benchmark", "scale-benchmark.csv");
+        Files.createDirectories(file.getParent());
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(file))) {
+            out.println("tasks,endpoint,requests,p50_ms,p95_ms,p99_ms,max_ms,throughput_rps,statements_per_request,"
+                    + "allocated_kb_per_request,response_kb,heap_mb,failures");
+            results.forEach(r -> out.println(String.format(Locale.ROOT, "%d,%s,%d,%.3f,%.3f,%.3f,%.3f,%.1f,%.2f,%.1f,%.1f,%d,%d",
+                    r.tasks(), r.endpoint(), r.requests(), r.p50(), r.p95(), r.p99(), r.max(), r.throughput(),
+                    r.statements(), r.allocatedKb(), r.responseKb(), r.heapMb(), r.failures())));
+        }
+        System.out.println("Results written to " + file.toAbsolutePath());
+    }
+
+
+    /*  Random existing IDs per call, the same sequence on every run
+        PUT and DELETE take the tasks created by POST, DELETE then the generated ones from the highest ID down
+    */
+    private static final class Ids {
+
+        private final int projects;
+        private final int tasks;
+        private final LocalDate today;
+        private final SplittableRandom random = new SplittableRandom(SEED);
+        private final Deque<Long> created = new ArrayDeque<>();
+        private long nextGenerated;
+
+        Ids(int projects, int tasks, LocalDate today) {
+            this.projects = projects;
+            this.tasks = tasks;
+            this.today = today;
+            this.nextGenerated = tasks;
+        }
+
+        long project() {
+            return 1 + random.nextInt(projects);
+        }
+
+        long task() {
+            return 1 + random.nextInt(tasks);
+        }
+
+        long deletable() {
+            Long id = created.pollFirst();
+            return id != null ? id : nextGenerated--;
+        }
+
+        int digit() {
+            return random.nextInt(10);
+        }
+
+        String word() {
+            return List.of("login", "checkout", "report", "search", "deploy", "cache").get(random.nextInt(6));
+        }
+    }
+
+    private record Endpoint(String name, String method, Function<Ids, String> path, Function<Ids, String> body) {
+    }
+
+    private record Response(boolean ok, long bytes) {
+    }
+
+    private record Result(int tasks, String endpoint, int requests, double p50, double p95, double p99, double max,
+                          double throughput, double statements, double allocatedKb, double responseKb, long heapMb,
+                          int failures) {
+
+        String line() {
+            return String.format(Locale.ROOT, "%-38s n=%4d  p50=%9.2f  p95=%9.2f  p99=%9.2f  max=%9.2f ms  %9.1f req/s"
+                            + "  %6.2f stmt/req  %9.1f KB alloc/req  %9.1f KB/resp%s",
+                    endpoint, requests, p50, p95, p99, max, throughput, statements, allocatedKb, responseKb,
+                    failures > 0 ? "  FAILED " + failures : "");
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.portfolio.mytaskmanager;
+
+import com.portfolio.mytaskmanager.entity.Project;
+import com.portfolio.mytaskmanager.repository.ProjectRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The schema comes from the Flyway scripts in db/migration/h2, Hibernate validates it (ddl-auto=validate)
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class SchemaMigrationTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @AfterEach
+    void cleanUp() {
+        projectRepository.deleteAll();
+    }
+
+
+                                    // ====== MIGRATIONS ======
+
+    @Test
+    void migrations_whenContextStarts_thenAllVersionsApplied() {
+
+        // Flyway creates its history table with quoted lower case names, the schema creation row has no version
+        assertThat(jdbcTemplate.queryForList("select \"version\" from \"flyway_schema_history\" "
+                + "where \"success\" = true and \"version\" is not null order by \"installed_rank\"", String.class))
+                .containsExactly("1", "2", "3", "4", "5", "6");
+    }
+
+    @Test
+    void indexes_whenMigrated_thenQueryIndexesExist() {
+
+        assertThat(jdbcTemplate.queryForList("select lower(index_name) from information_schema.indexes", String.class))
+                .contains("idx_task_project_id", "idx_task_status_finished_at", "idx_task_due_date", "idx_project_name_upper");
+    }
+
+    @Test
+    void nameUpper_whenProjectSaved_thenFilledByDatabase() {
+
+        Long id = projectRepository.save(Project.builder().name("Web Shop").description("x").build()).getId();
+
+        assertThat(jdbcTemplate.queryForObject("select name_upper from project where id = ?", String.class, id)).isEqualTo("WEB SHOP");
+        assertThat(projectRepository.existsByNameIgnoreCase("web shop")).isTrue();
+    }
+
+    @Test
+    void migrations_whenDatabaseOfReleasedVersion_thenBaselinedAndMigratedToTheSameSchema() {
+
+        // a database as the released version left it: tables from ddl-auto=update, no Flyway history
+        DriverManagerDataSource released = new DriverManagerDataSource("jdbc:h2:mem:released;DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate releasedJdbc = new JdbcTemplate(released);
+        releasedJdbc.execute("create table project (end_date date, start_date date, id bigint generated by default as identity, "
+                + "description varchar(255), name varchar(255), primary key (id))");
+        releasedJdbc.execute("create table task (due_date date, id bigint generated by default as identity, project_id bigint not null, "
+                + "title varchar(100) not null, description varchar(1000) not null, "
+                + "status enum ('DELAYED','DONE','FAILED','IN_PROGRESS','TODO'), primary key (id))");
+        releasedJdbc.execute("alter table task add constraint FKk8qrwowg31kx7hp93sru1pdqa foreign key (project_id) references project");
+        releasedJdbc.update("insert into project (id, name, description) values (1, 'Old project', 'x')");
+        releasedJdbc.update("insert into task (id, title, description, status, project_id) values (1, 'Old task', 'x', 'TODO', 1)");
+
+        try {
+            Flyway.configure().dataSource(released).locations("classpath:db/migration/h2")
+                    .baselineOnMigrate(true).baselineVersion("1").load().migrate();
+
+            assertThat(releasedJdbc.queryForList("select \"version\" from \"flyway_schema_history\" "
+                    + "where \"success\" = true and \"version\" is not null order by \"installed_rank\"", String.class))
+                    .containsExactly("1", "2", "3", "4", "5", "6");
+            // same tables, columns and indexes as a database built from V1, which Hibernate validated for this context
+            assertThat(columns(releasedJdbc)).isEqualTo(columns(jdbcTemplate));
+            assertThat(indexes(releasedJdbc)).isEqualTo(indexes(jdbcTemplate));
+            assertThat(releasedJdbc.queryForObject("select title from task where id = 1", String.class)).isEqualTo("Old task");
+            assertThat(releasedJdbc.queryForList("select ancestor_id from task_closure where descendant_id = 1 and depth = 0", Long.class))
+                    .containsExactly(1L);
+        } finally {
+            releasedJdbc.execute("drop all objects");
+        }
+    }
+
+
+    private static List<Map<String, Object>> columns(JdbcTemplate jdbc) {
+        return jdbc.queryForList("select lower(table_name) t, lower(column_name) c, data_type, is_nullable "
+                + "from information_schema.columns where table_schema = 'PUBLIC' and table_name <> 'flyway_schema_history' "
+                + "order by t, c");
+    }
+
+    private static List<String> indexes(JdbcTemplate jdbc) {
+        return jdbc.queryForList("select lower(index_name) from information_schema.indexes where table_schema = 'PUBLIC' "
+                + "and table_name <> 'flyway_schema_history' and index_name not like 'PRIMARY_KEY%' order by 1", String.class);
+    }
+}
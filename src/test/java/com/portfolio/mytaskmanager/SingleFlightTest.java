@@ -0,0 +1,111 @@
+package com.portfolio.mytaskmanager;
+
+import com.portfolio.mytaskmanager.cache.SingleFlight;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class SingleFlightTest {
+
+    private final SingleFlight<Long, String> flight = new SingleFlight<>("test");
+
+
+                                    // ====== COALESCING ======
+
+    @Test
+    void execute_whenConcurrentCallsForSameKey_thenOneLoadSharedByAll() throws Exception {
+
+        int callers = 20;
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(executor.submit(() -> flight.execute(1L, () -> {
+                    loads.incrementAndGet();
+                    await(release);
+                    return "project 1";
+                })));
+            }
+            // every other caller has to join the running load before it is released
+            long deadline = System.currentTimeMillis() + 5_000;
+            while (flight.coalescedCount() < callers - 1 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+
+            for (Future<String> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("project 1");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(flight.executedCount()).isEqualTo(1);
+        assertThat(flight.coalescedCount()).isEqualTo(callers - 1);
+    }
+
+    @Test
+    void execute_whenCallsAreSequential_thenEachLoads() {
+
+        assertThat(flight.execute(1L, () -> "first")).isEqualTo("first");
+        assertThat(flight.execute(1L, () -> "second")).isEqualTo("second");
+        assertThat(flight.execute(2L, () -> "other")).isEqualTo("other");
+
+        assertThat(flight.executedCount()).isEqualTo(3);
+        assertThat(flight.coalescedCount()).isZero();
+    }
+
+    @Test
+    void execute_whenLoadFails_thenExceptionForCallerAndKeyFreed() {
+
+        assertThatThrownBy(() -> flight.execute(1L, () -> {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Task not found");
+        }))
+                .isInstanceOfSatisfying(ResponseStatusException.class, ex ->
+                        assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND)
+                );
+
+        assertThat(flight.execute(1L, () -> "loaded again")).isEqualTo("loaded again");
+    }
+
+
+                                    // ====== METRICS ======
+
+    @Test
+    void bindTo_thenCountersExposedPerResult() {
+
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        flight.bindTo(registry);
+        flight.execute(1L, () -> "x");
+
+        assertThat(registry.get("singleflight.calls").tag("name", "test").tag("result", "executed")
+                .functionCounter().count()).isEqualTo(1.0);
+        assertThat(registry.get("singleflight.calls").tag("result", "coalesced")
+                .functionCounter().count()).isZero();
+    }
+
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
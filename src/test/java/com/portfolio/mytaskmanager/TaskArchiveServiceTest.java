@@ -0,0 +1,124 @@
+package com.portfolio.mytaskmanager;
+
+import com.portfolio.mytaskmanager.entity.ArchivedTask;
+import com.portfolio.mytaskmanager.entity.Project;
+import com.portfolio.mytaskmanager.entity.Status;
+import com.portfolio.mytaskmanager.entity.Task;
+import com.portfolio.mytaskmanager.repository.ArchivedTaskRepository;
+import com.portfolio.mytaskmanager.repository.ProjectRepository;
+import com.portfolio.mytaskmanager.repository.TaskRepository;
+import com.portfolio.mytaskmanager.service.TaskArchiveService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import(TaskArchiveService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "tasks.archive.min-age=P30D",
+        "tasks.archive.batch-size=2"
+})
+public class TaskArchiveServiceTest {
+
+    @Autowired
+    private TaskArchiveService archiveService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private ArchivedTaskRepository archiveRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    private Project project;
+
+    @BeforeEach
+    void setUp() {
+        project = projectRepository.save(Project.builder().name("Archive").description("x").build());
+    }
+
+    @AfterEach
+    void cleanUp() {
+        archiveRepository.deleteAll();
+        taskRepository.deleteAll();
+        projectRepository.deleteAll();
+    }
+
+
+                                    // ====== ARCHIVE ======
+
+    @Test
+    void archive_whenFinishedTasksAreOld_thenTheyAreMovedInBatches() {
+
+        Task oldDone1 = saveTask("Old done 1", Status.DONE, LocalDateTime.now().minusDays(40));
+        Task oldDone2 = saveTask("Old done 2", Status.DONE, LocalDateTime.now().minusDays(50));
+        Task oldFailed = saveTask("Old failed", Status.FAILED, LocalDateTime.now().minusDays(31));
+
+        int archived = archiveService.archiveFinishedTasks();
+
+        assertThat(archived).isEqualTo(3);
+        assertThat(taskRepository.findAll()).isEmpty();
+        assertThat(archiveRepository.findAll())
+                .extracting(ArchivedTask::getId)
+                .containsExactlyInAnyOrder(oldDone1.getId(), oldDone2.getId(), oldFailed.getId());
+
+        ArchivedTask copy = archiveRepository.findById(oldFailed.getId()).orElseThrow();
+        assertThat(copy.getTitle()).isEqualTo("Old failed");
+        assertThat(copy.getStatus()).isEqualTo(Status.FAILED);
+        assertThat(copy.getProject().getId()).isEqualTo(project.getId());
+        assertThat(copy.getArchivedAt()).isNotNull();
+    }
+
+    @Test
+    void archive_whenTaskIsActiveOrRecentlyFinished_thenItStaysInHotTable() {
+
+        Task active = saveTask("Active", Status.IN_PROGRESS, null);
+        Task recent = saveTask("Recent", Status.DONE, LocalDateTime.now().minusDays(2));
+        Task legacy = saveTask("Legacy", Status.DONE, null);
+
+        int archived = archiveService.archiveFinishedTasks();
+
+        assertThat(archived).isZero();
+        assertThat(taskRepository.findAll())
+                .extracting(Task::getId)
+                .containsExactlyInAnyOrder(active.getId(), recent.getId(), legacy.getId());
+        assertThat(taskRepository.findById(legacy.getId()).orElseThrow().getFinishedAt()).isNotNull();
+        assertThat(archiveRepository.count()).isZero();
+    }
+
+    @Test
+    void deleteProject_whenProjectHasArchivedTasks_thenArchiveIsCleanedToo() {
+
+        saveTask("Old done", Status.DONE, LocalDateTime.now().minusDays(60));
+        archiveService.archiveFinishedTasks();
+
+        projectRepository.deleteById(project.getId());
+
+        assertThat(archiveRepository.count()).isZero();
+    }
+
+    private Task saveTask(String title, Status status, LocalDateTime finishedAt) {
+        return taskRepository.save(Task.builder()
+                .title(title)
+                .description("d")
+                .status(status)
+                .dueDate(LocalDate.now().plusDays(1))
+                .finishedAt(finishedAt)
+                .project(project)
+                .build());
+    }
+}
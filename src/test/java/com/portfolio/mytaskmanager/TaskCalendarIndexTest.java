@@ -0,0 +1,93 @@
+package com.portfolio.mytaskmanager;
+
+import com.portfolio.mytaskmanager.dto.CalendarDayDTO;
+import com.portfolio.mytaskmanager.dto.TaskResponseDTO;
+import com.portfolio.mytaskmanager.entity.Project;
+import com.portfolio.mytaskmanager.entity.Status;
+import com.portfolio.mytaskmanager.entity.Task;
+import com.portfolio.mytaskmanager.index.TaskCalendarIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TaskCalendarIndexTest {
+
+    private TaskCalendarIndex index;
+
+    private final LocalDate first = LocalDate.of(2030, 3, 1);
+    private final Project web = Project.builder().id(1L).name("Web").build();
+    private final Project mobile = Project.builder().id(2L).name("Mobile").build();
+
+    @BeforeEach
+    void setUp() {
+        index = new TaskCalendarIndex();
+        index.onTaskSaved(task(1L, first, web));
+        index.onTaskSaved(task(2L, first, mobile));
+        index.onTaskSaved(task(3L, first.plusDays(10), web));
+        index.onTaskSaved(task(4L, first.plusMonths(1), web));
+        index.onTaskSaved(task(5L, null, web));
+        index.markLoaded();
+    }
+
+
+                                    // ====== RANGE ======
+
+    @Test
+    void range_whenMonthRequested_thenOnlyDaysWithTasksInRange() {
+
+        List<CalendarDayDTO> days = index.range(first, first.plusDays(30), false);
+
+        assertThat(days).extracting(CalendarDayDTO::getDate).containsExactly(first, first.plusDays(10));
+        assertThat(days).extracting(CalendarDayDTO::getCount).containsExactly(2, 1);
+        assertThat(days.get(0).getTasks()).isNull();
+    }
+
+    @Test
+    void range_whenTasksIncluded_thenSummariesReturnedPerDay() {
+
+        List<CalendarDayDTO> days = index.range(first, first, true);
+
+        assertThat(days).hasSize(1);
+        assertThat(days.get(0).getTasks()).extracting(TaskResponseDTO::getId).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void onTaskSaved_whenDueDateChanges_thenTaskMovesToOtherBucket() {
+
+        index.onTaskSaved(task(1L, first.plusDays(10), web));
+
+        assertThat(index.range(first, first, false)).extracting(CalendarDayDTO::getCount).containsExactly(1);
+        assertThat(index.range(first.plusDays(10), first.plusDays(10), false))
+                .extracting(CalendarDayDTO::getCount).containsExactly(2);
+    }
+
+    @Test
+    void onTaskDeleted_andOnProjectDeleted_thenBucketsShrink() {
+
+        index.onTaskDeleted(3L);
+        index.onProjectDeleted(2L);
+
+        assertThat(index.range(first, first.plusMonths(1), true))
+                .extracting(CalendarDayDTO::getDate).containsExactly(first, first.plusMonths(1));
+        assertThat(index.range(first, first, true).get(0).getTasks())
+                .extracting(TaskResponseDTO::getId).containsExactly(1L);
+    }
+
+    @Test
+    void onTaskSaved_whenManyDays_thenEveryDayIsFound() {
+
+        for (long i = 0; i < 500; i++) {
+            index.onTaskSaved(task(100 + i, first.plusYears(1).plusDays(i), web));
+        }
+
+        assertThat(index.range(first.plusYears(1), first.plusYears(1).plusDays(365), false)).hasSize(366);
+    }
+
+    private Task task(Long id, LocalDate dueDate, Project project) {
+        return Task.builder().id(id).title("T" + id).description("d").dueDate(dueDate).status(Status.TODO).project(project).build();
+    }
+}
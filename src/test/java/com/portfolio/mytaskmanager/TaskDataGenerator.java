@@ -0,0 +1,209 @@
+package com.portfolio.mytaskmanager;
+
+import com.portfolio.mytaskmanager.entity.Status;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/*  Synthetic projects and tasks for scale tests, the same seed and sizes always give the same rows
+    the rows go in with plain JDBC batches (no entities), IDs 1..n, so a million tasks load in seconds
+
+    distributions, roughly what a team tracker looks like after a few years:
+    - tasks per project follow a power law (Zipf, s = 1.1): a few huge projects, a long tail of small ones
+    - status: 45% DONE, 25% TODO, 14% IN_PROGRESS, 8% DELAYED, 8% FAILED
+    - due date: none for 10%; finished tasks in the past year, open ones mostly in the next weeks
+      (exponential, mean 30 days) with some overdue, delayed ones overdue
+    - 0-3 tags per task from a vocabulary of 40, popular tags much more frequent than rare ones
+    - 15% of the tasks are subtasks of an earlier task of the project, 5% are blocked by the previous one
+*/
+class TaskDataGenerator {
+
+    private static final int BATCH = 5000;
+
+    private static final String[] VERBS = {"Fix", "Add", "Update", "Remove", "Refactor", "Review", "Test", "Deploy",
+            "Document", "Migrate", "Investigate", "Design", "Optimize", "Configure", "Release"};
+    private static final String[] NOUNS = {"login", "checkout", "invoice", "report", "dashboard", "search", "export",
+            "import", "API", "cache", "database", "payment", "profile", "settings", "notification", "upload",
+            "calendar", "onboarding", "permissions", "pipeline"};
+    private static final String[] WORDS = {"customer", "needs", "the", "page", "after", "release", "slow", "when",
+            "many", "users", "open", "it", "check", "logs", "and", "metrics", "before", "merge", "with", "backend"};
+    private static final String[] TAGS = {"bug", "feature", "backend", "frontend", "urgent", "q1", "q2", "q3", "q4",
+            "tech-debt", "security", "performance", "ux", "docs", "infra", "mobile", "api", "database", "test",
+            "release", "customer-a", "customer-b", "customer-c", "design", "research", "ops", "billing", "search",
+            "reporting", "auth", "i18n", "accessibility", "analytics", "legal", "migration", "monitoring",
+            "onboarding", "payments", "support", "hotfix"};
+
+    private final long seed;
+    private final LocalDate today;
+
+    TaskDataGenerator(long seed, LocalDate today) {
+        this.seed = seed;
+        this.today = today;
+    }
+
+    // About 100 tasks per project on average
+    static int projectsFor(int tasks) {
+        return Math.max(1, tasks / 100);
+    }
+
+    /*  Inserts the projects and tasks into empty tables and moves the ID sequences past them
+        task_closure gets the rows TaskHierarchyService keeps (self row, parent row), task_tag and task_dependency
+        their rows, everything in batches of BATCH rows
+    */
+    void generate(JdbcTemplate jdbc, int projects, int tasks) {
+        SplittableRandom random = new SplittableRandom(seed);
+
+        List<Object[]> rows = new ArrayList<>(BATCH);
+        for (int p = 1; p <= projects; p++) {
+            LocalDate start = random.nextInt(10) == 0 ? null : today.minusDays(random.nextInt(365));
+            LocalDate end = start == null || random.nextInt(4) == 0 ? null : start.plusDays(30 + random.nextInt(335));
+            rows.add(new Object[]{(long) p, String.format("Project %06d %s", p, pick(random, NOUNS)),
+                    sentence(random, 8), date(start), date(end)});
+            if (rows.size() == BATCH) {
+                jdbc.batchUpdate("insert into project (id, name, description, start_date, end_date) values (?, ?, ?, ?, ?)", rows);
+                rows.clear();
+            }
+        }
+        jdbc.batchUpdate("insert into project (id, name, description, start_date, end_date) values (?, ?, ?, ?, ?)", rows);
+
+        double[] cumulative = zipf(projects, 1.1);
+        long[] lastTask = new long[projects + 1];
+        long[] lastRoot = new long[projects + 1];
+
+        List<Object[]> taskRows = new ArrayList<>(BATCH);
+        List<Object[]> closureRows = new ArrayList<>(BATCH * 2);
+        List<Object[]> tagRows = new ArrayList<>(BATCH * 2);
+        List<Object[]> dependencyRows = new ArrayList<>();
+        for (long id = 1; id <= tasks; id++) {
+            int project = sample(random, cumulative) + 1;
+            Status status = status(random);
+            LocalDate due = dueDate(random, status);
+            Timestamp finishedAt = status.isTerminal()
+                    ? Timestamp.valueOf(today.minusDays(1 + random.nextInt(400)).atTime(9 + random.nextInt(9), random.nextInt(60)))
+                    : null;
+
+            Long parent = null;
+            if (lastRoot[project] != 0 && random.nextInt(100) < 15) {
+                parent = lastRoot[project];
+                closureRows.add(new Object[]{parent, id, 1});
+            } else {
+                lastRoot[project] = id;
+            }
+            closureRows.add(new Object[]{id, id, 0});
+            if (lastTask[project] != 0 && random.nextInt(100) < 5) {
+                dependencyRows.add(new Object[]{id, lastTask[project]});
+            }
+            lastTask[project] = id;
+
+            String title = pick(random, VERBS) + " " + pick(random, NOUNS) + " #" + id;
+            taskRows.add(new Object[]{id, title, sentence(random, 12), status.name(), date(due), finishedAt, (long) project, parent});
+            for (String tag : tags(random)) {
+                tagRows.add(new Object[]{id, tag});
+            }
+
+            if (taskRows.size() == BATCH) {
+                flushTasks(jdbc, taskRows, closureRows, tagRows);
+            }
+        }
+        flushTasks(jdbc, taskRows, closureRows, tagRows);
+        for (int i = 0; i < dependencyRows.size(); i += BATCH) {
+            jdbc.batchUpdate("insert into task_dependency (task_id, blocker_id) values (?, ?)",
+                    dependencyRows.subList(i, Math.min(i + BATCH, dependencyRows.size())));
+        }
+
+        jdbc.execute("alter table project alter column id restart with " + (projects + 1));
+        jdbc.execute("alter table task alter column id restart with " + (tasks + 1));
+    }
+
+
+    private static void flushTasks(JdbcTemplate jdbc, List<Object[]> tasks, List<Object[]> closure, List<Object[]> tags) {
+        jdbc.batchUpdate("insert into task (id, title, description, status, due_date, finished_at, project_id, parent_id) "
+                + "values (?, ?, ?, ?, ?, ?, ?, ?)", tasks);
+        jdbc.batchUpdate("insert into task_closure (ancestor_id, descendant_id, depth) values (?, ?, ?)", closure);
+        jdbc.batchUpdate("insert into task_tag (task_id, tag) values (?, ?)", tags);
+        tasks.clear();
+        closure.clear();
+        tags.clear();
+    }
+
+    private static Status status(SplittableRandom random) {
+        int p = random.nextInt(100);
+        if (p < 45) return Status.DONE;
+        if (p < 70) return Status.TODO;
+        if (p < 84) return Status.IN_PROGRESS;
+        if (p < 92) return Status.DELAYED;
+        return Status.FAILED;
+    }
+
+    private LocalDate dueDate(SplittableRandom random, Status status) {
+        if (random.nextInt(10) == 0) {
+            return null;
+        }
+        return switch (status) {
+            case DONE, FAILED -> today.minusDays(1 + random.nextInt(365));
+            case DELAYED -> today.minusDays(1 + random.nextInt(60));
+            case TODO, IN_PROGRESS -> random.nextInt(10) == 0
+                    ? today.minusDays(1 + random.nextInt(30))
+                    : today.plusDays((long) (-30 * Math.log(1 - random.nextDouble())));
+        };
+    }
+
+    private static List<String> tags(SplittableRandom random) {
+        int p = random.nextInt(10);
+        int count = p < 3 ? 0 : p < 7 ? 1 : p < 9 ? 2 : 3;
+        List<String> tags = new ArrayList<>(count);
+        while (tags.size() < count) {
+            // squaring skews the pick towards the start of the list (the popular tags)
+            double u = random.nextDouble();
+            String tag = TAGS[(int) (u * u * TAGS.length)];
+            if (!tags.contains(tag)) {
+                tags.add(tag);
+            }
+        }
+        return tags;
+    }
+
+    // Cumulative probabilities of rank 1..n, weight 1 / rank^s
+    private static double[] zipf(int n, double s) {
+        double[] cumulative = new double[n];
+        double sum = 0;
+        for (int i = 0; i < n; i++) {
+            sum += 1 / Math.pow(i + 1, s);
+            cumulative[i] = sum;
+        }
+        for (int i = 0; i < n; i++) {
+            cumulative[i] /= sum;
+        }
+        return cumulative;
+    }
+
+    private static int sample(SplittableRandom random, double[] cumulative) {
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        return Math.min(index >= 0 ? index : -index - 1, cumulative.length - 1);
+    }
+
+    private static String sentence(SplittableRandom random, int words) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                text.append(' ');
+            }
+            text.append(pick(random, WORDS));
+        }
+        return text.toString();
+    }
+
+    private static String pick(SplittableRandom random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private static Date date(LocalDate date) {
+        return date != null ? Date.valueOf(date) : null;
+    }
+}
@@ -0,0 +1,114 @@
+package com.portfolio.mytaskmanager;
+
+import com.portfolio.mytaskmanager.dto.CriticalPathDTO;
+import com.portfolio.mytaskmanager.dto.TaskRequestDTO;
+import com.portfolio.mytaskmanager.dto.TaskResponseDTO;
+import com.portfolio.mytaskmanager.entity.Project;
+import com.portfolio.mytaskmanager.entity.Status;
+import com.portfolio.mytaskmanager.repository.ProjectRepository;
+import com.portfolio.mytaskmanager.service.TaskDependencyService;
+import com.portfolio.mytaskmanager.service.TaskService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ComponentScan(basePackageClasses = {TaskService.class, com.portfolio.mytaskmanager.index.TaskIndex.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class TaskDependencyServiceTest {
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskDependencyService dependencyService;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Project project;
+    private Project other;
+
+    @BeforeEach
+    void setUp() {
+        project = projectRepository.save(Project.builder().name("Linked").description("x").build());
+        other = projectRepository.save(Project.builder().name("Other").description("x").build());
+    }
+
+    @AfterEach
+    void cleanUp() {
+        projectRepository.deleteAll();
+    }
+
+
+                                    // ====== MOVE TO ANOTHER PROJECT ======
+
+    @Test
+    void update_whenLinkedTaskMovesAndGraphLoaded_thenLinksDeletedWithTheMove() {
+
+        Long design = create("Design", project);
+        Long build = create("Build", project);
+        Long ship = create("Ship", project);
+        dependencyService.addBlocker(build, design);
+        dependencyService.addBlocker(ship, build);
+        assertThat(dependencyService.criticalPath(project.getId()).getLengthInDays()).isEqualTo(3);
+
+        TaskResponseDTO moved = taskService.update(build, request("Build", other));
+
+        assertThat(moved.getProjectId()).isEqualTo(other.getId());
+        assertThat(links(build)).isZero();
+        assertThat(dependencyService.findBlockers(ship)).isEmpty();
+        CriticalPathDTO path = dependencyService.criticalPath(project.getId());
+        assertThat(path.getLengthInDays()).isLessThan(3);
+        assertThat(path.getTasks()).extracting(CriticalPathDTO.CriticalTaskDTO::getTaskId).doesNotContain(build);
+    }
+
+    @Test
+    void update_whenLinkedTaskMovesAndGraphNotLoaded_thenLinksDeletedToo() {
+
+        Long design = create("Design", project);
+        Long build = create("Build", project);
+        dependencyService.addBlocker(build, design);
+        // another instance, or this one after a restart: nothing of the project in memory
+        dependencyService.onProjectDeleted(project.getId());
+
+        taskService.update(build, request("Build", other));
+
+        assertThat(links(build)).isZero();
+        assertThat(dependencyService.criticalPath(project.getId()).getTasks())
+                .extracting(CriticalPathDTO.CriticalTaskDTO::getTaskId).doesNotContain(build);
+    }
+
+
+    private long links(Long taskId) {
+        return jdbcTemplate.queryForObject("select count(*) from task_dependency where task_id = ? or blocker_id = ?",
+                Long.class, taskId, taskId);
+    }
+
+    private Long create(String title, Project project) {
+        return taskService.create(request(title, project)).getId();
+    }
+
+    private static TaskRequestDTO request(String title, Project project) {
+        TaskRequestDTO request = new TaskRequestDTO();
+        request.setTitle(title);
+        request.setDescription(title + " description");
+        request.setStatus(Status.TODO);
+        request.setDueDate(LocalDate.now().plusDays(7));
+        request.setProjectId(project.getId());
+        return request;
+    }
+}
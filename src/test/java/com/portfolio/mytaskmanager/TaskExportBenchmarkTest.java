@@ -0,0 +1,104 @@
+package com.portfolio.mytaskmanager;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.portfolio.mytaskmanager.entity.Project;
+import com.portfolio.mytaskmanager.repository.ProjectRepository;
+import com.portfolio.mytaskmanager.service.TaskExportService;
+import com.portfolio.mytaskmanager.service.TaskService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*  Not part of the normal build, run with: mvn test -P benchmark
+    bytes allocated by the request thread per exported task: entity + DTO + ObjectMapper path
+    (TaskService.findAll) against the row streaming path (TaskExportService), both written to a null stream
+*/
+@Tag("benchmark")
+@DataJpaTest
+@ComponentScan(basePackageClasses = {TaskService.class, com.portfolio.mytaskmanager.index.TaskIndex.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class TaskExportBenchmarkTest {
+
+    private static final int TASKS = 20_000;
+
+    @Autowired
+    private TaskService service;
+
+    @Autowired
+    private TaskExportService exportService;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final ObjectMapper mapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    @AfterEach
+    void cleanUp() {
+        projectRepository.deleteAll();
+    }
+
+    @Test
+    void export_onLargeTable_thenFarFewerBytesAllocatedPerRow() throws Exception {
+
+        insertTasks();
+
+        // warm up both paths (class loading, JIT, statement caches)
+        for (int i = 0; i < 3; i++) {
+            mapper.writeValue(OutputStream.nullOutputStream(), service.findAll());
+            exportService.writeTasks(null, OutputStream.nullOutputStream());
+        }
+
+        long dtoBytes = allocated(() -> mapper.writeValue(OutputStream.nullOutputStream(), service.findAll()));
+        long streamBytes = allocated(() -> exportService.writeTasks(null, OutputStream.nullOutputStream()));
+
+        System.out.printf("tasks=%d  entity+DTO: %d B/row  streaming: %d B/row%n",
+                TASKS, dtoBytes / TASKS, streamBytes / TASKS);
+        assertThat(streamBytes * 3).isLessThan(dtoBytes);
+    }
+
+
+    private void insertTasks() {
+        Project project = projectRepository.save(Project.builder().name("Bench").description("x").build());
+        List<Object[]> tasks = new ArrayList<>();
+        for (int i = 1; i <= TASKS; i++) {
+            tasks.add(new Object[]{"Task " + i, "Description of task " + i, Date.valueOf(LocalDate.now().plusDays(i % 90)),
+                    "TODO", project.getId()});
+        }
+        jdbcTemplate.batchUpdate("insert into task (title, description, due_date, status, project_id) values (?, ?, ?, ?, ?)", tasks);
+        jdbcTemplate.update("insert into task_tag (task_id, tag) select id, 'bench' from task");
+        jdbcTemplate.update("insert into task_tag (task_id, tag) select id, 'q3' from task where mod(id, 2) = 0");
+    }
+
+    private static long allocated(Measured action) throws Exception {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long before = threads.getCurrentThreadAllocatedBytes();
+        action.run();
+        return threads.getCurrentThreadAllocatedBytes() - before;
+    }
+
+    private interface Measured {
+        void run() throws Exception;
+    }
+}
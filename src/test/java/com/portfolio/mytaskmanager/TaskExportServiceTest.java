@@ -0,0 +1,110 @@
+package com.portfolio.mytaskmanager;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.portfolio.mytaskmanager.dto.TaskRequestDTO;
+import com.portfolio.mytaskmanager.entity.Project;
+import com.portfolio.mytaskmanager.entity.Status;
+import com.portfolio.mytaskmanager.repository.ProjectRepository;
+import com.portfolio.mytaskmanager.service.TaskExportService;
+import com.portfolio.mytaskmanager.service.TaskService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ComponentScan(basePackageClasses = {TaskService.class, com.portfolio.mytaskmanager.index.TaskIndex.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class TaskExportServiceTest {
+
+    @Autowired
+    private TaskService service;
+
+    @Autowired
+    private TaskExportService exportService;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    // same settings as the MVC converter: ISO dates
+    private final ObjectMapper mapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    private Project web;
+    private Project mobile;
+
+    @BeforeEach
+    void setUp() {
+        web = projectRepository.save(Project.builder().name("Web").description("x").build());
+        mobile = projectRepository.save(Project.builder().name("Mobile").description("x").build());
+    }
+
+    @AfterEach
+    void cleanUp() {
+        projectRepository.deleteAll();
+    }
+
+
+                                    // ====== EXPORT ======
+
+    @Test
+    void writeTasks_whenStreamedFromRows_thenSameJsonAsDtoList() throws IOException {
+
+        Long epic = create(web, "Epic \"one\"", null, LocalDate.now().plusDays(3), Set.of("q3", "backend", "bug"));
+        create(web, "Story ü", epic, null, Set.of());
+        create(mobile, "Release", null, LocalDate.now().plusDays(10), Set.of("release"));
+
+        JsonNode streamed = mapper.readTree(export(null));
+
+        assertThat(streamed).isEqualTo(mapper.readTree(mapper.writeValueAsBytes(service.findAll())));
+        assertThat(streamed.get(0).get("tags").toString()).isEqualTo("[\"backend\",\"bug\",\"q3\"]");
+        assertThat(streamed.get(1).get("dueDate").isNull()).isTrue();
+    }
+
+    @Test
+    void writeTasks_whenProjectGiven_thenOnlyItsTasks() throws IOException {
+
+        create(web, "Site", null, null, Set.of());
+        Long release = create(mobile, "Release", null, null, Set.of("release"));
+
+        JsonNode streamed = mapper.readTree(export(mobile.getId()));
+
+        assertThat(streamed).hasSize(1);
+        assertThat(streamed.get(0).get("id").asLong()).isEqualTo(release);
+        assertThat(mapper.readTree(export(-1L))).isEmpty();
+    }
+
+
+    private byte[] export(Long projectId) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.writeTasks(projectId, out);
+        return out.toByteArray();
+    }
+
+    private Long create(Project project, String title, Long parentId, LocalDate dueDate, Set<String> tags) {
+        TaskRequestDTO request = new TaskRequestDTO();
+        request.setTitle(title);
+        request.setDescription(title + " description");
+        request.setDueDate(dueDate);
+        request.setStatus(Status.TODO);
+        request.setProjectId(project.getId());
+        request.setParentId(parentId);
+        request.setTags(tags);
+        return service.create(request).getId();
+    }
+}
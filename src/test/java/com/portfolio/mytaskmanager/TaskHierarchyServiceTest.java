@@ -0,0 +1,200 @@
+package com.portfolio.mytaskmanager;
+
+import com.portfolio.mytaskmanager.dto.TaskRequestDTO;
+import com.portfolio.mytaskmanager.dto.TaskResponseDTO;
+import com.portfolio.mytaskmanager.dto.TaskRollupDTO;
+import com.portfolio.mytaskmanager.entity.Project;
+import com.portfolio.mytaskmanager.entity.Status;
+import com.portfolio.mytaskmanager.repository.ProjectRepository;
+import com.portfolio.mytaskmanager.repository.TaskClosureRepository;
+import com.portfolio.mytaskmanager.service.TaskHierarchyService;
+import com.portfolio.mytaskmanager.service.TaskService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DataJpaTest
+@ComponentScan(basePackageClasses = {TaskService.class, com.portfolio.mytaskmanager.index.TaskIndex.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class TaskHierarchyServiceTest {
+
+    @Autowired
+    private TaskService service;
+
+    @Autowired
+    private TaskHierarchyService hierarchy;
+
+    @Autowired
+    private TaskClosureRepository closureRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private Project project;
+
+    @BeforeEach
+    void setUp() {
+        project = projectRepository.save(Project.builder().name("Tree").description("x").build());
+    }
+
+    @AfterEach
+    void cleanUp() {
+        projectRepository.deleteAll();
+    }
+
+
+                                    // ====== CREATE ======
+
+    @Test
+    void create_whenNested_thenClosureHoldsEveryAncestorWithDepth() {
+
+        Long epic = create("Epic", null, Status.IN_PROGRESS);
+        Long story = create("Story", epic, Status.TODO);
+        Long subtask = create("Subtask", story, Status.DONE);
+
+        assertThat(closureRepository.findSubtreeIds(epic)).containsExactlyInAnyOrder(epic, story, subtask);
+        assertThat(closureRepository.findAncestorIds(subtask)).containsExactlyInAnyOrder(epic, story);
+        assertThat(closureRepository.findById(new com.portfolio.mytaskmanager.entity.TaskClosure.Key(epic, subtask)))
+                .get().extracting(c -> c.getDepth()).isEqualTo(2);
+
+        assertThat(service.findSubtasks(epic)).extracting(TaskResponseDTO::getId).containsExactly(story, subtask);
+    }
+
+    @Test
+    void rollup_whenSubtreeHasStatuses_thenCountedAtAnyDepth() {
+
+        Long epic = create("Epic", null, Status.IN_PROGRESS);
+        Long story = create("Story", epic, Status.DONE);
+        create("Subtask 1", story, Status.DONE);
+        create("Subtask 2", story, Status.TODO);
+
+        TaskRollupDTO rollup = service.rollup(epic);
+
+        assertThat(rollup.getTotal()).isEqualTo(4);
+        assertThat(rollup.getByStatus()).containsEntry(Status.DONE, 2L).containsEntry(Status.TODO, 1L);
+        assertThat(rollup.getPercentDone()).isEqualTo(50);
+    }
+
+
+                                    // ====== MOVE ======
+
+    @Test
+    void update_whenSubtreeMoved_thenLinksFollowNewParent() {
+
+        Long epicA = create("Epic A", null, Status.TODO);
+        Long epicB = create("Epic B", null, Status.TODO);
+        Long story = create("Story", epicA, Status.TODO);
+        Long subtask = create("Subtask", story, Status.TODO);
+
+        service.update(story, request("Story", epicB, Status.TODO));
+
+        assertThat(closureRepository.findSubtreeIds(epicA)).containsExactly(epicA);
+        assertThat(closureRepository.findSubtreeIds(epicB)).containsExactlyInAnyOrder(epicB, story, subtask);
+        assertThat(closureRepository.findAncestorIds(subtask)).containsExactlyInAnyOrder(epicB, story);
+        assertThat(service.findById(story).getParentId()).isEqualTo(epicB);
+
+        service.update(story, request("Story", null, Status.TODO));
+
+        assertThat(closureRepository.findSubtreeIds(epicB)).containsExactly(epicB);
+        assertThat(closureRepository.findAncestorIds(subtask)).containsExactly(story);
+    }
+
+    @Test
+    void update_whenMovedUnderOwnSubtask_thenThrowBadRequest() {
+
+        Long epic = create("Epic", null, Status.TODO);
+        Long story = create("Story", epic, Status.TODO);
+
+        assertThatThrownBy(() -> service.update(epic, request("Epic", story, Status.TODO)))
+                .isInstanceOfSatisfying(ResponseStatusException.class, ex ->
+                        assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST)
+                );
+    }
+
+
+                                    // ====== DELETE ======
+
+    @Test
+    void delete_whenLeafDeleted_thenItsClosureRowsAreGone() {
+
+        Long epic = create("Epic", null, Status.TODO);
+        Long story = create("Story", epic, Status.TODO);
+
+        assertThat(hierarchy.hasSubtasks(epic)).isTrue();
+        service.delete(story);
+
+        assertThat(hierarchy.hasSubtasks(epic)).isFalse();
+        assertThat(closureRepository.findSubtreeIds(epic)).containsExactly(epic);
+    }
+
+
+                                    // ====== TASKS FROM BEFORE THE CLOSURE TABLE ======
+
+    @Test
+    void create_whenParentHasNoClosureRows_thenMigrationBackfillLinksTheSubtask() {
+
+        Long old = insertWithoutClosure("Old epic");
+        Long other = insertWithoutClosure("Old story");
+        assertThat(closureRepository.findSubtreeIds(old)).isEmpty();
+
+        // the V5 script again, as on a database that still has such tasks, twice to show it only adds missing rows
+        ResourceDatabasePopulator backfill = new ResourceDatabasePopulator(
+                new ClassPathResource("db/migration/h2/V5__task_closure_self_rows.sql"));
+        backfill.execute(dataSource);
+        backfill.execute(dataSource);
+        assertThat(closureRepository.findSubtreeIds(old)).containsExactly(old);
+
+        Long child = create("Child", old, Status.DONE);
+
+        assertThat(service.findSubtasks(old)).extracting(TaskResponseDTO::getId).containsExactly(child);
+        assertThat(service.rollup(old).getTotal()).isEqualTo(2);
+        assertThat(hierarchy.hasSubtasks(old)).isTrue();
+
+        // an old task moves with its own row
+        service.update(other, request("Old story", old, Status.TODO));
+        assertThat(closureRepository.findAncestorIds(other)).containsExactly(old);
+    }
+
+
+    private Long insertWithoutClosure(String title) {
+        jdbcTemplate.update("insert into task (title, description, status, project_id) values (?, 'x', 'TODO', ?)",
+                title, project.getId());
+        return jdbcTemplate.queryForObject("select id from task where title = ?", Long.class, title);
+    }
+
+    private Long create(String title, Long parentId, Status status) {
+        return service.create(request(title, parentId, status)).getId();
+    }
+
+    private TaskRequestDTO request(String title, Long parentId, Status status) {
+        TaskRequestDTO request = new TaskRequestDTO();
+        request.setTitle(title);
+        request.setDescription(title + " description");
+        request.setDueDate(LocalDate.now().plusDays(5));
+        request.setStatus(status);
+        request.setProjectId(project.getId());
+        request.setParentId(parentId);
+        return request;
+    }
+}
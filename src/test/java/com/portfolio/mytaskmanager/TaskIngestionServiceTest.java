@@ -0,0 +1,206 @@
+package com.portfolio.mytaskmanager;
+
+import com.portfolio.mytaskmanager.dto.IngestionStatusDTO;
+import com.portfolio.mytaskmanager.dto.TaskRequestDTO;
+import com.portfolio.mytaskmanager.entity.Project;
+import com.portfolio.mytaskmanager.entity.Status;
+import com.portfolio.mytaskmanager.entity.Task;
+import com.portfolio.mytaskmanager.repository.ProjectRepository;
+import com.portfolio.mytaskmanager.repository.TaskRepository;
+import com.portfolio.mytaskmanager.service.TaskChangeListener;
+import com.portfolio.mytaskmanager.service.TaskIngestionService;
+import com.portfolio.mytaskmanager.service.TaskService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@ComponentScan(basePackageClasses = {TaskService.class, com.portfolio.mytaskmanager.index.TaskIndex.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class TaskIngestionServiceTest {
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private FailingListener failingListener;
+
+    private Project project;
+
+    @BeforeEach
+    void setUp() {
+        project = projectRepository.save(Project.builder().name("Ingest").description("x").build());
+    }
+
+    @AfterEach
+    void cleanUp() {
+        failingListener.failing = false;
+        projectRepository.deleteAll();
+    }
+
+
+                                    // ====== QUEUE ======
+
+    @Test
+    void flush_whenRequestsQueued_thenOneTransactionAndFailedOnesReported() {
+
+        TaskIngestionService ingestion = ingestion(false, 100);
+        List<IngestionStatusDTO> accepted = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            accepted.add(ingestion.submit(request(project.getId(), "Task " + i)));
+        }
+        IngestionStatusDTO unknownProject = ingestion.submit(request(999_999L, "Lost"));
+        assertThat(ingestion.status(accepted.get(0).getTrackingId()).getState()).isEqualTo(IngestionStatusDTO.State.QUEUED);
+
+        ingestion.flush();
+
+        assertThat(ingestion.batchCount()).isEqualTo(1);
+        for (IngestionStatusDTO status : accepted) {
+            IngestionStatusDTO current = ingestion.status(status.getTrackingId());
+            assertThat(current.getState()).isEqualTo(IngestionStatusDTO.State.CREATED);
+            assertThat(taskRepository.findById(current.getTaskId())).isPresent();
+        }
+        IngestionStatusDTO failed = ingestion.status(unknownProject.getTrackingId());
+        assertThat(failed.getState()).isEqualTo(IngestionStatusDTO.State.FAILED);
+        assertThat(failed.getError()).isEqualTo("Project not found");
+        assertThat(taskRepository.count()).isEqualTo(3);
+    }
+
+    @Test
+    void flush_whenBatchFailsAfterCommit_thenNotWrittenAgain() {
+
+        TaskIngestionService ingestion = ingestion(false, 100);
+        List<IngestionStatusDTO> accepted = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            accepted.add(ingestion.submit(request(project.getId(), "Once " + i)));
+        }
+        failingListener.failing = true;
+
+        ingestion.flush();
+
+        assertThat(taskRepository.count()).isEqualTo(3);
+        for (IngestionStatusDTO status : accepted) {
+            IngestionStatusDTO current = ingestion.status(status.getTrackingId());
+            assertThat(current.getState()).isEqualTo(IngestionStatusDTO.State.CREATED);
+            assertThat(taskRepository.findById(current.getTaskId())).isPresent();
+        }
+    }
+
+    @Test
+    void submit_whenQueueFull_thenRefusedAndNothingQueued() {
+
+        TaskIngestionService ingestion = ingestion(false, 2);
+        ingestion.submit(request(project.getId(), "One"));
+        ingestion.submit(request(project.getId(), "Two"));
+
+        assertThat(ingestion.submit(request(project.getId(), "Three"))).isNull();
+        assertThat(ingestion.queueSize()).isEqualTo(2);
+        assertThat(ingestion.retryAfterSeconds()).isPositive();
+    }
+
+    @Test
+    void submit_whenInvalid_thenRejectedBeforeQueueing() {
+
+        TaskIngestionService ingestion = ingestion(false, 100);
+        TaskRequestDTO request = request(project.getId(), "Late");
+        request.setDueDate(LocalDate.now().minusDays(1));
+
+        assertThatThrownBy(() -> ingestion.submit(request)).isInstanceOf(ResponseStatusException.class);
+        assertThat(ingestion.queueSize()).isZero();
+    }
+
+
+                                    // ====== DRAINER ======
+
+    @Test
+    void drainer_whenBurstSubmitted_thenWrittenInFewerTransactionsThanTasks() throws InterruptedException {
+
+        TaskIngestionService ingestion = ingestion(true, 1000);
+        ingestion.start();
+        List<IngestionStatusDTO> accepted = new ArrayList<>();
+        try {
+            for (int i = 0; i < 20; i++) {
+                accepted.add(ingestion.submit(request(project.getId(), "Burst " + i)));
+            }
+
+            long deadline = System.currentTimeMillis() + 10_000;
+            while (taskRepository.count() < 20 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+            }
+        } finally {
+            ingestion.stop();
+        }
+
+        assertThat(accepted).allSatisfy(status -> assertThat(ingestion.status(status.getTrackingId()).getState())
+                .isEqualTo(IngestionStatusDTO.State.CREATED));
+        assertThat(ingestion.batchCount()).isLessThan(20);
+    }
+
+
+    // Throws after the commit like a broken index or audit call would
+    @TestConfiguration
+    static class FailingListenerConfig {
+
+        @Bean
+        FailingListener failingListener() {
+            return new FailingListener();
+        }
+    }
+
+    static class FailingListener implements TaskChangeListener {
+
+        volatile boolean failing;
+
+        @Override
+        public void onTaskSaved(Task task) {
+            if (failing) {
+                throw new IllegalStateException("listener failed");
+            }
+        }
+
+        @Override
+        public void onTaskDeleted(Long taskId) {
+        }
+    }
+
+    private TaskIngestionService ingestion(boolean enabled, int capacity) {
+        return new TaskIngestionService(taskService, transactionTemplate, enabled, capacity, 50, Duration.ofMillis(200),
+                Duration.ofMinutes(15), Clock.systemUTC());
+    }
+
+    private static TaskRequestDTO request(Long projectId, String title) {
+        TaskRequestDTO request = new TaskRequestDTO();
+        request.setTitle(title);
+        request.setDescription(title + " description");
+        request.setStatus(Status.TODO);
+        request.setProjectId(projectId);
+        return request;
+    }
+}
@@ -0,0 +1,103 @@
+package com.portfolio.mytaskmanager;
+
+import com.portfolio.mytaskmanager.dto.TaskResponseDTO;
+import com.portfolio.mytaskmanager.entity.Project;
+import com.portfolio.mytaskmanager.entity.Status;
+import com.portfolio.mytaskmanager.entity.Task;
+import com.portfolio.mytaskmanager.index.TaskSearchIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TaskSearchIndexTest {
+
+    private TaskSearchIndex index;
+
+    private final Project web = Project.builder().id(1L).name("Web").build();
+    private final Project mobile = Project.builder().id(2L).name("Mobile").build();
+
+    @BeforeEach
+    void setUp() {
+        index = new TaskSearchIndex();
+        index.onTaskSaved(task(1L, "Deploy backend", "Release the API to production", Status.TODO, web));
+        index.onTaskSaved(task(2L, "Write docs", "Describe deployment steps", Status.IN_PROGRESS, web));
+        index.onTaskSaved(task(3L, "Fix login", "Mobile login crashes on deploy", Status.TODO, mobile));
+        index.onTaskSaved(task(4L, "Design logo", "New colors", Status.DONE, mobile));
+        index.markLoaded();
+    }
+
+
+                                    // ====== SEARCH ======
+
+    @Test
+    void search_whenWordIsPrefix_thenAllMatchingTasksReturned() {
+
+        List<TaskResponseDTO> result = index.search("dep", null, null, 10);
+
+        assertThat(result).extracting(TaskResponseDTO::getId).containsExactly(1L, 2L, 3L);
+    }
+
+    @Test
+    void search_whenWordMatchesExactly_thenTitleAndExactMatchesRankedFirst() {
+
+        List<TaskResponseDTO> result = index.search("deploy", null, null, 10);
+
+        assertThat(result).extracting(TaskResponseDTO::getId).containsExactly(1L, 3L, 2L);
+    }
+
+    @Test
+    void search_whenSeveralWords_thenAllOfThemMustMatch() {
+
+        List<TaskResponseDTO> result = index.search("login DEPLOY", null, null, 10);
+
+        assertThat(result).extracting(TaskResponseDTO::getId).containsExactly(3L);
+    }
+
+    @Test
+    void search_whenFiltersAndLimitGiven_thenOnlyBestMatchingTasksReturned() {
+
+        assertThat(index.search("deploy", Status.TODO, 2L, 10))
+                .extracting(TaskResponseDTO::getId).containsExactly(3L);
+
+        assertThat(index.search("dep", null, null, 1))
+                .extracting(TaskResponseDTO::getId).containsExactly(1L);
+    }
+
+    @Test
+    void search_whenNothingMatches_thenEmptyList() {
+
+        assertThat(index.search("kubernetes", null, null, 10)).isEmpty();
+        assertThat(index.search("  ,; ", null, null, 10)).isEmpty();
+    }
+
+
+                                    // ====== UPDATE / DELETE ======
+
+    @Test
+    void onTaskSaved_whenTaskUpdated_thenOldWordsAreNotFoundAnymore() {
+
+        index.onTaskSaved(task(4L, "Design icon", "New colors", Status.DONE, mobile));
+
+        assertThat(index.search("logo", null, null, 10)).isEmpty();
+        assertThat(index.search("icon", null, null, 10))
+                .extracting(TaskResponseDTO::getTitle).containsExactly("Design icon");
+    }
+
+    @Test
+    void onTaskDeleted_andOnProjectDeleted_thenTasksRemovedFromIndex() {
+
+        index.onTaskDeleted(1L);
+        assertThat(index.search("deploy", null, null, 10)).extracting(TaskResponseDTO::getId).containsExactly(3L, 2L);
+
+        index.onProjectDeleted(2L);
+        assertThat(index.search("deploy", null, null, 10)).extracting(TaskResponseDTO::getId).containsExactly(2L);
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    private Task task(Long id, String title, String description, Status status, Project project) {
+        return Task.builder().id(id).title(title).description(description).status(status).project(project).build();
+    }
+}
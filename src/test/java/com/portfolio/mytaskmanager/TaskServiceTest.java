@@ -6,7 +6,9 @@ import com.portfolio.mytaskmanager.entity.Project;
 import com.portfolio.mytaskmanager.entity.Status;
 import com.portfolio.mytaskmanager.entity.Task;
 import com.portfolio.mytaskmanager.repository.ProjectRepository;
+import com.portfolio.mytaskmanager.repository.TaskDependencyRepository;
 import com.portfolio.mytaskmanager.repository.TaskRepository;
+import com.portfolio.mytaskmanager.service.TaskHierarchyService;
 import com.portfolio.mytaskmanager.service.TaskService;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -16,11 +18,13 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.Vector;
 
 import static org.mockito.Mockito.when;
@@ -37,6 +41,15 @@ public class TaskServiceTest {
     @Mock
     private ProjectRepository projectRepository;
 
+    @Mock
+    private TaskHierarchyService hierarchy;
+
+    @Mock
+    private TaskDependencyRepository dependencyRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     @InjectMocks
     private TaskService service;
 
@@ -541,5 +554,116 @@ public class TaskServiceTest {
         verifyNoInteractions(projectRepository);
     }
 
+    @Test
+    void delete_whenTaskHasSubtasks_thenThrowConflict() {
+
+        when(repository.existsById(44L)).thenReturn(true);
+        when(hierarchy.hasSubtasks(44L)).thenReturn(true);
+
+        assertThatThrownBy(()-> service.delete(44L))
+                .isInstanceOfSatisfying(ResponseStatusException.class, ex ->
+                assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.CONFLICT)
+                )
+                .hasMessageContaining("Task has subtasks");
+
+        verify(repository, never()).deleteById(anyLong());
+    }
+
+                                        // ====== SUBTASKS ======
+
+    @Test
+    void create_whenParentGiven_thenTaskIsAttachedUnderParent() {
+
+        TaskRequestDTO request = new TaskRequestDTO();
+        request.setTitle("Story");
+        request.setDescription("Part of epic");
+        request.setDueDate(LocalDate.now().plusDays(3));
+        request.setStatus(Status.TODO);
+        request.setProjectId(6L);
+        request.setParentId(10L);
+
+        Project project = Project.builder().id(6L).name("ANY").build();
+        Task epic = Task.builder().id(10L).title("Epic").description("e").project(project).build();
+
+        when(projectRepository.findById(6L)).thenReturn(Optional.of(project));
+        when(repository.findById(10L)).thenReturn(Optional.of(epic));
+        when(repository.save(any(Task.class)))
+                .thenAnswer(inv -> {
+                    Task t = inv.getArgument(0);
+                    t.setId(11L);
+                    return t;
+                });
+
+        TaskResponseDTO dto = service.create(request);
+
+        assertThat(dto.getParentId()).isEqualTo(10L);
+        verify(hierarchy).attach(taskCaptor.capture());
+        assertThat(taskCaptor.getValue().getParent()).isSameAs(epic);
+    }
+
+    @Test
+    void create_whenParentInOtherProject_thenThrowBadRequestAndNoSave() {
+
+        TaskRequestDTO request = new TaskRequestDTO();
+        request.setTitle("Story");
+        request.setDescription("Part of epic");
+        request.setDueDate(LocalDate.now().plusDays(3));
+        request.setStatus(Status.TODO);
+        request.setProjectId(6L);
+        request.setParentId(10L);
+
+        Project project = Project.builder().id(6L).name("ANY").build();
+        Project other = Project.builder().id(7L).name("OTHER").build();
+        Task epic = Task.builder().id(10L).title("Epic").description("e").project(other).build();
+
+        when(projectRepository.findById(6L)).thenReturn(Optional.of(project));
+        when(repository.findById(10L)).thenReturn(Optional.of(epic));
+
+        assertThatThrownBy(() -> service.create(request))
+                .isInstanceOfSatisfying(ResponseStatusException.class, ex ->
+                        assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST)
+                )
+                .hasMessageContaining("Parent task must belong to the same project");
+
+        verify(repository, never()).save(any(Task.class));
+        verifyNoInteractions(hierarchy);
+    }
+
+
+                                        // ====== TAGS ======
+
+    @Test
+    void create_whenTagsGiven_thenStoredTrimmedAndLowerCase() {
+
+        TaskRequestDTO request = new TaskRequestDTO();
+        request.setTitle("Fix login");
+        request.setDescription("Customer report");
+        request.setDueDate(LocalDate.now().plusDays(3));
+        request.setStatus(Status.TODO);
+        request.setProjectId(6L);
+        request.setTags(Set.of(" Bug", "bug", "Customer-X", " "));
+
+        Project project = Project.builder().id(6L).name("ANY").build();
+        when(projectRepository.findById(6L)).thenReturn(Optional.of(project));
+        when(repository.save(any(Task.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        TaskResponseDTO dto = service.create(request);
+
+        assertThat(dto.getTags()).containsExactly("bug", "customer-x");
+        verify(repository).save(taskCaptor.capture());
+        assertThat(taskCaptor.getValue().getTags()).containsExactlyInAnyOrder("bug", "customer-x");
+    }
+
+    @Test
+    void findByTags_whenNoTagGiven_thenThrowBadRequest() {
+
+        assertThatThrownBy(() -> service.findByTags(null, Set.of(" "), null, null, null, false, 100))
+                .isInstanceOfSatisfying(ResponseStatusException.class, ex ->
+                        assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST)
+                )
+                .hasMessageContaining("At least one tag is required");
+
+        verifyNoInteractions(repository);
+    }
 
 }
@@ -0,0 +1,166 @@
+package com.portfolio.mytaskmanager;
+
+import com.portfolio.mytaskmanager.dto.SnapshotResultDTO;
+import com.portfolio.mytaskmanager.dto.TaskRequestDTO;
+import com.portfolio.mytaskmanager.dto.TaskResponseDTO;
+import com.portfolio.mytaskmanager.entity.Project;
+import com.portfolio.mytaskmanager.entity.Status;
+import com.portfolio.mytaskmanager.repository.ProjectRepository;
+import com.portfolio.mytaskmanager.service.TaskDependencyService;
+import com.portfolio.mytaskmanager.service.TaskService;
+import com.portfolio.mytaskmanager.snapshot.TaskSnapshotService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@ComponentScan(basePackageClasses = {TaskService.class, com.portfolio.mytaskmanager.index.TaskIndex.class, TaskSnapshotService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class TaskSnapshotServiceTest {
+
+    @Autowired
+    private TaskSnapshotService snapshotService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskDependencyService dependencyService;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void cleanUp() {
+        projectRepository.deleteAll();
+    }
+
+
+                                    // ====== SNAPSHOT AND RESTORE ======
+
+    @Test
+    void restore_whenSnapshotOfAllTables_thenSameRowsAndNewIdsAfterThem() throws IOException {
+
+        Project project = projectRepository.save(Project.builder().name("Snapshot").description("x")
+                .startDate(LocalDate.of(2030, 1, 1)).build());
+        TaskResponseDTO epic = taskService.create(request(project.getId(), "Epic", null, Set.of("backend", "q3")));
+        TaskResponseDTO story = taskService.create(request(project.getId(), "Story", epic.getId(), Set.of("backend")));
+        TaskResponseDTO other = taskService.create(request(project.getId(), "Other", null, Set.of()));
+        dependencyService.addBlocker(other.getId(), story.getId());
+        Map<String, List<Map<String, Object>>> before = dump();
+
+        ByteArrayOutputStream file = new ByteArrayOutputStream();
+        SnapshotResultDTO written = snapshotService.write(file);
+        assertThat(written.getRows()).containsEntry("project", 1L).containsEntry("task", 3L).containsEntry("task_tag", 3L);
+
+        projectRepository.deleteAll();
+        assertThat(jdbcTemplate.queryForObject("select count(*) from task", Long.class)).isZero();
+
+        SnapshotResultDTO restored = snapshotService.restore(new ByteArrayInputStream(file.toByteArray()));
+
+        assertThat(restored.getRows()).isEqualTo(written.getRows());
+        assertThat(dump()).isEqualTo(before);
+        assertThat(taskService.findById(story.getId()).getParentId()).isEqualTo(epic.getId());
+
+        // generated IDs continue after the restored ones
+        TaskResponseDTO next = taskService.create(request(project.getId(), "Next", null, Set.of()));
+        assertThat(next.getId()).isGreaterThan(other.getId());
+    }
+
+    @Test
+    void restore_whenArchiveHoldsTheHighestId_thenNewTasksGetIdsAfterIt() throws IOException {
+
+        Project project = projectRepository.save(Project.builder().name("Archived").description("x").build());
+        TaskResponseDTO active = taskService.create(request(project.getId(), "Active", null, Set.of()));
+        TaskResponseDTO done = taskService.create(request(project.getId(), "Done", null, Set.of()));
+        // what TaskArchiveService does to an old finished task: same ID, moved out of the task table
+        jdbcTemplate.update("insert into task_archive (id, title, description, status, due_date, finished_at, archived_at, project_id)"
+                + " select id, title, description, 'DONE', due_date, current_timestamp, current_timestamp, project_id from task where id = ?",
+                done.getId());
+        jdbcTemplate.update("delete from task_closure where descendant_id = ?", done.getId());
+        jdbcTemplate.update("delete from task where id = ?", done.getId());
+
+        ByteArrayOutputStream file = new ByteArrayOutputStream();
+        snapshotService.write(file);
+        projectRepository.deleteAll();
+        snapshotService.restore(new ByteArrayInputStream(file.toByteArray()));
+
+        TaskResponseDTO next = taskService.create(request(project.getId(), "Next", null, Set.of()));
+        assertThat(next.getId()).isGreaterThan(done.getId()).isGreaterThan(active.getId());
+    }
+
+    @Test
+    void restore_whenDatabaseNotEmpty_thenConflict() throws IOException {
+
+        projectRepository.save(Project.builder().name("Existing").description("x").build());
+        ByteArrayOutputStream file = new ByteArrayOutputStream();
+        snapshotService.write(file);
+
+        assertThatThrownBy(() -> snapshotService.restore(new ByteArrayInputStream(file.toByteArray())))
+                .isInstanceOf(ResponseStatusException.class)
+                .extracting(e -> ((ResponseStatusException) e).getStatusCode())
+                .isEqualTo(HttpStatus.CONFLICT);
+    }
+
+    @Test
+    void restore_whenFileDamaged_thenBadRequestAndNothingWritten() throws IOException {
+
+        Project project = projectRepository.save(Project.builder().name("Damaged").description("x").build());
+        taskService.create(request(project.getId(), "Task", null, Set.of()));
+        ByteArrayOutputStream file = new ByteArrayOutputStream();
+        snapshotService.write(file);
+        projectRepository.deleteAll();
+
+        byte[] truncated = Arrays.copyOf(file.toByteArray(), file.size() - 10);
+
+        assertThatThrownBy(() -> snapshotService.restore(new ByteArrayInputStream(truncated)))
+                .isInstanceOf(ResponseStatusException.class)
+                .extracting(e -> ((ResponseStatusException) e).getStatusCode())
+                .isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(jdbcTemplate.queryForObject("select count(*) from project", Long.class)).isZero();
+    }
+
+
+    private Map<String, List<Map<String, Object>>> dump() {
+        return Map.of(
+                "project", jdbcTemplate.queryForList("select id, name, description, start_date, end_date, name_upper from project order by id"),
+                "task", jdbcTemplate.queryForList("select * from task order by id"),
+                "task_tag", jdbcTemplate.queryForList("select * from task_tag order by task_id, tag"),
+                "task_closure", jdbcTemplate.queryForList("select * from task_closure order by descendant_id, ancestor_id"),
+                "task_dependency", jdbcTemplate.queryForList("select * from task_dependency order by id"));
+    }
+
+    private static TaskRequestDTO request(Long projectId, String title, Long parentId, Set<String> tags) {
+        TaskRequestDTO request = new TaskRequestDTO();
+        request.setTitle(title);
+        request.setDescription(title + " description");
+        request.setStatus(Status.TODO);
+        request.setDueDate(LocalDate.now().plusDays(7));
+        request.setProjectId(projectId);
+        request.setParentId(parentId);
+        request.setTags(tags);
+        return request;
+    }
+}
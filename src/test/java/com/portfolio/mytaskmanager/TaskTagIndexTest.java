@@ -0,0 +1,96 @@
+package com.portfolio.mytaskmanager;
+
+import com.portfolio.mytaskmanager.entity.Project;
+import com.portfolio.mytaskmanager.entity.Status;
+import com.portfolio.mytaskmanager.entity.Task;
+import com.portfolio.mytaskmanager.index.TaskTagIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TaskTagIndexTest {
+
+    private TaskTagIndex index;
+
+    private final Project web = Project.builder().id(1L).name("Web").build();
+    private final Project mobile = Project.builder().id(2L).name("Mobile").build();
+
+    @BeforeEach
+    void setUp() {
+        index = new TaskTagIndex();
+        index.onTaskSaved(task(1L, Status.TODO, web, "bug", "q3"));
+        index.onTaskSaved(task(2L, Status.TODO, web, "bug", "customer-x"));
+        index.onTaskSaved(task(3L, Status.DONE, mobile, "bug", "q3", "customer-x"));
+        index.onTaskSaved(task(4L, Status.IN_PROGRESS, mobile, "feature", "q3"));
+        index.onTaskSaved(task(5L, Status.TODO, mobile));
+        index.markLoaded();
+    }
+
+
+                                    // ====== QUERY ======
+
+    @Test
+    void query_whenAllTags_thenIntersection() {
+
+        assertThat(ids(Set.of("bug", "q3"), Set.of(), Set.of(), null, null)).containsExactly(1L, 3L);
+        assertThat(ids(Set.of("bug", "unknown"), Set.of(), Set.of(), null, null)).isEmpty();
+    }
+
+    @Test
+    void query_whenAnyTags_thenUnionLimitedByAllTags() {
+
+        assertThat(ids(Set.of(), Set.of("customer-x", "feature"), Set.of(), null, null)).containsExactly(2L, 3L, 4L);
+        assertThat(ids(Set.of("q3"), Set.of("customer-x", "feature"), Set.of(), null, null)).containsExactly(3L, 4L);
+    }
+
+    @Test
+    void query_whenNoneTags_thenExcluded() {
+
+        assertThat(ids(Set.of("bug"), Set.of(), Set.of("customer-x"), null, null)).containsExactly(1L);
+        assertThat(ids(Set.of(), Set.of(), Set.of("bug"), null, null)).containsExactly(4L, 5L);
+    }
+
+    @Test
+    void query_whenStatusAndProjectGiven_thenFiltered() {
+
+        assertThat(ids(Set.of("bug"), Set.of(), Set.of(), Status.TODO, null)).containsExactly(1L, 2L);
+        assertThat(ids(Set.of("q3"), Set.of(), Set.of(), null, 2L)).containsExactly(3L, 4L);
+        assertThat(ids(Set.of("q3"), Set.of(), Set.of(), null, 99L)).isEmpty();
+    }
+
+
+                                    // ====== CHANGES ======
+
+    @Test
+    void onTaskSaved_whenTagsChanged_thenOldBitmapsUpdated() {
+
+        index.onTaskSaved(task(1L, Status.DONE, web, "feature"));
+
+        assertThat(ids(Set.of("q3"), Set.of(), Set.of(), null, null)).containsExactly(3L, 4L);
+        assertThat(ids(Set.of("feature"), Set.of(), Set.of(), Status.DONE, null)).containsExactly(1L);
+    }
+
+    @Test
+    void onTaskDeletedAndProjectDeleted_thenTasksRemoved() {
+
+        index.onTaskDeleted(1L);
+        index.onProjectDeleted(2L);
+
+        assertThat(ids(Set.of("bug"), Set.of(), Set.of(), null, null)).containsExactly(2L);
+        assertThat(ids(Set.of(), Set.of(), Set.of("nothing"), null, null)).containsExactly(2L);
+    }
+
+
+    private long[] ids(Set<String> all, Set<String> any, Set<String> none, Status status, Long projectId) {
+        return index.query(all, any, none, status, projectId).toArray();
+    }
+
+    private Task task(Long id, Status status, Project project, String... tags) {
+        return Task.builder().id(id).title("Task " + id).description("d").status(status)
+                .project(project).tags(new HashSet<>(Set.of(tags))).build();
+    }
+}
@@ -0,0 +1,77 @@
+package com.portfolio.mytaskmanager;
+
+import com.portfolio.mytaskmanager.dto.TaskResponseDTO;
+import com.portfolio.mytaskmanager.entity.Project;
+import com.portfolio.mytaskmanager.entity.Status;
+import com.portfolio.mytaskmanager.entity.Task;
+import com.portfolio.mytaskmanager.index.UpcomingTaskIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class UpcomingTaskIndexTest {
+
+    private UpcomingTaskIndex index;
+
+    private final LocalDate today = LocalDate.now();
+    private final Project web = Project.builder().id(1L).name("Web").build();
+    private final Project mobile = Project.builder().id(2L).name("Mobile").build();
+
+    @BeforeEach
+    void setUp() {
+        index = new UpcomingTaskIndex();
+        index.onTaskSaved(task(1L, today.plusDays(5), Status.TODO, web));
+        index.onTaskSaved(task(2L, today.plusDays(1), Status.IN_PROGRESS, mobile));
+        index.onTaskSaved(task(3L, today.plusDays(1), Status.DELAYED, web));
+        index.onTaskSaved(task(4L, today.plusDays(2), Status.DONE, web));
+        index.onTaskSaved(task(5L, null, Status.TODO, web));
+        index.markLoaded();
+    }
+
+
+                                    // ====== UPCOMING ======
+
+    @Test
+    void upcoming_whenTasksStored_thenOpenTasksOrderedByDueDateThenId() {
+
+        assertThat(index.upcoming(10, null))
+                .extracting(TaskResponseDTO::getId).containsExactly(2L, 3L, 1L);
+        assertThat(index.upcoming(2, null))
+                .extracting(TaskResponseDTO::getId).containsExactly(2L, 3L);
+    }
+
+    @Test
+    void upcoming_whenProjectGiven_thenOnlyItsTasks() {
+
+        assertThat(index.upcoming(10, 1L)).extracting(TaskResponseDTO::getId).containsExactly(3L, 1L);
+        assertThat(index.upcoming(10, 99L)).isEmpty();
+    }
+
+    @Test
+    void onTaskSaved_whenTaskFinishedOrMoved_thenIndexFollows() {
+
+        index.onTaskSaved(task(3L, today.plusDays(1), Status.DONE, web));
+        index.onTaskSaved(task(1L, today.plusDays(5), Status.TODO, mobile));
+
+        assertThat(index.upcoming(10, 1L)).isEmpty();
+        assertThat(index.upcoming(10, 2L)).extracting(TaskResponseDTO::getId).containsExactly(2L, 1L);
+        assertThat(index.size()).isEqualTo(2);
+    }
+
+    @Test
+    void onTaskDeleted_andOnProjectDeleted_thenTasksRemoved() {
+
+        index.onTaskDeleted(2L);
+        assertThat(index.upcoming(10, null)).extracting(TaskResponseDTO::getId).containsExactly(3L, 1L);
+
+        index.onProjectDeleted(1L);
+        assertThat(index.upcoming(10, null)).isEmpty();
+    }
+
+    private Task task(Long id, LocalDate dueDate, Status status, Project project) {
+        return Task.builder().id(id).title("T" + id).description("d").dueDate(dueDate).status(status).project(project).build();
+    }
+}
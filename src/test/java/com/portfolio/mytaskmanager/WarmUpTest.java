@@ -0,0 +1,56 @@
+package com.portfolio.mytaskmanager;
+
+import com.portfolio.mytaskmanager.warmup.WarmUpHealthIndicator;
+import com.portfolio.mytaskmanager.warmup.WarmUpService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Real server on a random port and an in-memory H2 database instead of MySQL, three warm-up rounds
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"spring.datasource.url=jdbc:h2:mem:warm-up;DB_CLOSE_DELAY=-1",
+                "warmup.rounds=3", "warmup.budget=PT20S", "audit.directory=target/audit/warm-up"})
+public class WarmUpTest {
+
+    @Autowired
+    private WarmUpService warmUp;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+
+                                    // ====== READINESS ======
+
+    @Test
+    void readiness_whenWarmUpFinished_thenUpAfterCallingTheReadEndpoints() throws InterruptedException {
+
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (warmUp.getState() != WarmUpService.State.DONE && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+
+        ResponseEntity<String> readiness = restTemplate.getForEntity("/actuator/health/readiness", String.class);
+
+        assertThat(readiness.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(warmUp.getConnections()).isPositive();
+        // empty database: only the paths without {projectId}/{taskId}, 6 per round
+        assertThat(warmUp.getRequests()).isEqualTo(18);
+        assertThat(warmUp.getFailedRequests()).isZero();
+    }
+
+    @Test
+    void health_whenWarmUpNotFinished_thenOutOfService() {
+
+        WarmUpHealthIndicator indicator = new WarmUpHealthIndicator();
+        ReflectionTestUtils.setField(indicator, "warmUp", new WarmUpService());
+
+        assertThat(indicator.health().getStatus()).isEqualTo(Status.OUT_OF_SERVICE);
+    }
+}